@@ -3,6 +3,7 @@ package de.leonhard.storage;
 import de.leonhard.storage.internal.FlatFile;
 import de.leonhard.storage.internal.settings.ConfigSettings;
 import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.internal.settings.LoadSettings;
 import de.leonhard.storage.internal.settings.ReloadSettings;
 import java.io.File;
 import java.io.InputStream;
@@ -54,6 +55,27 @@ public class Config extends Yaml {
     setConfigSettings(ConfigSettings.PRESERVE_COMMENTS);
   }
 
+  public Config(
+      final String name,
+      @Nullable final String path,
+      @Nullable final InputStream inputStream,
+      @Nullable final ReloadSettings reloadSettings,
+      @Nullable final ConfigSettings configSettings,
+      @Nullable final DataType dataType,
+      @Nullable final LoadSettings loadSettings,
+      @Nullable final Consumer<FlatFile> reloadConsumer) {
+    super(
+        name,
+        path,
+        inputStream,
+        reloadSettings,
+        configSettings,
+        dataType,
+        loadSettings,
+        reloadConsumer);
+    setConfigSettings(ConfigSettings.PRESERVE_COMMENTS);
+  }
+
   public Config(final File file) {
     super(file);
   }
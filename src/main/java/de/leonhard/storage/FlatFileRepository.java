@@ -0,0 +1,319 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.FlatFile;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.WriteSettings;
+import de.leonhard.storage.util.Valid;
+import java.io.File;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A bounded cache of FlatFiles in one directory, for example one file per player. Files are
+ * identified by their name (without extension) and loaded on demand.
+ *
+ * <p>Once more than maxEntries files are loaded or the size of the loaded files exceeds maxBytes,
+ * the least recently used files are evicted. Files of our repository are created using {@link
+ * WriteSettings#MANUALLY}, their changes are written on eviction, {@link #flush(String)} or {@link
+ * #flushAll()}. Evicted files write their changes automatically again, so references kept by the
+ * user can't lose data. As long as such a reference exists, loading the file again returns the
+ * same instance instead of a second one overwriting its data.
+ *
+ * @param <T> Type of our FlatFiles.
+ */
+public final class FlatFileRepository<T extends FlatFile> {
+
+  private final File directory;
+  private final Function<LightningBuilder, T> factory;
+  @Getter
+  private final int maxEntries;
+  @Getter
+  private final long maxBytes;
+  private final Executor executor;
+
+  // Access ordered -> Our least recently used file comes first
+  private final LinkedHashMap<String, CachedFlatFile<T>> cached = new LinkedHashMap<>(
+      16,
+      0.75f,
+      true);
+  private final Map<String, CompletableFuture<T>> loading = new HashMap<>();
+  // Evicted files which might still be referenced by the user
+  private final Map<String, EvictedFlatFile<T>> evicted = new HashMap<>();
+  private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+  @Getter
+  private long estimatedBytes;
+
+  public FlatFileRepository(
+      @NonNull final File directory,
+      @NonNull final Function<LightningBuilder, T> factory,
+      final int maxEntries,
+      final long maxBytes) {
+    this(directory, factory, maxEntries, maxBytes, LightningProviders.ioExecutor());
+  }
+
+  /**
+   * @param directory  Directory of our files.
+   * @param factory    Creates a FlatFile using a builder which has its directory & name set. For
+   *                   example {@code LightningBuilder::createJson}
+   * @param maxEntries Maximum amount of loaded files.
+   * @param maxBytes   Maximum size of the loaded files, estimated from their data once loaded.
+   *                   See {@link de.leonhard.storage.internal.FileData#estimateBytes()}
+   * @param executor   Executor used by {@link #preloadAsync(String)}
+   */
+  public FlatFileRepository(
+      @NonNull final File directory,
+      @NonNull final Function<LightningBuilder, T> factory,
+      final int maxEntries,
+      final long maxBytes,
+      @NonNull final Executor executor) {
+    Valid.checkBoolean(maxEntries > 0, "Repository must be able to hold at least one file");
+    Valid.checkBoolean(maxBytes > 0, "Maximum size of repository must be positive");
+    this.directory = directory;
+    this.factory = factory;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.executor = executor;
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Accessing our files
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * Returns the file with the given id. Loads it if necessary.
+   *
+   * @param id Name of the file without extension.
+   */
+  public T get(@NonNull final String id) {
+    try {
+      return load(id, Runnable::run).join();
+    } catch (final CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Loads the file with the given id using our executor, for example when a player connects.
+   */
+  public CompletableFuture<T> preloadAsync(@NonNull final String id) {
+    return load(id, this.executor);
+  }
+
+  public synchronized boolean isLoaded(@NonNull final String id) {
+    return this.cached.containsKey(id);
+  }
+
+  public synchronized int size() {
+    return this.cached.size();
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Writing & evicting
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * Writes the changes of the file, if it is loaded.
+   *
+   * @return true if the file was written.
+   */
+  public boolean flush(@NonNull final String id) {
+    final CachedFlatFile<T> cachedFlatFile;
+    synchronized (this) {
+      cachedFlatFile = this.cached.get(id);
+    }
+    return cachedFlatFile != null && cachedFlatFile.flatFile.flush();
+  }
+
+  public void flushAll() {
+    final List<CachedFlatFile<T>> flatFiles;
+    synchronized (this) {
+      flatFiles = new ArrayList<>(this.cached.values());
+    }
+    for (final CachedFlatFile<T> cachedFlatFile : flatFiles) {
+      cachedFlatFile.flatFile.flush();
+    }
+  }
+
+  /**
+   * Writes the changes of the file & removes it from our repository.
+   */
+  public void invalidate(@NonNull final String id) {
+    final List<T> evictedFlatFiles = new ArrayList<>();
+    synchronized (this) {
+      final CachedFlatFile<T> cachedFlatFile = this.cached.remove(id);
+      if (cachedFlatFile != null) {
+        evict(id, cachedFlatFile, evictedFlatFiles);
+      }
+    }
+    flush(evictedFlatFiles);
+  }
+
+  public void invalidateAll() {
+    final List<T> evictedFlatFiles = new ArrayList<>();
+    synchronized (this) {
+      for (final Map.Entry<String, CachedFlatFile<T>> entry : this.cached.entrySet()) {
+        evict(entry.getKey(), entry.getValue(), evictedFlatFiles);
+      }
+      this.cached.clear();
+    }
+    flush(evictedFlatFiles);
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Internal stuff
+  // ----------------------------------------------------------------------------------------------------
+
+  private CompletableFuture<T> load(final String id, final Executor executor) {
+    Valid.checkBoolean(
+        !id.isEmpty() && !id.contains("/") && !id.contains("\\"),
+        "Invalid id: '" + id + "'");
+
+    final CompletableFuture<T> future;
+    final List<T> evictedFlatFiles = new ArrayList<>();
+    synchronized (this) {
+      final CachedFlatFile<T> cachedFlatFile = this.cached.get(id);
+      if (cachedFlatFile != null) {
+        return CompletableFuture.completedFuture(cachedFlatFile.flatFile);
+      }
+
+      // Already loading
+      final CompletableFuture<T> loadingFuture = this.loading.get(id);
+      if (loadingFuture != null) {
+        return loadingFuture;
+      }
+
+      // Still referenced after its eviction, a second instance would overwrite its data
+      final T evictedFlatFile = readopt(id);
+      if (evictedFlatFile != null) {
+        final long bytes = evictedFlatFile.getFileData().estimateBytes();
+        add(id, evictedFlatFile, bytes, evictedFlatFiles);
+        future = CompletableFuture.completedFuture(evictedFlatFile);
+      } else {
+        future = new CompletableFuture<>();
+        this.loading.put(id, future);
+      }
+    }
+
+    if (future.isDone()) {
+      flush(evictedFlatFiles);
+      return future;
+    }
+
+    executor.execute(() -> {
+      try {
+        final T flatFile = this.factory.apply(LightningBuilder
+            .fromDirectory(this.directory)
+            .setName(id)
+            .setWriteSettings(WriteSettings.MANUALLY));
+        final long bytes = flatFile.getFileData().estimateBytes();
+        synchronized (this) {
+          this.loading.remove(id);
+          add(id, flatFile, bytes, evictedFlatFiles);
+        }
+        flush(evictedFlatFiles);
+        future.complete(flatFile);
+      } catch (final Throwable throwable) {
+        synchronized (this) {
+          this.loading.remove(id);
+        }
+        future.completeExceptionally(throwable);
+      }
+    });
+    return future;
+  }
+
+  private void add(
+      final String id,
+      final T flatFile,
+      final long bytes,
+      final List<T> evictedFlatFiles) {
+    final CachedFlatFile<T> cachedFlatFile = new CachedFlatFile<>(flatFile, bytes);
+    this.cached.put(id, cachedFlatFile);
+    this.estimatedBytes += cachedFlatFile.bytes;
+
+    // Never evict the file we just loaded
+    final Iterator<Map.Entry<String, CachedFlatFile<T>>> iterator =
+        this.cached.entrySet().iterator();
+    while (this.cached.size() > 1
+           && (this.cached.size() > this.maxEntries || this.estimatedBytes > this.maxBytes)) {
+      final Map.Entry<String, CachedFlatFile<T>> eldest = iterator.next();
+      iterator.remove();
+      evict(eldest.getKey(), eldest.getValue(), evictedFlatFiles);
+    }
+  }
+
+  /**
+   * Hands the file over to the user. Its changes have to be flushed afterwards, without holding
+   * our lock. As its writeSettings are volatile, changes made after the flush are written by the
+   * thread making them, changes made before are written by the flush.
+   */
+  private void evict(
+      final String id,
+      final CachedFlatFile<T> cachedFlatFile,
+      final List<T> evictedFlatFiles) {
+    this.estimatedBytes -= cachedFlatFile.bytes;
+    cachedFlatFile.flatFile.setWriteSettings(WriteSettings.AUTOMATICALLY);
+    this.evicted.put(id, new EvictedFlatFile<>(id, cachedFlatFile.flatFile, this.collected));
+    evictedFlatFiles.add(cachedFlatFile.flatFile);
+  }
+
+  @Nullable
+  private T readopt(final String id) {
+    // Forget files which were garbage collected
+    Reference<? extends T> reference;
+    while ((reference = this.collected.poll()) != null) {
+      this.evicted.remove(((EvictedFlatFile<?>) reference).id, reference);
+    }
+
+    final EvictedFlatFile<T> evictedFlatFile = this.evicted.remove(id);
+    final T flatFile = evictedFlatFile == null ? null : evictedFlatFile.get();
+    if (flatFile != null) {
+      flatFile.setWriteSettings(WriteSettings.MANUALLY);
+    }
+    return flatFile;
+  }
+
+  private void flush(final List<T> evictedFlatFiles) {
+    for (final T flatFile : evictedFlatFiles) {
+      flatFile.flush();
+    }
+  }
+
+  private static final class CachedFlatFile<T extends FlatFile> {
+
+    private final T flatFile;
+    private final long bytes;
+
+    private CachedFlatFile(final T flatFile, final long bytes) {
+      this.flatFile = flatFile;
+      this.bytes = bytes;
+    }
+  }
+
+  private static final class EvictedFlatFile<T extends FlatFile> extends WeakReference<T> {
+
+    private final String id;
+
+    private EvictedFlatFile(final String id, final T flatFile, final ReferenceQueue<T> queue) {
+      super(flatFile, queue);
+      this.id = id;
+    }
+  }
+}
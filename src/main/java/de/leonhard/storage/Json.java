@@ -3,22 +3,21 @@ package de.leonhard.storage;
 import de.leonhard.storage.internal.FileData;
 import de.leonhard.storage.internal.FileType;
 import de.leonhard.storage.internal.FlatFile;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.internal.settings.LoadSettings;
 import de.leonhard.storage.internal.settings.ReloadSettings;
 import de.leonhard.storage.util.FileUtils;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.Writer;
-import java.nio.file.Files;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
-import lombok.Cleanup;
 import lombok.Getter;
 import org.jetbrains.annotations.Nullable;
 import org.json.JSONObject;
-import org.json.JSONTokener;
 
 @Getter
 public class Json extends FlatFile {
@@ -51,6 +50,27 @@ public class Json extends FlatFile {
       @Nullable final InputStream inputStream,
       @Nullable final ReloadSettings reloadSettings,
       @Nullable final Consumer<FlatFile> reloadConsumer) {
+    this(name, path, inputStream, reloadSettings, null, reloadConsumer);
+  }
+
+  public Json(
+      final String name,
+      @Nullable final String path,
+      @Nullable final InputStream inputStream,
+      @Nullable final ReloadSettings reloadSettings,
+      @Nullable final DataType dataType,
+      @Nullable final Consumer<FlatFile> reloadConsumer) {
+    this(name, path, inputStream, reloadSettings, dataType, null, reloadConsumer);
+  }
+
+  public Json(
+      final String name,
+      @Nullable final String path,
+      @Nullable final InputStream inputStream,
+      @Nullable final ReloadSettings reloadSettings,
+      @Nullable final DataType dataType,
+      @Nullable final LoadSettings loadSettings,
+      @Nullable final Consumer<FlatFile> reloadConsumer) {
     super(name, path, FileType.JSON, reloadConsumer);
 
     if (create() || this.file.length() == 0) {
@@ -62,7 +82,13 @@ public class Json extends FlatFile {
     if (reloadSettings != null) {
       this.reloadSettings = reloadSettings;
     }
-    forceReload();
+
+    if (dataType != null) {
+      this.dataType = dataType;
+    }
+    if (!LoadSettings.LAZY.equals(loadSettings)) {
+      forceReload();
+    }
   }
 
   public Json(final File file) {
@@ -106,17 +132,14 @@ public class Json extends FlatFile {
   @Override
   protected final Map<String, Object> readToMap() throws IOException {
     if (this.file.length() == 0) {
-      Files.write(this.file.toPath(), Collections.singletonList("{}"));
+      FileUtils.write(this.file, Collections.singletonList("{}"));
     }
 
-    final JSONTokener jsonTokener = new JSONTokener(FileUtils.createInputStream(this.file));
-    return new JSONObject(jsonTokener).toMap();
+    return LightningProviders.formatCodec(FileType.JSON).read(this.file, this.dataType);
   }
 
   @Override
   protected final void write(final FileData data) throws IOException {
-    @Cleanup final Writer writer = FileUtils.createWriter(this.file);
-    writer.write(data.toJsonObject().toString(3));
-    writer.flush();
+    LightningProviders.formatCodec(FileType.JSON).write(data.toMap(), this.file);
   }
 }
@@ -0,0 +1,109 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.FileData;
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.FlatFile;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.internal.settings.LoadSettings;
+import de.leonhard.storage.internal.settings.ReloadSettings;
+import de.leonhard.storage.util.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A compact binary FlatFile for data which is only read by machines, for example inventories of
+ * players. See {@link de.leonhard.storage.internal.editor.binary.BinaryWriter} for the format.
+ */
+@Getter
+public class Lbin extends FlatFile {
+
+  public Lbin(final Lbin lbin) {
+    super(lbin.getFile(), lbin.fileType);
+    this.fileData = lbin.getFileData();
+    this.pathPrefix = lbin.getPathPrefix();
+  }
+
+  public Lbin(final String name, final String path) {
+    this(name, path, null);
+  }
+
+  public Lbin(final String name, final String path, final InputStream inputStream) {
+    this(name, path, inputStream, null);
+  }
+
+  public Lbin(
+      final String name,
+      @Nullable final String path,
+      @Nullable final InputStream inputStream,
+      @Nullable final ReloadSettings reloadSettings) {
+    this(name, path, inputStream, reloadSettings, null);
+  }
+
+  public Lbin(
+      final String name,
+      @Nullable final String path,
+      @Nullable final InputStream inputStream,
+      @Nullable final ReloadSettings reloadSettings,
+      @Nullable final Consumer<FlatFile> reloadConsumer) {
+    this(name, path, inputStream, reloadSettings, null, null, reloadConsumer);
+  }
+
+  public Lbin(
+      final String name,
+      @Nullable final String path,
+      @Nullable final InputStream inputStream,
+      @Nullable final ReloadSettings reloadSettings,
+      @Nullable final DataType dataType,
+      @Nullable final LoadSettings loadSettings,
+      @Nullable final Consumer<FlatFile> reloadConsumer) {
+    super(name, path, FileType.LBIN, reloadConsumer);
+
+    if (create() || this.file.length() == 0) {
+      if (inputStream != null) {
+        FileUtils.writeToFile(this.file, inputStream);
+      }
+    }
+
+    if (reloadSettings != null) {
+      this.reloadSettings = reloadSettings;
+    }
+
+    if (dataType != null) {
+      this.dataType = dataType;
+    }
+
+    if (!LoadSettings.LAZY.equals(loadSettings)) {
+      forceReload();
+    }
+  }
+
+  public Lbin(final File file) {
+    super(file, FileType.LBIN);
+    create();
+    forceReload();
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Abstract methods to implement
+  // ----------------------------------------------------------------------------------------------------
+
+  @Override
+  protected final Map<String, Object> readToMap() throws IOException {
+    if (this.file.length() == 0) {
+      return this.dataType.getMapImplementation();
+    }
+
+    return LightningProviders.formatCodec(FileType.LBIN).read(this.file, this.dataType);
+  }
+
+  @Override
+  protected final void write(final FileData data) throws IOException {
+    LightningProviders.formatCodec(FileType.LBIN).write(data.toMap(), this.file);
+  }
+}
@@ -1,17 +1,29 @@
 package de.leonhard.storage;
 
+import de.leonhard.storage.internal.DirectoryLoadResult;
+import de.leonhard.storage.internal.DirectoryLoadResult.FileLoadReport;
+import de.leonhard.storage.internal.FileType;
 import de.leonhard.storage.internal.FlatFile;
+import de.leonhard.storage.internal.FlatFileRegistry;
 import de.leonhard.storage.internal.provider.InputStreamProvider;
 import de.leonhard.storage.internal.provider.LightningProviders;
 import de.leonhard.storage.internal.settings.ConfigSettings;
 import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.internal.settings.LoadSettings;
 import de.leonhard.storage.internal.settings.ReloadSettings;
+import de.leonhard.storage.internal.settings.WriteSettings;
 import de.leonhard.storage.util.FileUtils;
 import de.leonhard.storage.util.Valid;
 import java.io.File;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -23,8 +35,14 @@ public final class LightningBuilder {
   private String name;
   private InputStream inputStream;
   private ReloadSettings reloadSettings;
+  private WriteSettings writeSettings;
   private ConfigSettings configSettings;
   private DataType dataType;
+  private LoadSettings loadSettings;
+  private int keyFilterExpectedKeys;
+  private double keyFilterFalsePositiveRate;
+  private boolean shared;
+  private boolean parseCache;
 
   private @Nullable Consumer<FlatFile> reloadConsumer = null;
 
@@ -73,6 +91,50 @@ public final class LightningBuilder {
         file.getName(), file.getAbsolutePath(), LightningProviders.inputStreamProvider());
   }
 
+  // ----------------------------------------------------------------------------------------------------
+  // Loading whole directories
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * Loads all files of a directory (not recursive) in parallel using the common ForkJoinPool. Files
+   * which can't be read are reported instead of aborting the whole load.
+   *
+   * @param directory Directory to load.
+   * @param fileTypes Types of files to load. All types if none are given.
+   */
+  public static DirectoryLoadResult loadDirectory(
+      @NonNull final File directory,
+      @NonNull final FileType... fileTypes) {
+    Valid.checkBoolean(directory.isDirectory(), "'" + directory + "' isn't a directory");
+    final List<FileType> types = Arrays.asList(fileTypes.length == 0
+        ? FileType.values()
+        : fileTypes);
+
+    final long start = System.nanoTime();
+    final List<FileLoadReport> reports = FileUtils
+        .listFiles(directory)
+        .parallelStream()
+        .filter(file -> file.isFile() && types.contains(FileType.fromFile(file)))
+        .map(LightningBuilder::load)
+        .collect(Collectors.toList());
+
+    return new DirectoryLoadResult(reports, System.nanoTime() - start);
+  }
+
+  private static FileLoadReport load(final File file) {
+    final long start = System.nanoTime();
+    try {
+      final FlatFile flatFile = fromFile(file).createFlatFile(FileType.fromFile(file));
+      return new FileLoadReport(
+          file,
+          flatFile,
+          flatFile.getReadException(),
+          System.nanoTime() - start);
+    } catch (final RuntimeException ex) {
+      return new FileLoadReport(file, null, ex, System.nanoTime() - start);
+    }
+  }
+
   // ----------------------------------------------------------------------------------------------------
   // Adding out settings
   // ----------------------------------------------------------------------------------------------------
@@ -115,52 +177,166 @@ public final class LightningBuilder {
     return this;
   }
 
+  public LightningBuilder setWriteSettings(@NonNull final WriteSettings writeSettings) {
+    this.writeSettings = writeSettings;
+    return this;
+  }
+
+  /**
+   * Using {@link LoadSettings#LAZY} the file is read on its first access instead of while creating
+   * it.
+   */
+  public LightningBuilder setLoadSettings(@NonNull final LoadSettings loadSettings) {
+    this.loadSettings = loadSettings;
+    return this;
+  }
+
+  /**
+   * Caches the parsed content of the file in a binary sidecar, so it only needs to be parsed again
+   * once it changed. See {@link de.leonhard.storage.internal.editor.binary.ParseCache}
+   */
+  public LightningBuilder setParseCache(final boolean parseCache) {
+    this.parseCache = parseCache;
+    return this;
+  }
+
   public LightningBuilder setDataType(@NonNull final DataType dataType) {
     this.dataType = dataType;
     return this;
   }
 
+  /**
+   * Enables a Bloom filter over the keys of the created file, see {@link
+   * FlatFile#enableKeyFilter(int, double)}
+   */
+  public LightningBuilder setKeyFilter(final int expectedKeys, final double falsePositiveRate) {
+    this.keyFilterExpectedKeys = expectedKeys;
+    this.keyFilterFalsePositiveRate = falsePositiveRate;
+    return this;
+  }
+
+  /**
+   * The created file will be shared in our JVM: Every shared user of the same file gets the same
+   * instance, which is parsed & reloaded only once. Release it using {@link
+   * FlatFileRegistry#release(FlatFile)}. See {@link FlatFileRegistry}
+   */
+  public LightningBuilder shared() {
+    this.shared = true;
+    return this;
+  }
+
   // ----------------------------------------------------------------------------------------------------
   // Create the objects of our FileTypes
   // ----------------------------------------------------------------------------------------------------
 
   public Config createConfig() {
-    return new Config(
+    return create(Config.class, FileType.YAML, () -> new Config(
         this.name,
         this.path,
         this.inputStream,
         this.reloadSettings,
         this.configSettings,
         this.dataType,
-        reloadConsumer);
+        LoadSettings.LAZY,
+        reloadConsumer));
   }
 
   public Yaml createYaml() {
-    return new Yaml(
+    return create(Yaml.class, FileType.YAML, () -> new Yaml(
         this.name,
         this.path,
         this.inputStream,
         this.reloadSettings,
         this.configSettings,
         this.dataType,
-        reloadConsumer);
+        LoadSettings.LAZY,
+        reloadConsumer));
   }
 
   public Toml createToml() {
-    return new Toml(
+    return create(Toml.class, FileType.TOML, () -> new Toml(
         this.name,
         this.path,
         this.inputStream,
         this.reloadSettings,
-        reloadConsumer);
+        this.dataType,
+        LoadSettings.LAZY,
+        reloadConsumer));
   }
 
   public Json createJson() {
-    return new Json(
+    return create(Json.class, FileType.JSON, () -> new Json(
+        this.name,
+        this.path,
+        this.inputStream,
+        this.reloadSettings,
+        this.dataType,
+        LoadSettings.LAZY,
+        reloadConsumer));
+  }
+
+  public Lbin createLbin() {
+    return create(Lbin.class, FileType.LBIN, () -> new Lbin(
         this.name,
         this.path,
         this.inputStream,
         this.reloadSettings,
-        reloadConsumer);
+        this.dataType,
+        LoadSettings.LAZY,
+        reloadConsumer));
+  }
+
+  public FlatFile createFlatFile(@NonNull final FileType fileType) {
+    switch (fileType) {
+      case JSON:
+        return createJson();
+      case TOML:
+        return createToml();
+      case LBIN:
+        return createLbin();
+      default:
+        return createYaml();
+    }
+  }
+
+  /**
+   * Creates our FlatFile using {@link LightningProviders#ioExecutor()}, so reading it doesn't block
+   * the calling thread. For example {@code builder.loadAsync(LightningBuilder::createJson)}
+   */
+  public <T extends FlatFile> CompletableFuture<T> loadAsync(
+      @NonNull final Function<LightningBuilder, T> factory) {
+    return CompletableFuture.supplyAsync(
+        () -> factory.apply(this),
+        LightningProviders.ioExecutor());
+  }
+
+  private <T extends FlatFile> T create(
+      final Class<T> type,
+      final FileType fileType,
+      final Supplier<T> factory) {
+    if (!this.shared) {
+      return configure(factory.get());
+    }
+
+    return FlatFileRegistry.acquire(
+        type,
+        FileUtils.getFile(this.name, this.path, fileType.getExtension()),
+        () -> configure(factory.get()));
+  }
+
+  // Our FlatFiles are created lazily, so all settings are applied before the first read
+  private <T extends FlatFile> T configure(final T flatFile) {
+    if (this.writeSettings != null) {
+      flatFile.setWriteSettings(this.writeSettings);
+    }
+    if (this.keyFilterExpectedKeys > 0) {
+      flatFile.enableKeyFilter(this.keyFilterExpectedKeys, this.keyFilterFalsePositiveRate);
+    }
+    flatFile.setUseParseCache(this.parseCache);
+
+    if (!LoadSettings.LAZY.equals(this.loadSettings)) {
+      flatFile.forceReload();
+    }
+    return flatFile;
   }
 }
@@ -0,0 +1,75 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.flush.FlushMetrics;
+import de.leonhard.storage.internal.flush.FlushScheduler;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import java.time.Duration;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Flushing of FlatFiles using {@link de.leonhard.storage.internal.settings.WriteSettings#SCHEDULED}
+ * for hosts with a main loop, like game servers with a fixed tick.
+ *
+ * <p>After {@link #enableCooperativeMode()} changes are never written by the thread making them.
+ * The host calls {@link #runFor(Duration)} once per tick instead, which writes as many files as
+ * fit in the given time.
+ */
+@UtilityClass
+public class LightningFlusher {
+
+  private final int DEFAULT_MAX_QUEUED_FILES = 1024;
+  private final long DEFAULT_MAX_QUEUED_BYTES = 64 * 1024 * 1024;
+  private final long DEFAULT_ASYNC_BYTES = 256 * 1024;
+
+  /**
+   * Replaces the process-wide {@link FlushScheduler} with a cooperative one. Files of at least
+   * 256KB are serialized & written asynchronously from a snapshot.
+   */
+  public void enableCooperativeMode() {
+    enableCooperativeMode(DEFAULT_ASYNC_BYTES);
+  }
+
+  /**
+   * Replaces the process-wide {@link FlushScheduler} with a cooperative one. The previous
+   * scheduler is shut down first, so its queued & running writes are finished before the new one
+   * is installed. Files whose write failed are retried by the new one.
+   *
+   * @param asyncBytes Files of at least this size are only copied during {@link
+   *                   #runFor(Duration)}, their serialization & write happen asynchronously.
+   */
+  public synchronized void enableCooperativeMode(final long asyncBytes) {
+    final FlushScheduler previous = LightningProviders.flushScheduler();
+    if (previous.isCooperative() && previous.getAsyncBytes() == asyncBytes) {
+      return;
+    }
+
+    final FlushScheduler cooperative = FlushScheduler.cooperative(
+        DEFAULT_MAX_QUEUED_FILES,
+        DEFAULT_MAX_QUEUED_BYTES,
+        asyncBytes);
+    // Not drained under the lock of our providers: Threads scheduling their files while holding
+    // their lock would block our writes of these files. They write them themselves instead.
+    try {
+      previous.shutdown(cooperative);
+    } finally {
+      LightningProviders.flushScheduler(cooperative);
+    }
+  }
+
+  /**
+   * Writes queued files until the budget is used up, the ones with the highest {@link
+   * de.leonhard.storage.internal.FlatFile#getFlushPriority()} & the oldest changes first. See
+   * {@link FlushScheduler#runFor(Duration)}
+   *
+   * @param budget Time to spend, for example a part of the time left in the current tick.
+   * @return Amount of files written or handed to asynchronous writes.
+   */
+  public int runFor(@NonNull final Duration budget) {
+    return LightningProviders.flushScheduler().runFor(budget);
+  }
+
+  public FlushMetrics getMetrics() {
+    return LightningProviders.flushScheduler().getMetrics();
+  }
+}
@@ -3,7 +3,9 @@ package de.leonhard.storage;
 import de.leonhard.storage.internal.FileData;
 import de.leonhard.storage.internal.FileType;
 import de.leonhard.storage.internal.FlatFile;
-import de.leonhard.storage.internal.editor.toml.TomlManager;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.internal.settings.LoadSettings;
 import de.leonhard.storage.internal.settings.ReloadSettings;
 import de.leonhard.storage.util.FileUtils;
 import java.io.File;
@@ -36,6 +38,29 @@ public class Toml extends FlatFile {
       @Nullable final InputStream inputStream,
       @Nullable final ReloadSettings reloadSettings,
       @Nullable final Consumer<FlatFile> reloadConsumer
+  ) {
+    this(name, path, inputStream, reloadSettings, null, reloadConsumer);
+  }
+
+  public Toml(
+      @NonNull final String name,
+      @NonNull final String path,
+      @Nullable final InputStream inputStream,
+      @Nullable final ReloadSettings reloadSettings,
+      @Nullable final DataType dataType,
+      @Nullable final Consumer<FlatFile> reloadConsumer
+  ) {
+    this(name, path, inputStream, reloadSettings, dataType, null, reloadConsumer);
+  }
+
+  public Toml(
+      @NonNull final String name,
+      @NonNull final String path,
+      @Nullable final InputStream inputStream,
+      @Nullable final ReloadSettings reloadSettings,
+      @Nullable final DataType dataType,
+      @Nullable final LoadSettings loadSettings,
+      @Nullable final Consumer<FlatFile> reloadConsumer
   ) {
     super(name, path, FileType.TOML, reloadConsumer);
 
@@ -47,7 +72,13 @@ public class Toml extends FlatFile {
       this.reloadSettings = reloadSettings;
     }
 
-    forceReload();
+    if (dataType != null) {
+      this.dataType = dataType;
+    }
+
+    if (!LoadSettings.LAZY.equals(loadSettings)) {
+      forceReload();
+    }
   }
 
   public Toml(final File file) {
@@ -62,13 +93,13 @@ public class Toml extends FlatFile {
 
   @Override
   protected final Map<String, Object> readToMap() throws IOException {
-    return TomlManager.read(getFile());
+    return LightningProviders.formatCodec(FileType.TOML).read(getFile(), this.dataType);
   }
 
   @Override
   protected final void write(final FileData data) {
     try {
-      TomlManager.write(data.toMap(), getFile());
+      LightningProviders.formatCodec(FileType.TOML).write(data.toMap(), getFile());
     } catch (final IOException ioException) {
       System.err.println("Exception while writing fileData to file '" + getName() + "'");
       System.err.println("In '" + FileUtils.getParentDirPath(this.file) + "'");
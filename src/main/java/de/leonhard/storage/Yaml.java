@@ -4,11 +4,12 @@ import de.leonhard.storage.internal.FileData;
 import de.leonhard.storage.internal.FileType;
 import de.leonhard.storage.internal.FlatFile;
 import de.leonhard.storage.internal.editor.yaml.SimpleYamlReader;
-import de.leonhard.storage.internal.editor.yaml.SimpleYamlWriter;
 import de.leonhard.storage.internal.editor.yaml.YamlEditor;
 import de.leonhard.storage.internal.editor.yaml.YamlParser;
 import de.leonhard.storage.internal.settings.ConfigSettings;
+import de.leonhard.storage.internal.provider.LightningProviders;
 import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.internal.settings.LoadSettings;
 import de.leonhard.storage.internal.settings.ReloadSettings;
 import de.leonhard.storage.util.FileUtils;
 import java.io.*;
@@ -19,7 +20,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
-import lombok.Cleanup;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -74,6 +74,18 @@ public class Yaml extends FlatFile {
       @Nullable final ConfigSettings configSettings,
       @Nullable final DataType dataType,
       @Nullable final Consumer<FlatFile> reloadConsumer) {
+    this(name, path, inputStream, reloadSettings, configSettings, dataType, null, reloadConsumer);
+  }
+
+  public Yaml(
+      final String name,
+      @Nullable final String path,
+      @Nullable final InputStream inputStream,
+      @Nullable final ReloadSettings reloadSettings,
+      @Nullable final ConfigSettings configSettings,
+      @Nullable final DataType dataType,
+      @Nullable final LoadSettings loadSettings,
+      @Nullable final Consumer<FlatFile> reloadConsumer) {
     super(name, path, FileType.YAML, reloadConsumer);
     this.inputStream = inputStream;
 
@@ -98,7 +110,9 @@ public class Yaml extends FlatFile {
       this.dataType = DataType.forConfigSetting(configSettings);
     }
 
-    forceReload();
+    if (!LoadSettings.LAZY.equals(loadSettings)) {
+      forceReload();
+    }
   }
 
   public Yaml(final File file) {
@@ -132,7 +146,7 @@ public class Yaml extends FlatFile {
         }
       }
 
-      write();
+      writeIfNeeded();
     } catch (final Exception ex) {
       ex.printStackTrace();
     }
@@ -146,28 +160,27 @@ public class Yaml extends FlatFile {
 
   @Override
   protected Map<String, Object> readToMap() throws IOException {
-    @Cleanup final SimpleYamlReader reader = new SimpleYamlReader(
-        new FileReader(getFile()));
-    return reader.readToMap();
+    return LightningProviders.formatCodec(FileType.YAML).read(getFile(), this.dataType);
   }
 
   @Override
   protected void write(final FileData data) throws IOException {
     // If Comments shouldn't be preserved
     if (!ConfigSettings.PRESERVE_COMMENTS.equals(this.configSettings)) {
-      write0(this.fileData);
+      write0(data);
+      this.yamlEditor.invalidate();
       return;
     }
 
     final List<String> unEdited = this.yamlEditor.read();
-    write0(this.fileData);
+    write0(data);
+    this.yamlEditor.invalidate();
     this.yamlEditor.write(this.parser.parseLines(unEdited, this.yamlEditor.readKeys()));
   }
 
   // Writing without comments
   private void write0(final FileData fileData) throws IOException {
-    @Cleanup final SimpleYamlWriter writer = new SimpleYamlWriter(this.file);
-    writer.write(fileData.toMap());
+    LightningProviders.formatCodec(FileType.YAML).write(fileData.toMap(), this.file);
   }
 
   // ----------------------------------------------------------------------------------------------------
@@ -180,6 +193,7 @@ public class Yaml extends FlatFile {
 
   public final void setHeader(final List<String> header) {
     this.yamlEditor.setHeader(header);
+    this.yamlEditor.flush();
   }
 
   public final void setHeader(final String... header) {
@@ -188,6 +202,7 @@ public class Yaml extends FlatFile {
 
   public final void addHeader(final List<String> toAdd) {
     this.yamlEditor.addHeader(toAdd);
+    this.yamlEditor.flush();
   }
 
   public final void addHeader(final String... header) {
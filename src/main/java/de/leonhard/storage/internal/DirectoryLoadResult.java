@@ -0,0 +1,79 @@
+package de.leonhard.storage.internal;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Result of loading all files of a directory, see {@link de.leonhard.storage.LightningBuilder#loadDirectory(File,
+ * FileType...)}
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class DirectoryLoadResult {
+
+  private final List<FileLoadReport> reports;
+  private final long totalNanos;
+
+  /**
+   * @return The FlatFiles which were loaded without errors, in the order of their files.
+   */
+  public Map<File, FlatFile> getFlatFiles() {
+    final Map<File, FlatFile> result = new LinkedHashMap<>();
+    for (final FileLoadReport report : this.reports) {
+      if (report.isSuccessful()) {
+        result.put(report.getFile(), report.getFlatFile());
+      }
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  public List<FileLoadReport> getErrors() {
+    final List<FileLoadReport> result = new ArrayList<>();
+    for (final FileLoadReport report : this.reports) {
+      if (!report.isSuccessful()) {
+        result.add(report);
+      }
+    }
+    return result;
+  }
+
+  public long getTotalTime(@NonNull final TimeUnit timeUnit) {
+    return timeUnit.convert(this.totalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Timing & outcome of loading a single file.
+   */
+  @Getter
+  @ToString
+  @RequiredArgsConstructor
+  public static final class FileLoadReport {
+
+    private final File file;
+    // Null if the FlatFile couldn't be created at all
+    @Nullable
+    private final FlatFile flatFile;
+    @Nullable
+    private final Throwable error;
+    private final long nanos;
+
+    public boolean isSuccessful() {
+      return this.error == null;
+    }
+
+    public long getTime(@NonNull final TimeUnit timeUnit) {
+      return timeUnit.convert(this.nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -1,14 +1,24 @@
 package de.leonhard.storage.internal;
 
+import de.leonhard.storage.internal.change.Change;
+import de.leonhard.storage.internal.change.TreeDiff;
 import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.util.BloomFilter;
 import de.leonhard.storage.util.JsonUtils;
+import de.leonhard.storage.util.Valid;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
 import java.util.Set;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.json.JSONObject;
 
 /**
@@ -19,24 +29,114 @@ import org.json.JSONObject;
 public class FileData {
 
   private final Map<String, Object> localMap;
+  private final DataType dataType;
+  /**
+   * Optional filter over all full key paths (and their parents) to answer lookups of missing keys
+   * without walking the map. Needs to be rebuilt if the map returned by {@link #toMap()} is
+   * modified directly.
+   */
+  @Nullable
+  private volatile BloomFilter keyFilter;
 
   public FileData(final Map<String, Object> map, final DataType dataType) {
     this.localMap = dataType.getMapImplementation();
+    this.dataType = dataType;
 
-    this.localMap.putAll(map);
+    putLoaded(map);
   }
 
   public FileData(final JSONObject jsonObject) {
-    this.localMap = new HashMap<>(jsonObject.toMap());
+    this(jsonObject, DataType.UNSORTED);
   }
 
   public FileData(final JSONObject jsonObject, final DataType dataType) {
-    this.localMap = dataType.getMapImplementation();
-    this.localMap.putAll(jsonObject.toMap());
+    this(JsonUtils.toMap(jsonObject, dataType), dataType);
   }
 
-  public void clear() {
+  public synchronized void clear() {
     this.localMap.clear();
+    final BloomFilter filter = this.keyFilter;
+    if (filter != null) {
+      // Published filters are never cleared, they might still be read
+      this.keyFilter = new BloomFilter(filter.getBitSize(), filter.getHashFunctions());
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Key filter
+  // ----------------------------------------------------------------------------------------------------
+
+  // Keys are added to the published filter before they are added to our map, so readers never miss
+  // a key which exists. Filters without removed keys are built completely before they are published
+
+  /**
+   * Enables a Bloom filter over all keys so lookups of keys which don't exist return without
+   * walking the nested maps.
+   *
+   * @param expectedKeys      Amount of keys (including parent keys) we expect to store.
+   * @param falsePositiveRate Rate of lookups of missing keys that still need to walk the map.
+   */
+  public synchronized void enableKeyFilter(final int expectedKeys, final double falsePositiveRate) {
+    final BloomFilter filter = new BloomFilter(expectedKeys, falsePositiveRate);
+    addAllToKeyFilter(filter, null, this.localMap);
+    this.keyFilter = filter;
+  }
+
+  public synchronized void disableKeyFilter() {
+    this.keyFilter = null;
+  }
+
+  /**
+   * Rebuilds the key filter. Only needed if the data was modified without using this class.
+   */
+  public synchronized void rebuildKeyFilter() {
+    final BloomFilter filter = this.keyFilter;
+    if (filter != null) {
+      final BloomFilter rebuilt = new BloomFilter(filter.getBitSize(), filter.getHashFunctions());
+      addAllToKeyFilter(rebuilt, null, this.localMap);
+      this.keyFilter = rebuilt;
+    }
+  }
+
+  public boolean hasKeyFilter() {
+    return this.keyFilter != null;
+  }
+
+  private boolean isDefinitelyMissing(final String key) {
+    final BloomFilter filter = this.keyFilter;
+    return filter != null && !filter.mightContain(key);
+  }
+
+  private void addToKeyFilter(final String key, final Object value) {
+    final BloomFilter filter = this.keyFilter;
+    if (filter == null) {
+      return;
+    }
+
+    // Parents of our key have to be findable as well
+    for (int i = key.indexOf('.'); i != -1; i = key.indexOf('.', i + 1)) {
+      filter.put(key.substring(0, i));
+    }
+    filter.put(key);
+
+    if (value instanceof Map) {
+      addAllToKeyFilter(filter, key, (Map<?, ?>) value);
+    }
+  }
+
+  private void addAllToKeyFilter(
+      final BloomFilter filter,
+      @Nullable final String prefix,
+      final Map<?, ?> map) {
+    for (final Map.Entry<?, ?> entry : map.entrySet()) {
+      final String key = prefix == null
+          ? String.valueOf(entry.getKey())
+          : prefix + "." + entry.getKey();
+      filter.put(key);
+      if (entry.getValue() instanceof Map) {
+        addAllToKeyFilter(filter, key, (Map<?, ?>) entry.getValue());
+      }
+    }
   }
 
   /**
@@ -44,12 +144,41 @@ public class FileData {
    *
    * @param map Map to load data from
    */
-  public void loadData(final Map<String, Object> map) {
-    clear();
+  public synchronized void loadData(final Map<String, Object> map) {
+    final BloomFilter filter = this.keyFilter;
+    if (filter != null && map != null) {
+      addAllToKeyFilter(filter, null, map);
+    }
 
+    this.localMap.clear();
     if (map != null) {
-      this.localMap.putAll(map);
+      putLoaded(map);
+    }
+    rebuildKeyFilter();
+  }
+
+  /**
+   * Updates our data to the content of the map in place, instead of replacing it like {@link
+   * #loadData(Map)} does. Sections & values which didn't change keep their identity, so views &
+   * references of them stay valid. Values of the map are taken over, the map mustn't be used
+   * afterwards.
+   *
+   * @param map     Map to update our data to.
+   * @param changes List to add the changes of our values to, null if they aren't needed.
+   * @return true if our data was modified.
+   */
+  public synchronized boolean patch(
+      final Map<String, Object> map,
+      @Nullable final List<Change> changes) {
+    final BloomFilter filter = this.keyFilter;
+    if (filter != null) {
+      addAllToKeyFilter(filter, null, map);
     }
+    final boolean modified = TreeDiff.patch(null, this.localMap, map, this::adopt, changes);
+    if (modified) {
+      rebuildKeyFilter();
+    }
+    return modified;
   }
 
   /**
@@ -59,6 +188,9 @@ public class FileData {
    * @return the value assigned to the given key or null if the key does not exist.
    */
   public Object get(final String key) {
+    if (isDefinitelyMissing(key)) {
+      return null;
+    }
     final String[] parts = key.split("\\.");
     return get(this.localMap, parts, 0);
   }
@@ -83,27 +215,29 @@ public class FileData {
    * @param value the value to be assigned to the key.
    */
   public synchronized void insert(final String key, final Object value) {
+    addToKeyFilter(key, value);
     final String[] parts = key.split("\\.");
     this.localMap.put(
         parts[0],
         this.localMap.containsKey(parts[0]) && this.localMap.get(parts[0]) instanceof Map
             ? insert((Map<String, Object>) this.localMap.get(parts[0]), parts, value, 1)
-            : insert(new HashMap<>(), parts, value, 1));
+            : insert(this.dataType.getMapImplementation(), parts, value, 1));
   }
 
   private Object insert(
       final Map<String, Object> map, final String[] key, final Object value,
       final int id) {
     if (id < key.length) {
-      final Map<String, Object> tempMap = new HashMap<>(map);
+      final Map<String, Object> tempMap = this.dataType.getMapImplementation();
+      tempMap.putAll(map);
       final Map<String, Object> childMap =
           map.containsKey(key[id]) && map.get(key[id]) instanceof Map
               ? (Map<String, Object>) map.get(key[id])
-              : new HashMap<>();
+              : this.dataType.getMapImplementation();
       tempMap.put(key[id], insert(childMap, key, value, id + 1));
       return tempMap;
     } else {
-      return value;
+      return copy(value);
     }
   }
 
@@ -114,6 +248,9 @@ public class FileData {
    * @return true if the key exists, otherwise false.
    */
   public boolean containsKey(final String key) {
+    if (isDefinitelyMissing(key)) {
+      return false;
+    }
     final String[] parts = key.split("\\.");
     return containsKey(this.localMap, parts, 0);
   }
@@ -301,8 +438,42 @@ public class FileData {
     return this.localMap.size();
   }
 
-  public void putAll(final Map<String, Object> map) {
-    this.localMap.putAll(map);
+  public synchronized void putAll(final Map<String, Object> map) {
+    final BloomFilter filter = this.keyFilter;
+    if (filter != null) {
+      addAllToKeyFilter(filter, null, map);
+    }
+    for (final Map.Entry<?, ?> entry : map.entrySet()) {
+      this.localMap.put(String.valueOf(entry.getKey()), copy(entry.getValue()));
+    }
+  }
+
+  /**
+   * Roughly estimates the size of our data once written, by the chars of its keys & values. Also
+   * works for data which was never written yet.
+   *
+   * @return Estimated size in bytes.
+   */
+  public synchronized long estimateBytes() {
+    return estimateBytes(this.localMap);
+  }
+
+  private long estimateBytes(final Object value) {
+    if (value instanceof Map) {
+      long bytes = 2;
+      for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        // Separators, indentation & line breaks
+        bytes += 4 + String.valueOf(entry.getKey()).length() + estimateBytes(entry.getValue());
+      }
+      return bytes;
+    } else if (value instanceof Collection) {
+      long bytes = 2;
+      for (final Object element : (Collection<?>) value) {
+        bytes += 4 + estimateBytes(element);
+      }
+      return bytes;
+    }
+    return String.valueOf(value).length();
   }
 
   private int size(final Map<String, Object> map) {
@@ -315,10 +486,189 @@ public class FileData {
     return size;
   }
 
+  // ----------------------------------------------------------------------------------------------------
+  // Navigation (only for DataType.NAVIGABLE)
+  // ----------------------------------------------------------------------------------------------------
+
+  // Inserting keys replaces the layers above them, so our views resolve their layer on every access.
+  // They are read-only, changes made through them would bypass our key filter.
+
+  /**
+   * Get a view of the entries of a layer whose keys are between the given keys. Both keys have to
+   * be in the same layer, for example 'scores.a' and 'scores.m'.
+   *
+   * @param fromKey the key to start at (inclusive).
+   * @param toKey   the key to end at (exclusive).
+   * @return a live view of the entries with their keys relative to the layer.
+   */
+  public NavigableMap<String, Object> range(final String fromKey, final String toKey) {
+    final String parent = parentKey(fromKey);
+    Valid.checkBoolean(
+        parent.equals(parentKey(toKey)),
+        "Keys of range must be in the same layer",
+        "From: '" + fromKey + "'",
+        "To: '" + toKey + "'");
+    final String from = childKey(fromKey);
+    final String to = childKey(toKey);
+    navigableLayer(parent);
+    return new LayerView<>(() -> navigableLayer(parent).subMap(from, true, to, false));
+  }
+
+  /**
+   * Get a view of the entries of a layer whose keys start with the given prefix. 'scores.a' will
+   * return all entries in 'scores' starting with 'a', 'scores.' all entries in 'scores'.
+   *
+   * @param prefix the layer and the prefix of the keys to look for.
+   * @return a live view of the entries with their keys relative to the layer.
+   */
+  public NavigableMap<String, Object> prefixScan(final String prefix) {
+    final String parent = parentKey(prefix);
+    final String childPrefix = childKey(prefix);
+    navigableLayer(parent);
+
+    // Every key starting with our prefix is lower than the prefix with its last char incremented
+    for (int i = childPrefix.length() - 1; i >= 0; i--) {
+      if (childPrefix.charAt(i) != Character.MAX_VALUE) {
+        final String end = childPrefix.substring(0, i) + (char) (childPrefix.charAt(i) + 1);
+        return new LayerView<>(
+            () -> navigableLayer(parent).subMap(childPrefix, true, end, false));
+      }
+    }
+    return new LayerView<>(() -> navigableLayer(parent).tailMap(childPrefix, true));
+  }
+
+  /**
+   * @param key the key of the layer, null or empty for the top layer.
+   * @return the lowest key in the layer or null if the layer is empty.
+   */
+  @Nullable
+  public String firstKey(@Nullable final String key) {
+    final Map.Entry<String, Object> entry = navigableLayer(key).firstEntry();
+    return entry == null ? null : entry.getKey();
+  }
+
+  /**
+   * @param key the key of the layer, null or empty for the top layer.
+   * @return the highest key in the layer or null if the layer is empty.
+   */
+  @Nullable
+  public String lastKey(@Nullable final String key) {
+    final Map.Entry<String, Object> entry = navigableLayer(key).lastEntry();
+    return entry == null ? null : entry.getKey();
+  }
+
+  /**
+   * @param key the key of the layer, null or empty for the top layer.
+   * @return a live view of the layer, iterating from the highest to the lowest key.
+   */
+  public NavigableMap<String, Object> descendingMap(@Nullable final String key) {
+    navigableLayer(key);
+    return new LayerView<>(() -> navigableLayer(key).descendingMap());
+  }
+
+  /**
+   * @param key the key of the layer, null or empty for the top layer.
+   * @return a live view of the keys of the layer, iterating from the highest to the lowest key.
+   */
+  public NavigableSet<String> descendingKeySet(@Nullable final String key) {
+    navigableLayer(key);
+    return new LayerView.KeySetView(() -> navigableLayer(key).descendingKeySet());
+  }
+
+  private NavigableMap<String, Object> navigableLayer(@Nullable final String key) {
+    final Object layer = key == null || key.isEmpty() ? this.localMap : get(key);
+
+    if (layer == null) {
+      return Collections.emptyNavigableMap();
+    }
+
+    Valid.checkBoolean(
+        layer instanceof NavigableMap,
+        "Layer '" + key + "' isn't navigable.",
+        "Use DataType.NAVIGABLE to navigate through keys");
+    return (NavigableMap<String, Object>) layer;
+  }
+
+  private String parentKey(final String key) {
+    final int lastDot = key.lastIndexOf('.');
+    return lastDot == -1 ? "" : key.substring(0, lastDot);
+  }
+
+  private String childKey(final String key) {
+    return key.substring(key.lastIndexOf('.') + 1);
+  }
+
   // ----------------------------------------------------------------------------------------------------
   // Utility functions
   // ----------------------------------------------------------------------------------------------------
 
+  /**
+   * Our parsers already create the layers using our DataType. Navigable data needs to be navigable
+   * in every layer, so we still have to make sure no other map slipped in.
+   */
+  private void putLoaded(final Map<String, Object> map) {
+    if (this.dataType != DataType.NAVIGABLE) {
+      this.localMap.putAll(map);
+      return;
+    }
+
+    for (final Map.Entry<String, Object> entry : map.entrySet()) {
+      this.localMap.put(entry.getKey(), ensureNavigable(entry.getValue()));
+    }
+  }
+
+  // Applied to values taken over from maps created by our parsers
+  private Object adopt(final Object value) {
+    return this.dataType == DataType.NAVIGABLE ? ensureNavigable(value) : value;
+  }
+
+  private Object ensureNavigable(final Object value) {
+    if (!(value instanceof NavigableMap)) {
+      return value instanceof Map ? copy(value) : value;
+    }
+
+    for (final Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+      final Object child = entry.getValue();
+      if (child instanceof Map) {
+        final Object navigableChild = ensureNavigable(child);
+        if (navigableChild != child) {
+          entry.setValue(navigableChild);
+        }
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Copies maps & lists passed from outside into the implementations provided by our DataType.
+   */
+  private Object copy(final Object value) {
+    if (value instanceof Map) {
+      final Map<String, Object> result = this.dataType.getMapImplementation();
+      // Parsers might create keys which aren't Strings, like integer keys in YAML
+      for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        result.put(String.valueOf(entry.getKey()), copy(entry.getValue()));
+      }
+      return result;
+    } else if (value instanceof List) {
+      final List<Object> result = this.dataType.getListImplementation();
+      for (final Object element : (List<Object>) value) {
+        result.add(copy(element));
+      }
+      return result;
+    }
+    return value;
+  }
+
+  /**
+   * @return A deep copy of our data, which isn't affected by later changes.
+   */
+  public FileData snapshot() {
+    final FileData snapshot = new FileData(Collections.emptyMap(), this.dataType);
+    snapshot.putAll(this.localMap);
+    return snapshot;
+  }
+
   public Map<String, Object> toMap() {
     if (this.localMap != null) {
       return this.localMap;
@@ -10,7 +10,8 @@ import lombok.RequiredArgsConstructor;
 public enum FileType {
   JSON("json"),
   YAML("yml"),
-  TOML("toml");
+  TOML("toml"),
+  LBIN("lbin");
 
   private final String extension;
 
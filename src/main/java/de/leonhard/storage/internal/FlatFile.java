@@ -1,14 +1,29 @@
 package de.leonhard.storage.internal;
 
+import de.leonhard.storage.internal.change.Change;
+import de.leonhard.storage.internal.change.ChangeDispatcher;
+import de.leonhard.storage.internal.change.TreeDiff;
+import de.leonhard.storage.internal.editor.binary.ParseCache;
+import de.leonhard.storage.internal.provider.LightningProviders;
 import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.internal.settings.LoadSettings;
 import de.leonhard.storage.internal.settings.ReloadSettings;
+import de.leonhard.storage.internal.settings.WriteSettings;
 import de.leonhard.storage.sections.FlatFileSection;
+import de.leonhard.storage.util.ChannelReader;
+import de.leonhard.storage.util.ChannelWriter;
 import de.leonhard.storage.util.FileUtils;
 import de.leonhard.storage.util.Valid;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.Writer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import lombok.*;
 import org.jetbrains.annotations.Nullable;
@@ -18,17 +33,86 @@ import org.jetbrains.annotations.Nullable;
 @EqualsAndHashCode
 public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
 
+  // Reads of a file which is modified meanwhile, before we give up caching its content
+  private static final int MAX_PARSE_CACHE_ATTEMPTS = 3;
+
   protected final File file;
   protected final FileType fileType;
   @Setter
   protected ReloadSettings reloadSettings = ReloadSettings.INTELLIGENT;
+  // Switched by a FlatFileRepository while the user might change our data on another thread
+  @Setter
+  protected volatile WriteSettings writeSettings = WriteSettings.AUTOMATICALLY;
+  /**
+   * Files with a higher priority are written first by the {@link de.leonhard.storage.internal.flush.FlushScheduler}
+   */
+  @Setter
+  protected int flushPriority;
   protected DataType dataType = DataType.UNSORTED;
-  protected FileData fileData;
+  // Null until our file was read for the first time, see LoadSettings
+  protected volatile FileData fileData;
   @Nullable
   protected Consumer<FlatFile> reloadConsumer;
   @Setter
   protected String pathPrefix;
+  /**
+   * Whether our parsed content should be cached in a binary sidecar, see {@link ParseCache}
+   */
+  @Setter
+  protected boolean useParseCache;
   private long lastLoaded;
+  // Amount of changes of our data & how many of them are written to our file
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final AtomicLong changes = new AtomicLong();
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private volatile long writtenChanges;
+  // Held while writing our file, so synchronous & asynchronous writes can't overwrite each other
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final Object writeLock = new Object();
+  // Key filter to enable once our data is loaded, see enableKeyFilter()
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private int keyFilterExpectedKeys;
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private double keyFilterFalsePositiveRate;
+  // Exception thrown by the last read of our file, null if it was successful
+  @Nullable
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private volatile IOException readException;
+  // Asynchronous writes which aren't finished yet. Our data is newer than our file until then
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final AtomicInteger pendingWrites = new AtomicInteger();
+  // Last asynchronous I/O operation, the next one has to wait for it
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private CompletableFuture<Void> lastIO = CompletableFuture.completedFuture(null);
+  // Listeners registered using onChange()
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final ChangeDispatcher changeDispatcher = new ChangeDispatcher();
+  // Changes waiting to be dispatched once we're unlocked
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final Queue<List<Change>> pendingChanges = new ConcurrentLinkedQueue<>();
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final AtomicBoolean dispatching = new AtomicBoolean();
 
   protected FlatFile(
       @NonNull final String name,
@@ -38,17 +122,7 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     Valid.checkBoolean(!name.isEmpty(), "Name mustn't be empty");
     this.fileType = fileType;
     this.reloadConsumer = reloadConsumer;
-    if (path == null || path.isEmpty()) {
-      this.file = new File(FileUtils.replaceExtensions(name) + "." + fileType.getExtension());
-    } else {
-      final String fixedPath = path.replace("\\", "/");
-      this.file = new File(
-          fixedPath
-          + File.separator
-          + FileUtils.replaceExtensions(name)
-          + "."
-          + fileType.getExtension());
-    }
+    this.file = FileUtils.getFile(name, path, fileType.getExtension());
   }
 
   protected FlatFile(@NonNull final File file, @NonNull final FileType fileType) {
@@ -127,12 +201,15 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
   // ---------------------------------------------------------------------------------------------------->
 
   @Override
-  public synchronized void set(final String key, final Object value) {
-    reloadIfNeeded();
-    final String finalKey = (this.pathPrefix == null) ? key : this.pathPrefix + "." + key;
-    this.fileData.insert(finalKey, value);
-    write();
-    this.lastLoaded = System.currentTimeMillis();
+  public void set(final String key, final Object value) {
+    synchronized (this) {
+      reloadIfNeeded();
+      final String finalKey = (this.pathPrefix == null) ? key : this.pathPrefix + "." + key;
+      insert0(finalKey, value);
+      writeIfNeeded();
+      this.lastLoaded = System.currentTimeMillis();
+    }
+    dispatchChanges();
   }
 
   @Override
@@ -180,10 +257,13 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
   }
 
   @Override
-  public synchronized final void remove(final String key) {
-    reloadIfNeeded();
-    this.fileData.remove(key);
-    write();
+  public final void remove(final String key) {
+    synchronized (this) {
+      reloadIfNeeded();
+      remove0(key);
+      writeIfNeeded();
+    }
+    dispatchChanges();
   }
 
   // ----------------------------------------------------------------------------------------------------
@@ -196,8 +276,14 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
    * @param map Map to insert.
    */
   public final void putAll(final Map<String, Object> map) {
-    this.fileData.putAll(map);
-    write();
+    synchronized (this) {
+      ensureLoaded();
+      final Map<String, Object> oldValues = watchedOldValues(map.keySet());
+      this.fileData.putAll(map);
+      oldValues.forEach(this::fireChanges);
+      writeIfNeeded();
+    }
+    dispatchChanges();
   }
 
   /**
@@ -220,10 +306,68 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
   }
 
   public void removeAll(final String... keys) {
-    for (final String key : keys) {
-      this.fileData.remove(key);
+    ensureLoaded();
+    synchronized (this) {
+      for (final String key : keys) {
+        remove0(key);
+      }
     }
-    write();
+    writeIfNeeded();
+    dispatchChanges();
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Navigating through keys (only for DataType.NAVIGABLE)
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * See {@link FileData#range(String, String)}
+   */
+  public final NavigableMap<String, Object> range(final String fromKey, final String toKey) {
+    reloadIfNeeded();
+    return this.fileData.range(createFinalKey(fromKey), createFinalKey(toKey));
+  }
+
+  /**
+   * See {@link FileData#prefixScan(String)}
+   */
+  public final NavigableMap<String, Object> prefixScan(final String prefix) {
+    reloadIfNeeded();
+    return this.fileData.prefixScan(createFinalKey(prefix));
+  }
+
+  @Nullable
+  public final String firstKey() {
+    reloadIfNeeded();
+    return this.fileData.firstKey(this.pathPrefix);
+  }
+
+  @Nullable
+  public final String firstKey(final String key) {
+    reloadIfNeeded();
+    return this.fileData.firstKey(createFinalKey(key));
+  }
+
+  @Nullable
+  public final String lastKey() {
+    reloadIfNeeded();
+    return this.fileData.lastKey(this.pathPrefix);
+  }
+
+  @Nullable
+  public final String lastKey(final String key) {
+    reloadIfNeeded();
+    return this.fileData.lastKey(createFinalKey(key));
+  }
+
+  public final NavigableMap<String, Object> descendingMap(final String key) {
+    reloadIfNeeded();
+    return this.fileData.descendingMap(createFinalKey(key));
+  }
+
+  public final NavigableSet<String> descendingKeySet(final String key) {
+    reloadIfNeeded();
+    return this.fileData.descendingKeySet(createFinalKey(key));
   }
 
   // ----------------------------------------------------------------------------------------------------
@@ -235,16 +379,19 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
   }
 
   public final void addDefaultsFromFileData(@NonNull final FileData newData) {
-    reloadIfNeeded();
-
-    // Creating & setting defaults
-    for (final String key : newData.keySet()) {
-      if (!this.fileData.containsKey(key)) {
-        this.fileData.insert(key, newData.get(key));
+    synchronized (this) {
+      reloadIfNeeded();
+
+      // Creating & setting defaults
+      for (final String key : newData.keySet()) {
+        if (!this.fileData.containsKey(key)) {
+          insert0(key, newData.get(key));
+        }
       }
-    }
 
-    write();
+      writeIfNeeded();
+    }
+    dispatchChanges();
   }
 
   public final void addDefaultsFromFlatFile(@NonNull final FlatFile flatFile) {
@@ -262,17 +409,15 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
   public synchronized void replace(
       final CharSequence target,
       final CharSequence replacement) throws IOException {
-    final List<String> lines = Files.readAllLines(this.file.toPath());
-    final List<String> result = new ArrayList<>();
-    for (final String line : lines) {
-      result.add(line.replace(target, replacement));
+    final String content = ChannelReader.readToString(this.file);
+    try (final Writer writer = new ChannelWriter(this.file)) {
+      writer.write(content.replace(target, replacement));
     }
-    Files.write(this.file.toPath(), result);
   }
 
   public void write() {
     try {
-      write(this.fileData);
+      writeChanges(getFileData(), this.changes.get());
     } catch (final IOException ex) {
       System.err.println("Exception writing to file '" + getName() + "'");
       System.err.println("In '" + FileUtils.getParentDirPath(this.file) + "'");
@@ -281,6 +426,39 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
     this.lastLoaded = System.currentTimeMillis();
   }
 
+  /**
+   * Writes our data if it contains changes which aren't written yet. See {@link WriteSettings}
+   *
+   * @return true if our data was written.
+   */
+  public synchronized final boolean flush() {
+    if (!isDirty()) {
+      return false;
+    }
+    write();
+    return true;
+  }
+
+  /**
+   * Same as {@link #flush()}, but an exception writing our file is thrown instead of being printed.
+   * Our changes stay dirty in this case.
+   */
+  public synchronized final boolean flushChecked() throws IOException {
+    if (!isDirty()) {
+      return false;
+    }
+    writeChanges(getFileData(), this.changes.get());
+    return true;
+  }
+
+  /**
+   * @return true if our data contains changes which aren't written yet, including the ones of
+   * asynchronous writes which aren't finished.
+   */
+  public final boolean isDirty() {
+    return this.changes.get() != this.writtenChanges;
+  }
+
   public final boolean hasChanged() {
     return FileUtils.hasChanged(this.file, this.lastLoaded);
   }
@@ -291,40 +469,320 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
       reloadConsumer.accept(this);
     }
 
-    Map<String, Object> out = new HashMap<>();
-    try {
-      out = readToMap();
-    } catch (final IOException ex) {
-      handleReloadException(ex);
-    } finally {
-      if (this.fileData == null) {
-        this.fileData = new FileData(out, this.dataType);
-      } else {
-        this.fileData.loadData(out);
-      }
-      this.lastLoaded = System.currentTimeMillis();
-    }
+    loadData(readData());
+    dispatchChanges();
   }
 
   public final void clear() {
-    this.fileData.clear();
-    write();
+    synchronized (this) {
+      ensureLoaded();
+      final Map<String, Object> oldValues = watchedOldValues(
+          new ArrayList<>(this.fileData.singleLayerKeySet()));
+      this.fileData.clear();
+      oldValues.forEach(this::fireChanges);
+      writeIfNeeded();
+    }
+    dispatchChanges();
   }
 
   public final void clearPathPrefix() {
     this.pathPrefix = null;
   }
 
+  // ----------------------------------------------------------------------------------------------------
+  // Asynchronous I/O using LightningProviders.ioExecutor()
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * Sets the value in memory immediately & writes our file asynchronously. See {@link #saveAsync()}
+   */
+  public final CompletableFuture<Void> setAsync(final String key, final Object value) {
+    synchronized (this) {
+      reloadIfNeeded();
+      insert0(createFinalKey(key), value);
+      this.changes.incrementAndGet();
+    }
+    dispatchChanges();
+    return saveAsync();
+  }
+
+  /**
+   * Writes a snapshot of our current data asynchronously. Writes & reloads of a file are executed
+   * in the order they were requested. A snapshot is never written over a newer one, even if that
+   * was written synchronously in the meantime. Until all writes are finished our file won't be
+   * reloaded automatically & our data counts as dirty, our data in memory is newer than the file.
+   */
+  public final CompletableFuture<Void> saveAsync() {
+    final FileData snapshot;
+    final long snapshotChanges;
+    synchronized (this) {
+      snapshot = getFileData().snapshot();
+      snapshotChanges = this.changes.get();
+      this.pendingWrites.incrementAndGet();
+    }
+
+    return submitIO(() -> {
+      try {
+        writeChanges(snapshot, snapshotChanges);
+      } catch (final IOException ex) {
+        throw LightningProviders.exceptionHandler().create(
+            ex,
+            "Exception writing to file '" + getName() + "'",
+            "In '" + FileUtils.getParentDirPath(this.file) + "'");
+      } finally {
+        this.pendingWrites.decrementAndGet();
+      }
+    });
+  }
+
+  /**
+   * Reads our file asynchronously & replaces our data with its content afterwards. See {@link
+   * #forceReload()}
+   */
+  public final CompletableFuture<Void> reloadAsync() {
+    return submitIO(() -> {
+      if (this.reloadConsumer != null) {
+        this.reloadConsumer.accept(this);
+      }
+      loadData(readData());
+      dispatchChanges();
+    });
+  }
+
+  private synchronized CompletableFuture<Void> submitIO(final Runnable task) {
+    // Failures of previous operations mustn't stop the following ones
+    return this.lastIO = this.lastIO
+        .handle((result, throwable) -> result)
+        .thenRunAsync(task, LightningProviders.ioExecutor());
+  }
+
   // ----------------------------------------------------------------------------------------------------
   // Internal stuff
   // ----------------------------------------------------------------------------------------------------
 
+  /**
+   * Writes data containing the given amount of our changes, unless newer data was written already.
+   * Changes are only marked as written once the write succeeded.
+   */
+  private void writeChanges(final FileData data, final long dataChanges) throws IOException {
+    synchronized (this.writeLock) {
+      if (dataChanges < this.writtenChanges) {
+        return;
+      }
+      write(data);
+      this.writtenChanges = dataChanges;
+      this.lastLoaded = System.currentTimeMillis();
+    }
+  }
+
+  private Map<String, Object> readData() {
+    try {
+      ParseCache parseCache = this.useParseCache && this.file.isFile()
+          ? new ParseCache(this.file)
+          : null;
+      Map<String, Object> data = parseCache == null ? null : parseCache.read(this.dataType);
+
+      if (data == null) {
+        data = readToMap();
+        // Our file was written while we read it, our content might not match its fingerprint
+        for (int attempt = 1; parseCache != null && !parseCache.isUpToDate(); attempt++) {
+          if (attempt == MAX_PARSE_CACHE_ATTEMPTS) {
+            parseCache = null;
+            break;
+          }
+          parseCache = new ParseCache(this.file);
+          data = readToMap();
+        }
+        if (parseCache != null) {
+          parseCache.write(data);
+        }
+      }
+      this.readException = null;
+      return data;
+    } catch (final IOException ex) {
+      this.readException = ex;
+      handleReloadException(ex);
+      return new HashMap<>();
+    }
+  }
+
+  private synchronized void loadData(final Map<String, Object> data) {
+    if (this.fileData == null) {
+      final FileData loaded = new FileData(data, this.dataType);
+      if (this.keyFilterExpectedKeys > 0) {
+        loaded.enableKeyFilter(this.keyFilterExpectedKeys, this.keyFilterFalsePositiveRate);
+      }
+      this.fileData = loaded;
+    } else {
+      // Patched in place, so everything unchanged keeps its identity
+      final List<Change> changes = this.changeDispatcher.hasListeners() ? new ArrayList<>() : null;
+      this.fileData.patch(data, changes);
+      if (changes != null) {
+        queueChanges(changes);
+      }
+    }
+    // Our data equals our file again
+    synchronized (this.writeLock) {
+      this.writtenChanges = this.changes.get();
+    }
+    this.lastLoaded = System.currentTimeMillis();
+  }
+
+  /**
+   * @return false if our file wasn't read yet, see {@link LoadSettings#LAZY}
+   */
+  public final boolean isLoaded() {
+    return this.fileData != null;
+  }
+
+  /**
+   * Reads our file if it wasn't read yet, see {@link LoadSettings#LAZY}
+   */
+  protected final void ensureLoaded() {
+    if (this.fileData != null) {
+      return;
+    }
+    synchronized (this) {
+      if (this.fileData == null) {
+        forceReload();
+      }
+    }
+  }
+
   protected final void reloadIfNeeded() {
-    if (shouldReload()) {
+    if (this.fileData == null) {
+      ensureLoaded();
+      return;
+    }
+
+    // Changes which aren't written yet mustn't be overwritten by a reload
+    if (!isDirty() && this.pendingWrites.get() == 0 && shouldReload()) {
       forceReload();
     }
   }
 
+  private void insert0(final String key, final Object value) {
+    final String changeRoot = watchedChangeRoot(key);
+    final Object oldValue = changeRoot == null ? null : this.fileData.get(changeRoot);
+    this.fileData.insert(key, value);
+    fireChanges(changeRoot, oldValue);
+  }
+
+  // Values of the watched top level keys, before they are replaced or removed all at once
+  private Map<String, Object> watchedOldValues(final Collection<?> keys) {
+    if (!this.changeDispatcher.hasListeners()) {
+      return Collections.emptyMap();
+    }
+    final Map<String, Object> oldValues = new LinkedHashMap<>();
+    for (final Object key : keys) {
+      final String path = String.valueOf(key);
+      if (this.changeDispatcher.isWatched(path)) {
+        oldValues.put(path, this.fileData.get(path));
+      }
+    }
+    return oldValues;
+  }
+
+  private void remove0(final String key) {
+    final Object oldValue = this.changeDispatcher.isWatched(key) ? this.fileData.get(key) : null;
+    this.fileData.remove(key);
+    if (oldValue != null) {
+      final List<Change> changes = new ArrayList<>();
+      TreeDiff.diff(key, oldValue, null, changes);
+      queueChanges(changes);
+    }
+  }
+
+  /**
+   * Inserting a key replaces the first of its parents which isn't a section. Changes of the key
+   * therefore start there.
+   *
+   * @return The path whose value is replaced by inserting the key, null if nobody listens to it.
+   */
+  @Nullable
+  private String watchedChangeRoot(final String key) {
+    if (!this.changeDispatcher.hasListeners()) {
+      return null;
+    }
+
+    String changeRoot = key;
+    for (int i = key.indexOf('.'); i != -1; i = key.indexOf('.', i + 1)) {
+      final String parent = key.substring(0, i);
+      final Object value = this.fileData.get(parent);
+      if (!(value instanceof Map)) {
+        if (value != null) {
+          changeRoot = parent;
+        }
+        break;
+      }
+    }
+    return this.changeDispatcher.isWatched(changeRoot) ? changeRoot : null;
+  }
+
+  private void fireChanges(@Nullable final String changeRoot, @Nullable final Object oldValue) {
+    if (changeRoot == null) {
+      return;
+    }
+    final List<Change> changes = new ArrayList<>();
+    TreeDiff.diff(changeRoot, oldValue, this.fileData.get(changeRoot), changes);
+    queueChanges(changes);
+  }
+
+  private void queueChanges(final List<Change> changes) {
+    if (!changes.isEmpty()) {
+      this.pendingChanges.add(changes);
+    }
+  }
+
+  /**
+   * Delivers the queued changes. Listeners are never called while we're locked, as they might use
+   * other FlatFiles locked by threads waiting for us. If we're still locked the changes are left to
+   * the caller locking us. Only one thread delivers at a time, so listeners receive the changes in
+   * the order they were made, listeners changing our data queue their changes behind them.
+   * Exceptions of listeners are thrown after all queued changes were delivered.
+   */
+  private void dispatchChanges() {
+    if (Thread.holdsLock(this)) {
+      return;
+    }
+    RuntimeException failure = null;
+    while (!this.pendingChanges.isEmpty() && this.dispatching.compareAndSet(false, true)) {
+      try {
+        List<Change> changes;
+        while ((changes = this.pendingChanges.poll()) != null) {
+          try {
+            this.changeDispatcher.dispatch(changes);
+          } catch (final RuntimeException ex) {
+            if (failure == null) {
+              failure = ex;
+            } else {
+              failure.addSuppressed(ex);
+            }
+          }
+        }
+      } finally {
+        this.dispatching.set(false);
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  // Should be called after every change of our data
+  protected final void writeIfNeeded() {
+    this.changes.incrementAndGet();
+    if (WriteSettings.AUTOMATICALLY.equals(this.writeSettings)) {
+      write();
+    } else if (WriteSettings.SCHEDULED.equals(this.writeSettings)) {
+      LightningProviders.flushScheduler().schedule(this);
+    }
+  }
+
+  private String createFinalKey(final String key) {
+    return this.pathPrefix == null ? key : this.pathPrefix + "." + key;
+  }
+
   // Should the file be re-read before the next get() operation?
   // Can be used as utility method for implementations of FlatFile
   protected boolean shouldReload() {
@@ -342,10 +800,64 @@ public abstract class FlatFile implements DataStorage, Comparable<FlatFile> {
   // ----------------------------------------------------------------------------------------------------
 
   public final FileData getFileData() {
-    Valid.notNull(this.fileData, "FileData mustn't be null");
+    ensureLoaded();
     return this.fileData;
   }
 
+  /**
+   * Enables a Bloom filter over the keys of our file so lookups of keys which don't exist return
+   * without walking the data. See {@link FileData#enableKeyFilter(int, double)}
+   *
+   * @param expectedKeys      Amount of keys (including parent keys) we expect to store.
+   * @param falsePositiveRate Rate of lookups of missing keys that still need to walk the data.
+   */
+  public synchronized final void enableKeyFilter(
+      final int expectedKeys,
+      final double falsePositiveRate) {
+    this.keyFilterExpectedKeys = expectedKeys;
+    this.keyFilterFalsePositiveRate = falsePositiveRate;
+    // Otherwise enabled once our data is loaded lazily
+    if (this.fileData != null) {
+      this.fileData.enableKeyFilter(expectedKeys, falsePositiveRate);
+    }
+  }
+
+  /**
+   * Registers a listener receiving the changes of the values matching the pattern. Changes are
+   * reported after set, remove & reloads of our file, which are compared against our previous
+   * data. The listener is called after our lock was released, usually on the thread making the
+   * change. While another thread delivers changes, it delivers ours as well. See {@link
+   * #onChange(String, Consumer, Executor)} to receive them asynchronously.
+   *
+   * @param pattern  Full path, ignoring the path prefix. '*' matches any single key, 'database.*'
+   *                 matches every value inside the sections of 'database'. Values inside a matched
+   *                 section are matched as well.
+   * @param listener Receives the matching changes of each operation as one list.
+   */
+  public final void onChange(
+      @NonNull final String pattern,
+      @NonNull final Consumer<List<Change>> listener) {
+    this.changeDispatcher.subscribe(pattern, listener, null);
+  }
+
+  /**
+   * Same as {@link #onChange(String, Consumer)}, but the listener is called using the executor.
+   * The values of the changes might already be outdated by then.
+   */
+  public final void onChange(
+      @NonNull final String pattern,
+      @NonNull final Consumer<List<Change>> listener,
+      @NonNull final Executor executor) {
+    this.changeDispatcher.subscribe(pattern, listener, executor);
+  }
+
+  /**
+   * Removes every subscription of the listener, see {@link #onChange(String, Consumer)}
+   */
+  public final void removeChangeListener(@NonNull final Consumer<List<Change>> listener) {
+    this.changeDispatcher.unsubscribe(listener);
+  }
+
   public final FlatFileSection getSection(final String pathPrefix) {
     return new FlatFileSection(this, pathPrefix);
   }
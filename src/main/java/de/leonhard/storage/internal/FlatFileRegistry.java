@@ -0,0 +1,129 @@
+package de.leonhard.storage.internal;
+
+import de.leonhard.storage.util.Valid;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Registry of FlatFiles shared in our JVM. See {@link de.leonhard.storage.LightningBuilder#shared()}
+ *
+ * <p>Files are identified by their canonical path, so every user of a file gets the same instance
+ * and therefore the same {@link FileData}: The file is parsed once, changes are checked once and
+ * writes can't overwrite each other. Settings of the first user win.
+ *
+ * <p>Every {@link #acquire(Class, File, Supplier)} should be paired with a {@link
+ * #release(FlatFile)} once the file isn't used anymore. Note that the path prefix of a shared
+ * instance is shared as well, use {@link FlatFile#getSection(String)} instead.
+ */
+@UtilityClass
+public class FlatFileRegistry {
+
+  private final Map<File, SharedFlatFile> sharedFlatFiles = new HashMap<>();
+
+  /**
+   * Returns the shared instance for the file or creates & registers it. The factory is called
+   * without holding our lock, so it may do I/O or use the registry itself. If another thread
+   * registered the file in the meantime, its instance is returned & ours is discarded.
+   *
+   * @param type    Type of the FlatFile we need. Mustn't conflict with an already shared instance.
+   * @param file    File the FlatFile stores its data in.
+   * @param factory Creates our FlatFile if it isn't shared yet.
+   */
+  public <T extends FlatFile> T acquire(
+      @NonNull final Class<T> type,
+      @NonNull final File file,
+      @NonNull final Supplier<T> factory) {
+    final File canonicalFile = canonicalFile(file);
+    final T existing = reference(type, canonicalFile, null);
+    return existing != null ? existing : reference(type, canonicalFile, factory.get());
+  }
+
+  /**
+   * Releases one reference to a shared FlatFile. The file is unregistered once the last reference
+   * is released, the next acquire will parse it again.
+   *
+   * @return Remaining references, 0 if the FlatFile isn't shared (anymore)
+   */
+  public int release(@NonNull final FlatFile flatFile) {
+    final File canonicalFile = canonicalFile(flatFile.getFile());
+    synchronized (sharedFlatFiles) {
+      final SharedFlatFile shared = sharedFlatFiles.get(canonicalFile);
+
+      if (shared == null || shared.flatFile != flatFile) {
+        return 0;
+      }
+
+      if (--shared.references == 0) {
+        sharedFlatFiles.remove(canonicalFile);
+      }
+      return shared.references;
+    }
+  }
+
+  /**
+   * @return Amount of references to the shared FlatFile of this file, 0 if it isn't shared.
+   */
+  public int getReferences(@NonNull final File file) {
+    final File canonicalFile = canonicalFile(file);
+    synchronized (sharedFlatFiles) {
+      final SharedFlatFile shared = sharedFlatFiles.get(canonicalFile);
+      return shared == null ? 0 : shared.references;
+    }
+  }
+
+  /**
+   * Adds a reference to the shared instance of the file. The created instance is registered if
+   * the file isn't shared yet.
+   *
+   * @return The shared instance, null if there is none & nothing was created.
+   */
+  private <T extends FlatFile> T reference(
+      final Class<T> type,
+      final File canonicalFile,
+      @Nullable final T created) {
+    synchronized (sharedFlatFiles) {
+      SharedFlatFile shared = sharedFlatFiles.get(canonicalFile);
+
+      if (shared == null) {
+        if (created == null) {
+          return null;
+        }
+        shared = new SharedFlatFile(created);
+        sharedFlatFiles.put(canonicalFile, shared);
+      } else {
+        Valid.checkBoolean(
+            type.isInstance(shared.flatFile),
+            "File '" + canonicalFile + "' is already shared as "
+            + shared.flatFile.getClass().getSimpleName(),
+            "Requested: " + type.getSimpleName());
+      }
+
+      shared.references++;
+      return type.cast(shared.flatFile);
+    }
+  }
+
+  private File canonicalFile(final File file) {
+    try {
+      return file.getCanonicalFile();
+    } catch (final IOException ex) {
+      return file.getAbsoluteFile();
+    }
+  }
+
+  private final class SharedFlatFile {
+
+    private final FlatFile flatFile;
+    private int references;
+
+    private SharedFlatFile(final FlatFile flatFile) {
+      this.flatFile = flatFile;
+    }
+  }
+}
@@ -0,0 +1,337 @@
+package de.leonhard.storage.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.function.Supplier;
+
+/**
+ * A live view of a navigable layer of a {@link FileData}. Inserting keys replaces the layers above
+ * them, so a view of a layer would go stale after the next change. We therefore resolve the layer
+ * on every access. Views derived from ours are resolved the same way.
+ *
+ * <p>Views are read-only. Changes have to go through our FileData or FlatFile, which keep their
+ * key filter, their changes to write & their listeners up to date.
+ */
+final class LayerView<V> extends AbstractMap<String, V> implements NavigableMap<String, V> {
+
+  private final Supplier<NavigableMap<String, V>> layer;
+
+  LayerView(final Supplier<NavigableMap<String, V>> layer) {
+    this.layer = layer;
+  }
+
+  private NavigableMap<String, V> layer() {
+    return Collections.unmodifiableNavigableMap(this.layer.get());
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Map
+  // ----------------------------------------------------------------------------------------------------
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return layer().entrySet();
+  }
+
+  @Override
+  public int size() {
+    return layer().size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return layer().isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return layer().containsKey(key);
+  }
+
+  @Override
+  public V get(final Object key) {
+    return layer().get(key);
+  }
+
+  @Override
+  public V put(final String key, final V value) {
+    return layer().put(key, value);
+  }
+
+  @Override
+  public V remove(final Object key) {
+    return layer().remove(key);
+  }
+
+  @Override
+  public Collection<V> values() {
+    return layer().values();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return navigableKeySet();
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // NavigableMap
+  // ----------------------------------------------------------------------------------------------------
+
+  @Override
+  public Comparator<? super String> comparator() {
+    return layer().comparator();
+  }
+
+  @Override
+  public String firstKey() {
+    return layer().firstKey();
+  }
+
+  @Override
+  public String lastKey() {
+    return layer().lastKey();
+  }
+
+  @Override
+  public Entry<String, V> lowerEntry(final String key) {
+    return layer().lowerEntry(key);
+  }
+
+  @Override
+  public String lowerKey(final String key) {
+    return layer().lowerKey(key);
+  }
+
+  @Override
+  public Entry<String, V> floorEntry(final String key) {
+    return layer().floorEntry(key);
+  }
+
+  @Override
+  public String floorKey(final String key) {
+    return layer().floorKey(key);
+  }
+
+  @Override
+  public Entry<String, V> ceilingEntry(final String key) {
+    return layer().ceilingEntry(key);
+  }
+
+  @Override
+  public String ceilingKey(final String key) {
+    return layer().ceilingKey(key);
+  }
+
+  @Override
+  public Entry<String, V> higherEntry(final String key) {
+    return layer().higherEntry(key);
+  }
+
+  @Override
+  public String higherKey(final String key) {
+    return layer().higherKey(key);
+  }
+
+  @Override
+  public Entry<String, V> firstEntry() {
+    return layer().firstEntry();
+  }
+
+  @Override
+  public Entry<String, V> lastEntry() {
+    return layer().lastEntry();
+  }
+
+  @Override
+  public Entry<String, V> pollFirstEntry() {
+    return layer().pollFirstEntry();
+  }
+
+  @Override
+  public Entry<String, V> pollLastEntry() {
+    return layer().pollLastEntry();
+  }
+
+  @Override
+  public NavigableMap<String, V> descendingMap() {
+    return new LayerView<>(() -> layer().descendingMap());
+  }
+
+  @Override
+  public NavigableSet<String> navigableKeySet() {
+    return new KeySetView(() -> layer().navigableKeySet());
+  }
+
+  @Override
+  public NavigableSet<String> descendingKeySet() {
+    return new KeySetView(() -> layer().descendingKeySet());
+  }
+
+  @Override
+  public NavigableMap<String, V> subMap(
+      final String fromKey,
+      final boolean fromInclusive,
+      final String toKey,
+      final boolean toInclusive) {
+    return new LayerView<>(() -> layer().subMap(fromKey, fromInclusive, toKey, toInclusive));
+  }
+
+  @Override
+  public NavigableMap<String, V> headMap(final String toKey, final boolean inclusive) {
+    return new LayerView<>(() -> layer().headMap(toKey, inclusive));
+  }
+
+  @Override
+  public NavigableMap<String, V> tailMap(final String fromKey, final boolean inclusive) {
+    return new LayerView<>(() -> layer().tailMap(fromKey, inclusive));
+  }
+
+  @Override
+  public SortedMap<String, V> subMap(final String fromKey, final String toKey) {
+    return subMap(fromKey, true, toKey, false);
+  }
+
+  @Override
+  public SortedMap<String, V> headMap(final String toKey) {
+    return headMap(toKey, false);
+  }
+
+  @Override
+  public SortedMap<String, V> tailMap(final String fromKey) {
+    return tailMap(fromKey, true);
+  }
+
+  /**
+   * Live view of the keys of a layer, resolved on every access like {@link LayerView}
+   */
+  static final class KeySetView extends AbstractSet<String> implements NavigableSet<String> {
+
+    private final Supplier<NavigableSet<String>> keys;
+
+    KeySetView(final Supplier<NavigableSet<String>> keys) {
+      this.keys = keys;
+    }
+
+    private NavigableSet<String> keys() {
+      return Collections.unmodifiableNavigableSet(this.keys.get());
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return keys().iterator();
+    }
+
+    @Override
+    public int size() {
+      return keys().size();
+    }
+
+    @Override
+    public boolean contains(final Object key) {
+      return keys().contains(key);
+    }
+
+    @Override
+    public boolean remove(final Object key) {
+      return keys().remove(key);
+    }
+
+    @Override
+    public Comparator<? super String> comparator() {
+      return keys().comparator();
+    }
+
+    @Override
+    public String first() {
+      return keys().first();
+    }
+
+    @Override
+    public String last() {
+      return keys().last();
+    }
+
+    @Override
+    public String lower(final String key) {
+      return keys().lower(key);
+    }
+
+    @Override
+    public String floor(final String key) {
+      return keys().floor(key);
+    }
+
+    @Override
+    public String ceiling(final String key) {
+      return keys().ceiling(key);
+    }
+
+    @Override
+    public String higher(final String key) {
+      return keys().higher(key);
+    }
+
+    @Override
+    public String pollFirst() {
+      return keys().pollFirst();
+    }
+
+    @Override
+    public String pollLast() {
+      return keys().pollLast();
+    }
+
+    @Override
+    public NavigableSet<String> descendingSet() {
+      return new KeySetView(() -> keys().descendingSet());
+    }
+
+    @Override
+    public Iterator<String> descendingIterator() {
+      return keys().descendingIterator();
+    }
+
+    @Override
+    public NavigableSet<String> subSet(
+        final String fromKey,
+        final boolean fromInclusive,
+        final String toKey,
+        final boolean toInclusive) {
+      return new KeySetView(() -> keys().subSet(fromKey, fromInclusive, toKey, toInclusive));
+    }
+
+    @Override
+    public NavigableSet<String> headSet(final String toKey, final boolean inclusive) {
+      return new KeySetView(() -> keys().headSet(toKey, inclusive));
+    }
+
+    @Override
+    public NavigableSet<String> tailSet(final String fromKey, final boolean inclusive) {
+      return new KeySetView(() -> keys().tailSet(fromKey, inclusive));
+    }
+
+    @Override
+    public SortedSet<String> subSet(final String fromKey, final String toKey) {
+      return subSet(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedSet<String> headSet(final String toKey) {
+      return headSet(toKey, false);
+    }
+
+    @Override
+    public SortedSet<String> tailSet(final String fromKey) {
+      return tailSet(fromKey, true);
+    }
+  }
+}
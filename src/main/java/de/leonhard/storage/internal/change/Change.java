@@ -0,0 +1,44 @@
+package de.leonhard.storage.internal.change;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The change of a single value of a FlatFile, see {@link de.leonhard.storage.internal.FlatFile#onChange(String,
+ * java.util.function.Consumer)}
+ *
+ * <p>Changes are reported per value, sections are never reported themselves. Replacing a section
+ * reports every value inside it.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public final class Change {
+
+  /**
+   * Full path of the value, like 'database.host'
+   */
+  private final String path;
+  /**
+   * Value before the change, null if it was added
+   */
+  @Nullable
+  private final Object oldValue;
+  /**
+   * Value after the change, null if it was removed
+   */
+  @Nullable
+  private final Object newValue;
+
+  public boolean isAdded() {
+    return this.oldValue == null;
+  }
+
+  public boolean isRemoved() {
+    return this.newValue == null;
+  }
+}
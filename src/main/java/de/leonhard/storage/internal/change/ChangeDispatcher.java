@@ -0,0 +1,193 @@
+package de.leonhard.storage.internal.change;
+
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.util.Valid;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Delivers {@link Change}s to the listeners subscribed to their paths.
+ *
+ * <p>Subscriptions are stored in a trie by the segments of their pattern. A pattern matches a
+ * path if it matches its first segments, '*' matches any single segment. 'database.*' therefore
+ * matches 'database.main.host' but not 'database'. Every node knows how many subscriptions are
+ * below it, so paths nobody listens to are rejected after a few lookups.
+ */
+public final class ChangeDispatcher {
+
+  private static final String WILDCARD = "*";
+
+  private final Node root = new Node();
+
+  public synchronized void subscribe(
+      @NonNull final String pattern,
+      @NonNull final Consumer<List<Change>> listener,
+      @Nullable final Executor executor) {
+    Valid.checkBoolean(!pattern.isEmpty(), "Pattern mustn't be empty");
+    Node node = this.root;
+    node.subscriptions++;
+    for (final String segment : pattern.split("\\.")) {
+      node = node.children.computeIfAbsent(segment, key -> new Node());
+      node.subscriptions++;
+    }
+    node.listeners.add(new Subscription(listener, executor));
+  }
+
+  /**
+   * Removes every subscription of the listener.
+   */
+  public synchronized void unsubscribe(@NonNull final Consumer<List<Change>> listener) {
+    unsubscribe(this.root, listener);
+  }
+
+  /**
+   * @return false if nobody listens to changes at all.
+   */
+  public boolean hasListeners() {
+    return this.root.subscriptions > 0;
+  }
+
+  /**
+   * @param path Full path of a value or section.
+   * @return true if changes of the path or of values inside it might be delivered to someone.
+   */
+  public boolean isWatched(final String path) {
+    return hasListeners() && isWatched(this.root, path.split("\\."), 0);
+  }
+
+  /**
+   * Delivers the changes to the listeners of their paths. Every listener receives the changes
+   * matching its patterns as one list, either directly or using its executor. A failing listener
+   * doesn't stop the others, its exception is thrown using the {@link
+   * LightningProviders#exceptionHandler()} once all were called.
+   */
+  public void dispatch(final List<Change> changes) {
+    if (changes.isEmpty() || !hasListeners()) {
+      return;
+    }
+
+    final Map<Subscription, List<Change>> matched = new LinkedHashMap<>();
+    for (final Change change : changes) {
+      match(this.root, change.getPath().split("\\."), 0, change, matched);
+    }
+
+    RuntimeException failure = null;
+    for (final Map.Entry<Subscription, List<Change>> entry : matched.entrySet()) {
+      try {
+        entry.getKey().deliver(Collections.unmodifiableList(entry.getValue()));
+      } catch (final RuntimeException ex) {
+        if (failure == null) {
+          failure = ex;
+        } else {
+          failure.addSuppressed(ex);
+        }
+      }
+    }
+
+    if (failure != null) {
+      throw LightningProviders.exceptionHandler().create(failure, "Exception in change listener");
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Internal stuff
+  // ----------------------------------------------------------------------------------------------------
+
+  private boolean isWatched(final Node node, final String[] segments, final int index) {
+    if (node.subscriptions == 0) {
+      return false;
+    }
+    // Listeners of a parent or of something inside our path
+    if (!node.listeners.isEmpty() || index == segments.length) {
+      return true;
+    }
+
+    final Node child = node.children.get(segments[index]);
+    if (child != null && isWatched(child, segments, index + 1)) {
+      return true;
+    }
+    final Node wildcard = node.children.get(WILDCARD);
+    return wildcard != null && wildcard != child && isWatched(wildcard, segments, index + 1);
+  }
+
+  private void match(
+      final Node node,
+      final String[] segments,
+      final int index,
+      final Change change,
+      final Map<Subscription, List<Change>> matched) {
+    if (node.subscriptions == 0) {
+      return;
+    }
+    for (final Subscription subscription : node.listeners) {
+      matched.computeIfAbsent(subscription, key -> new ArrayList<>()).add(change);
+    }
+    if (index == segments.length) {
+      return;
+    }
+
+    final Node child = node.children.get(segments[index]);
+    if (child != null) {
+      match(child, segments, index + 1, change, matched);
+    }
+    final Node wildcard = node.children.get(WILDCARD);
+    if (wildcard != null && wildcard != child) {
+      match(wildcard, segments, index + 1, change, matched);
+    }
+  }
+
+  // Returns the amount of subscriptions removed in & below the node
+  private int unsubscribe(final Node node, final Consumer<List<Change>> listener) {
+    int removed = 0;
+    for (final Subscription subscription : node.listeners) {
+      if (subscription.listener == listener && node.listeners.remove(subscription)) {
+        removed++;
+      }
+    }
+
+    for (final Map.Entry<String, Node> entry : node.children.entrySet()) {
+      final Node child = entry.getValue();
+      removed += unsubscribe(child, listener);
+      if (child.subscriptions == 0) {
+        node.children.remove(entry.getKey());
+      }
+    }
+
+    node.subscriptions -= removed;
+    return removed;
+  }
+
+  private static final class Node {
+
+    private final Map<String, Node> children = new ConcurrentHashMap<>();
+    private final List<Subscription> listeners = new CopyOnWriteArrayList<>();
+    // Subscriptions in & below this node
+    private volatile int subscriptions;
+  }
+
+  @RequiredArgsConstructor
+  private static final class Subscription {
+
+    private final Consumer<List<Change>> listener;
+    @Nullable
+    private final Executor executor;
+
+    private void deliver(final List<Change> changes) {
+      if (this.executor != null) {
+        this.executor.execute(() -> this.listener.accept(changes));
+        return;
+      }
+      this.listener.accept(changes);
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package de.leonhard.storage.internal.change;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.function.UnaryOperator;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Computes the {@link Change}s between two versions of the nested maps of a FlatFile & patches
+ * the old version into the new one.
+ */
+@UtilityClass
+@SuppressWarnings("unchecked")
+public class TreeDiff {
+
+  // Section without values, compared against sections which are added or removed
+  private final Map<Object, Object> EMPTY = Collections.emptyMap();
+
+  /**
+   * Adds the changes of every value between the old & new value of a path to the result. Sections
+   * are compared key by key, everything else using equals.
+   *
+   * @param path     Path of the values, null for the top layer.
+   * @param oldValue Value before the change, null if there was none.
+   * @param newValue Value after the change, null if there is none.
+   * @param result   List to add the changes to.
+   */
+  public void diff(
+      @Nullable final String path,
+      @Nullable final Object oldValue,
+      @Nullable final Object newValue,
+      final List<Change> result) {
+    if (oldValue == newValue) {
+      return;
+    }
+
+    final boolean oldSection = oldValue instanceof Map;
+    final boolean newSection = newValue instanceof Map;
+
+    if (oldSection && newSection) {
+      final Map<Object, Object> oldMap = (Map<Object, Object>) oldValue;
+      final Map<Object, Object> newMap = (Map<Object, Object>) newValue;
+      for (final Map.Entry<Object, Object> entry : oldMap.entrySet()) {
+        diff(
+            childPath(path, entry.getKey()),
+            entry.getValue(),
+            newMap.get(entry.getKey()),
+            result);
+      }
+      for (final Map.Entry<Object, Object> entry : newMap.entrySet()) {
+        if (!oldMap.containsKey(entry.getKey())) {
+          diff(childPath(path, entry.getKey()), null, entry.getValue(), result);
+        }
+      }
+      return;
+    }
+
+    // A section replaced by a value or the other way round
+    if (oldSection) {
+      diff(path, oldValue, EMPTY, result);
+    } else if (oldValue != null && !Objects.equals(oldValue, newValue)) {
+      result.add(new Change(path, oldValue, newSection ? null : newValue));
+    }
+
+    if (newSection) {
+      diff(path, EMPTY, newValue, result);
+    } else if (newValue != null && (oldSection || oldValue == null)) {
+      result.add(new Change(path, null, newValue));
+    }
+  }
+
+  /**
+   * Updates the live maps to the content of the loaded ones in place. Sections existing in both
+   * are patched recursively & values equal in both are kept, so everything unchanged keeps its
+   * identity. The order of the keys follows the loaded maps, unless the live map is sorted.
+   *
+   * @param path   Path of the maps, null for the top layer.
+   * @param live   Maps to update, have to be mutable.
+   * @param loaded Maps to update to, aren't modified.
+   * @param adopt  Applied to values of the loaded maps before they are put into the live ones.
+   * @param result List to add the changes to, null if they aren't needed.
+   * @return true if the live maps were modified.
+   */
+  public boolean patch(
+      @Nullable final String path,
+      final Map<String, Object> live,
+      final Map<String, Object> loaded,
+      final UnaryOperator<Object> adopt,
+      @Nullable final List<Change> result) {
+    if (live == loaded) {
+      return false;
+    }
+
+    boolean modified = false;
+
+    List<String> removed = null;
+    for (final Map.Entry<String, Object> entry : live.entrySet()) {
+      if (!loaded.containsKey(entry.getKey())) {
+        if (removed == null) {
+          removed = new ArrayList<>();
+        }
+        removed.add(entry.getKey());
+      }
+    }
+    if (removed != null) {
+      for (final String key : removed) {
+        final Object oldValue = live.remove(key);
+        if (result != null) {
+          diff(childPath(path, key), oldValue, null, result);
+        }
+      }
+      modified = true;
+    }
+
+    for (final Map.Entry<String, Object> entry : loaded.entrySet()) {
+      final String key = entry.getKey();
+      final Object newValue = entry.getValue();
+      final Object oldValue = live.get(key);
+
+      if (oldValue instanceof Map && newValue instanceof Map) {
+        modified |= patch(
+            result == null ? null : childPath(path, key),
+            (Map<String, Object>) oldValue,
+            (Map<String, Object>) newValue,
+            adopt,
+            result);
+      } else if (oldValue == null ? !live.containsKey(key) || newValue != null
+                                  : !oldValue.equals(newValue)) {
+        if (result != null) {
+          diff(childPath(path, key), oldValue, newValue, result);
+        }
+        live.put(key, adopt.apply(newValue));
+        modified = true;
+      }
+    }
+
+    if (!(live instanceof SortedMap) && !sameOrder(live, loaded)) {
+      final Map<String, Object> values = new LinkedHashMap<>();
+      for (final String key : loaded.keySet()) {
+        values.put(key, live.get(key));
+      }
+      live.clear();
+      live.putAll(values);
+      modified = true;
+    }
+    return modified;
+  }
+
+  public String childPath(@Nullable final String path, final Object key) {
+    return path == null ? String.valueOf(key) : path + "." + key;
+  }
+
+  // Both maps have the same keys at this point
+  private boolean sameOrder(final Map<String, Object> live, final Map<String, Object> loaded) {
+    final Iterator<String> liveKeys = live.keySet().iterator();
+    for (final String key : loaded.keySet()) {
+      if (!Objects.equals(key, liveKeys.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,39 @@
+package de.leonhard.storage.internal.editor.binary;
+
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.provider.FormatCodec;
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Map;
+import lombok.Cleanup;
+
+/**
+ * Built-in codec for LBIN, using {@link BinaryReader} & {@link BinaryWriter}.
+ */
+public final class BinaryCodec extends FormatCodec {
+
+  @Override
+  public FileType getFileType() {
+    return FileType.LBIN;
+  }
+
+  @Override
+  public Map<String, Object> read(final File file, final DataType dataType) throws IOException {
+    final BinaryReader reader = new BinaryReader(
+        ByteBuffer.wrap(Files.readAllBytes(file.toPath())),
+        dataType);
+    reader.readHeader();
+    return reader.readMap();
+  }
+
+  @Override
+  public void write(final Map<String, Object> data, final File file) throws IOException {
+    @Cleanup final BinaryWriter writer = new BinaryWriter(new FileOutputStream(file));
+    writer.writeHeader();
+    writer.writeMap(data);
+  }
+}
@@ -0,0 +1,41 @@
+package de.leonhard.storage.internal.editor.binary;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Constants of our binary format, used by {@link BinaryWriter} and {@link BinaryReader}.
+ *
+ * <p>Every value starts with one of the tags below. Integers are written as zig-zag encoded
+ * varints, Strings as varint length followed by their UTF-8 bytes. Maps & lists start with their
+ * size. Keys of maps are written once: Their first occurrence is written as 0 followed by the
+ * String, all later ones as a reference (index + 1) into the table of keys read so far.
+ *
+ * <p>Like in our JSON, collections & arrays are written as lists, enums & other objects as their
+ * name or toString().
+ */
+@UtilityClass
+class BinaryFormat {
+
+  // "LBIN", at the start of .lbin files
+  final int MAGIC = 0x4C42494E;
+  final byte VERSION = 1;
+
+  final byte NULL = 0;
+  final byte TRUE = 1;
+  final byte FALSE = 2;
+  final byte INT = 3;
+  final byte LONG = 4;
+  final byte DOUBLE = 5;
+  final byte FLOAT = 6;
+  final byte STRING = 7;
+  final byte MAP = 8;
+  final byte LIST = 9;
+  final byte BYTE = 10;
+  final byte SHORT = 11;
+  final byte CHAR = 12;
+  final byte BIG_INTEGER = 13;
+  final byte BIG_DECIMAL = 14;
+  final byte LOCAL_DATE = 15;
+  final byte LOCAL_DATE_TIME = 16;
+  final byte ZONED_DATE_TIME = 17;
+}
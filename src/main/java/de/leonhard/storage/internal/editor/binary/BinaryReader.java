@@ -0,0 +1,169 @@
+package de.leonhard.storage.internal.editor.binary;
+
+import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.util.Valid;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+
+/**
+ * Reads data written by {@link BinaryWriter} from a buffer, for example a memory mapped file.
+ * Maps & lists are created using the implementations of the given {@link DataType}. This is NOT
+ * Thread safe.
+ */
+public final class BinaryReader {
+
+  private final ByteBuffer buffer;
+  private final DataType dataType;
+  private final List<String> keys = new ArrayList<>();
+  private byte[] bytes = new byte[64];
+
+  public BinaryReader(@NonNull final ByteBuffer buffer, @NonNull final DataType dataType) {
+    this.buffer = buffer;
+    this.dataType = dataType;
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Reading values
+  // ----------------------------------------------------------------------------------------------------
+
+  public void readHeader() {
+    Valid.checkBoolean(
+        this.buffer.remaining() >= 5 && this.buffer.getInt() == BinaryFormat.MAGIC,
+        "Not a .lbin file");
+    final byte version = this.buffer.get();
+    Valid.checkBoolean(
+        version == BinaryFormat.VERSION,
+        "Unsupported version of .lbin file: " + version);
+  }
+
+  public Map<String, Object> readMap() {
+    final byte tag = this.buffer.get();
+    Valid.checkBoolean(tag == BinaryFormat.MAP, "Expected map but found tag " + tag);
+    return readMapContent();
+  }
+
+  public Object readValue() {
+    final byte tag = this.buffer.get();
+    switch (tag) {
+      case BinaryFormat.NULL:
+        return null;
+      case BinaryFormat.TRUE:
+        return true;
+      case BinaryFormat.FALSE:
+        return false;
+      case BinaryFormat.INT:
+        return (int) unZigZag(readVarLong());
+      case BinaryFormat.LONG:
+        return unZigZag(readVarLong());
+      case BinaryFormat.DOUBLE:
+        return Double.longBitsToDouble(this.buffer.getLong());
+      case BinaryFormat.FLOAT:
+        return Float.intBitsToFloat(this.buffer.getInt());
+      case BinaryFormat.STRING:
+        return readString();
+      case BinaryFormat.MAP:
+        return readMapContent();
+      case BinaryFormat.LIST:
+        return readListContent();
+      case BinaryFormat.BYTE:
+        return this.buffer.get();
+      case BinaryFormat.SHORT:
+        return (short) unZigZag(readVarLong());
+      case BinaryFormat.CHAR:
+        return (char) readVarLong();
+      case BinaryFormat.BIG_INTEGER:
+        return new BigInteger(readString());
+      case BinaryFormat.BIG_DECIMAL:
+        return new BigDecimal(readString());
+      case BinaryFormat.LOCAL_DATE:
+        return LocalDate.parse(readString());
+      case BinaryFormat.LOCAL_DATE_TIME:
+        return LocalDateTime.parse(readString());
+      case BinaryFormat.ZONED_DATE_TIME:
+        return ZonedDateTime.parse(readString());
+      default:
+        throw new IllegalStateException("Unknown tag " + tag + " at " + (this.buffer.position() - 1));
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Primitives
+  // ----------------------------------------------------------------------------------------------------
+
+  long readVarLong() {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte current = this.buffer.get();
+      result |= (long) (current & 0x7F) << shift;
+      if ((current & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalStateException("Malformed varint at " + this.buffer.position());
+  }
+
+  private Map<String, Object> readMapContent() {
+    final int size = readSize();
+    final Map<String, Object> result = this.dataType.getMapImplementation();
+    for (int i = 0; i < size; i++) {
+      final String key = readKey();
+      result.put(key, readValue());
+    }
+    return result;
+  }
+
+  private List<Object> readListContent() {
+    final int size = readSize();
+    final List<Object> result = this.dataType.getListImplementation();
+    for (int i = 0; i < size; i++) {
+      result.add(readValue());
+    }
+    return result;
+  }
+
+  private String readKey() {
+    final int reference = (int) readVarLong();
+    if (reference != 0) {
+      return this.keys.get(reference - 1);
+    }
+    final String key = readString();
+    this.keys.add(key);
+    return key;
+  }
+
+  private String readString() {
+    final int length = readSize();
+    if (this.buffer.hasArray()) {
+      final int offset = this.buffer.arrayOffset() + this.buffer.position();
+      this.buffer.position(this.buffer.position() + length);
+      return new String(this.buffer.array(), offset, length, StandardCharsets.UTF_8);
+    }
+
+    if (this.bytes.length < length) {
+      this.bytes = new byte[Math.max(length, this.bytes.length * 2)];
+    }
+    this.buffer.get(this.bytes, 0, length);
+    return new String(this.bytes, 0, length, StandardCharsets.UTF_8);
+  }
+
+  private int readSize() {
+    final long size = readVarLong();
+    Valid.checkBoolean(
+        size >= 0 && size <= this.buffer.remaining(),
+        "Invalid size " + size + " at " + this.buffer.position());
+    return (int) size;
+  }
+
+  private static long unZigZag(final long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
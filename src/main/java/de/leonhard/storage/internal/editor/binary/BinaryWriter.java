@@ -0,0 +1,218 @@
+package de.leonhard.storage.internal.editor.binary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.NonNull;
+
+/**
+ * Writes maps in our binary format, see {@link BinaryFormat}. Output is buffered internally, call
+ * {@link #flush()} or {@link #close()} when done. This is NOT Thread safe.
+ */
+@SuppressWarnings("unchecked")
+public final class BinaryWriter implements Closeable {
+
+  private final OutputStream outputStream;
+  private final Map<String, Integer> keys = new HashMap<>();
+  private byte[] buffer = new byte[8192];
+  private int position;
+
+  public BinaryWriter(@NonNull final OutputStream outputStream) {
+    this.outputStream = outputStream;
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Writing values
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * Writes the header of .lbin files, see {@link BinaryReader#readHeader()}
+   */
+  public void writeHeader() throws IOException {
+    writeFixed(BinaryFormat.MAGIC, 4);
+    writeByte(BinaryFormat.VERSION);
+  }
+
+  public void writeMap(final Map<String, Object> map) throws IOException {
+    writeByte(BinaryFormat.MAP);
+    writeMapContent(map);
+  }
+
+  public void writeValue(final Object value) throws IOException {
+    if (value == null) {
+      writeByte(BinaryFormat.NULL);
+    } else if (value instanceof String) {
+      writeByte(BinaryFormat.STRING);
+      writeString((String) value);
+    } else if (value instanceof Integer) {
+      writeByte(BinaryFormat.INT);
+      writeVarLong(zigZag((Integer) value));
+    } else if (value instanceof Boolean) {
+      writeByte((Boolean) value ? BinaryFormat.TRUE : BinaryFormat.FALSE);
+    } else if (value instanceof Map) {
+      writeMap((Map<String, Object>) value);
+    } else if (value instanceof Collection) {
+      final Collection<Object> collection = (Collection<Object>) value;
+      writeByte(BinaryFormat.LIST);
+      writeVarLong(collection.size());
+      for (final Object element : collection) {
+        writeValue(element);
+      }
+    } else if (value.getClass().isArray()) {
+      final int length = Array.getLength(value);
+      writeByte(BinaryFormat.LIST);
+      writeVarLong(length);
+      for (int i = 0; i < length; i++) {
+        writeValue(Array.get(value, i));
+      }
+    } else if (value instanceof Long) {
+      writeByte(BinaryFormat.LONG);
+      writeVarLong(zigZag((Long) value));
+    } else if (value instanceof Double) {
+      writeByte(BinaryFormat.DOUBLE);
+      writeFixed(Double.doubleToRawLongBits((Double) value), 8);
+    } else if (value instanceof Float) {
+      writeByte(BinaryFormat.FLOAT);
+      writeFixed(Float.floatToRawIntBits((Float) value), 4);
+    } else if (value instanceof Byte) {
+      writeByte(BinaryFormat.BYTE);
+      writeByte((Byte) value);
+    } else if (value instanceof Short) {
+      writeByte(BinaryFormat.SHORT);
+      writeVarLong(zigZag((Short) value));
+    } else if (value instanceof Character) {
+      writeByte(BinaryFormat.CHAR);
+      writeVarLong((Character) value);
+    } else if (value instanceof BigInteger) {
+      writeByte(BinaryFormat.BIG_INTEGER);
+      writeString(value.toString());
+    } else if (value instanceof BigDecimal) {
+      writeByte(BinaryFormat.BIG_DECIMAL);
+      writeString(value.toString());
+    } else if (value instanceof LocalDate) {
+      writeByte(BinaryFormat.LOCAL_DATE);
+      writeString(value.toString());
+    } else if (value instanceof LocalDateTime) {
+      writeByte(BinaryFormat.LOCAL_DATE_TIME);
+      writeString(value.toString());
+    } else if (value instanceof ZonedDateTime) {
+      writeByte(BinaryFormat.ZONED_DATE_TIME);
+      writeString(value.toString());
+    } else if (value instanceof Enum) {
+      writeByte(BinaryFormat.STRING);
+      writeString(((Enum<?>) value).name());
+    } else {
+      // Like our JsonWriter does it
+      writeByte(BinaryFormat.STRING);
+      writeString(value.toString());
+    }
+  }
+
+  public void flush() throws IOException {
+    this.outputStream.write(this.buffer, 0, this.position);
+    this.position = 0;
+    this.outputStream.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    this.outputStream.close();
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Primitives
+  // ----------------------------------------------------------------------------------------------------
+
+  void writeByte(final int value) throws IOException {
+    ensureCapacity(1);
+    this.buffer[this.position++] = (byte) value;
+  }
+
+  void writeFixed(final long value, final int bytes) throws IOException {
+    ensureCapacity(bytes);
+    for (int i = bytes - 1; i >= 0; i--) {
+      this.buffer[this.position++] = (byte) (value >>> (i * 8));
+    }
+  }
+
+  void writeVarLong(long value) throws IOException {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      this.buffer[this.position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    this.buffer[this.position++] = (byte) value;
+  }
+
+  private void writeMapContent(final Map<String, Object> map) throws IOException {
+    writeVarLong(map.size());
+    for (final Map.Entry<String, Object> entry : map.entrySet()) {
+      writeKey(entry.getKey());
+      writeValue(entry.getValue());
+    }
+  }
+
+  private void writeKey(final String key) throws IOException {
+    final Integer index = this.keys.get(key);
+    if (index != null) {
+      writeVarLong(index + 1);
+      return;
+    }
+    this.keys.put(key, this.keys.size());
+    writeVarLong(0);
+    writeString(key);
+  }
+
+  private void writeString(final String value) throws IOException {
+    final int length = value.length();
+    // Fast path for ASCII: No need to encode
+    boolean ascii = true;
+    for (int i = 0; i < length; i++) {
+      if (value.charAt(i) >= 0x80) {
+        ascii = false;
+        break;
+      }
+    }
+
+    if (ascii) {
+      writeVarLong(length);
+      ensureCapacity(length);
+      for (int i = 0; i < length; i++) {
+        this.buffer[this.position++] = (byte) value.charAt(i);
+      }
+      return;
+    }
+
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(bytes.length);
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+    this.position += bytes.length;
+  }
+
+  private void ensureCapacity(final int bytes) throws IOException {
+    if (this.position + bytes <= this.buffer.length) {
+      return;
+    }
+    this.outputStream.write(this.buffer, 0, this.position);
+    this.position = 0;
+    if (bytes > this.buffer.length) {
+      this.buffer = new byte[bytes];
+    }
+  }
+
+  private static long zigZag(final long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+}
@@ -0,0 +1,135 @@
+package de.leonhard.storage.internal.editor.binary;
+
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binary sidecar of a text file, storing its parsed content to skip parsing it on the next load.
+ * See {@link de.leonhard.storage.LightningBuilder#setParseCache(boolean)}
+ *
+ * <p>The sidecar is named '.[name].cache' and stored next to the file. It contains the size, last
+ * modification & CRC32 of the file it was created from. If any of these don't match, the sidecar
+ * is ignored & the file has to be parsed again. As the fingerprint is taken before the file is
+ * read, {@link #isUpToDate()} has to be checked after reading it, before its content is cached.
+ */
+public final class ParseCache {
+
+  private static final int MAGIC = 0x4C424301; // "LBC" + version
+  private static final int HEADER_SIZE = 4 + 8 + 8 + 8;
+
+  @Getter
+  private final File cacheFile;
+  private final File file;
+  // Fingerprint of our file
+  private final long size;
+  private final long lastModified;
+  private final long checksum;
+
+  /**
+   * Creates the fingerprint of the file as it is right now.
+   */
+  public ParseCache(@NonNull final File file) throws IOException {
+    this.cacheFile = new File(
+        file.getAbsoluteFile().getParentFile(),
+        "." + file.getName() + ".cache");
+    this.file = file;
+    this.lastModified = file.lastModified();
+    this.size = file.length();
+    this.checksum = checksum(file);
+  }
+
+  /**
+   * @return The cached content of our file or null if there is no matching sidecar.
+   */
+  @Nullable
+  public Map<String, Object> read(@NonNull final DataType dataType) {
+    if (!this.cacheFile.isFile() || this.cacheFile.length() < HEADER_SIZE) {
+      return null;
+    }
+
+    // Read into the heap, a mapping would prevent replacing the sidecar on Windows until it is
+    // garbage collected
+    try (final FileChannel channel = FileChannel.open(
+        this.cacheFile.toPath(),
+        StandardOpenOption.READ)) {
+      final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+      while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+        // Read the whole sidecar
+      }
+      buffer.flip();
+
+      if (buffer.getInt() != MAGIC
+          || buffer.getLong() != this.size
+          || buffer.getLong() != this.lastModified
+          || buffer.getLong() != this.checksum) {
+        return null;
+      }
+      return new BinaryReader(buffer, dataType).readMap();
+    } catch (final IOException | RuntimeException ex) {
+      // Broken sidecars are simply ignored & replaced
+      return null;
+    }
+  }
+
+  /**
+   * @return false if our file was modified since its fingerprint was taken, for example while it
+   * was read.
+   */
+  public boolean isUpToDate() throws IOException {
+    return this.file.lastModified() == this.lastModified
+        && this.file.length() == this.size
+        && checksum(this.file) == this.checksum;
+  }
+
+  /**
+   * Writes the content of our file to our sidecar. Errors are ignored, the cache is optional.
+   *
+   * @return true if the sidecar was written.
+   */
+  public boolean write(@NonNull final Map<String, Object> data) {
+    final File temp = new File(this.cacheFile.getPath() + ".tmp");
+    try {
+      try (final BinaryWriter writer = new BinaryWriter(new FileOutputStream(temp))) {
+        writer.writeFixed(MAGIC, 4);
+        writer.writeFixed(this.size, 8);
+        writer.writeFixed(this.lastModified, 8);
+        writer.writeFixed(this.checksum, 8);
+        writer.writeMap(data);
+      }
+      Files.move(
+          temp.toPath(),
+          this.cacheFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      return true;
+    } catch (final IOException | RuntimeException ex) {
+      temp.delete();
+      return false;
+    }
+  }
+
+  private static long checksum(final File file) throws IOException {
+    final CRC32 crc = new CRC32();
+    final byte[] buffer = new byte[8192];
+    try (final InputStream inputStream = Files.newInputStream(file.toPath())) {
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        crc.update(buffer, 0, read);
+      }
+    }
+    return crc.getValue();
+  }
+}
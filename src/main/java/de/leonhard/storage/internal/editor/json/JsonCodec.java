@@ -0,0 +1,48 @@
+package de.leonhard.storage.internal.editor.json;
+
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.provider.FormatCodec;
+import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.util.ChannelReader;
+import de.leonhard.storage.util.FileUtils;
+import de.leonhard.storage.util.JsonUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+import lombok.Cleanup;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Built-in codec for JSON, using our {@link JsonReader} & {@link JsonWriter}.
+ */
+public final class JsonCodec extends FormatCodec {
+
+  @Override
+  public FileType getFileType() {
+    return FileType.JSON;
+  }
+
+  @Override
+  public Map<String, Object> read(final File file, final DataType dataType) throws IOException {
+    try (final Reader reader = new ChannelReader(file)) {
+      final Map<String, Object> map = new JsonReader(reader, dataType).readToMap();
+      if (map != null) {
+        return map;
+      }
+    }
+
+    // Lenient JSON, only org.json understands it
+    @Cleanup final Reader reader = new ChannelReader(file);
+    final JSONTokener jsonTokener = new JSONTokener(reader);
+    return JsonUtils.toMap(new JSONObject(jsonTokener), dataType);
+  }
+
+  @Override
+  public void write(final Map<String, Object> data, final File file) throws IOException {
+    try (final JsonWriter writer = new JsonWriter(FileUtils.createChannelWriter(file), 3)) {
+      writer.writeMap(data);
+    }
+  }
+}
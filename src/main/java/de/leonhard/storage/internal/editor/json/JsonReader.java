@@ -0,0 +1,306 @@
+package de.leonhard.storage.internal.editor.json;
+
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONObject;
+
+/**
+ * Streaming reader for strict JSON. Reads its data in chunks and creates the maps & lists of our
+ * DataType directly instead of building a {@link JSONObject} first.
+ *
+ * <p>Values are converted like org.json does it, so a file read by us results in the same data as
+ * one read using a {@link org.json.JSONTokener}. org.json also accepts a lenient superset of JSON
+ * (unquoted & single quoted strings, '=' as separator...). We don't, {@link #readToMap()} returns
+ * null for such data and the caller should use org.json instead. This is NOT Thread safe.
+ */
+public final class JsonReader {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader reader;
+  private final DataType dataType;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private int position;
+  private int limit;
+  private final StringBuilder stringBuilder = new StringBuilder();
+
+  public JsonReader(@NonNull final Reader reader, @NonNull final DataType dataType) {
+    this.reader = reader;
+    this.dataType = dataType;
+  }
+
+  /**
+   * Reads the JSON object at the start of our data. Data after the object is ignored, like the
+   * JSONObject of org.json does it.
+   *
+   * @return The content of the object or null if our data isn't strict JSON.
+   */
+  @Nullable
+  public Map<String, Object> readToMap() throws IOException {
+    try {
+      if (nextClean() != '{') {
+        return null;
+      }
+      return readObject();
+    } catch (final UnsupportedSyntax ex) {
+      return null;
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Reading values
+  // ----------------------------------------------------------------------------------------------------
+
+  private Object readValue(final char first) throws IOException {
+    switch (first) {
+      case '{':
+        return readObject();
+      case '[':
+        return readArray();
+      case '"':
+        return readString();
+      case 't':
+        expect("rue");
+        return Boolean.TRUE;
+      case 'f':
+        expect("alse");
+        return Boolean.FALSE;
+      case 'n':
+        expect("ull");
+        return null;
+      default:
+        if (first == '-' || (first >= '0' && first <= '9')) {
+          return readNumber(first);
+        }
+        throw UnsupportedSyntax.INSTANCE;
+    }
+  }
+
+  private Map<String, Object> readObject() throws IOException {
+    final Map<String, Object> map = this.dataType.getMapImplementation();
+    char c = nextClean();
+    if (c == '}') {
+      return map;
+    }
+
+    while (true) {
+      if (c != '"') {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      final String key = readString();
+      if (nextClean() != ':') {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      final Object value = readValue(nextClean());
+      // org.json rejects duplicate keys
+      if (map.containsKey(key)) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      map.put(key, value);
+
+      c = nextClean();
+      if (c == '}') {
+        return map;
+      }
+      if (c != ',') {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      c = nextClean();
+    }
+  }
+
+  private List<Object> readArray() throws IOException {
+    final List<Object> list = this.dataType.getListImplementation();
+    char c = nextClean();
+    if (c == ']') {
+      return list;
+    }
+
+    while (true) {
+      list.add(readValue(c));
+
+      c = nextClean();
+      if (c == ']') {
+        return list;
+      }
+      if (c != ',') {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      c = nextClean();
+    }
+  }
+
+  private String readString() throws IOException {
+    // Fast path: The string ends in our buffer and contains no escapes
+    for (int i = this.position; i < this.limit; i++) {
+      final char c = this.buffer[i];
+      if (c == '"') {
+        final String string = new String(this.buffer, this.position, i - this.position);
+        this.position = i + 1;
+        return string;
+      }
+      if (c == '\\' || c == '\n' || c == '\r') {
+        break;
+      }
+    }
+
+    this.stringBuilder.setLength(0);
+    while (true) {
+      final char c = next();
+      switch (c) {
+        case '"':
+          return this.stringBuilder.toString();
+        case '\n':
+        case '\r':
+          throw UnsupportedSyntax.INSTANCE;
+        case '\\':
+          this.stringBuilder.append(unescape(next()));
+          break;
+        default:
+          this.stringBuilder.append(c);
+          break;
+      }
+    }
+  }
+
+  private char unescape(final char c) throws IOException {
+    switch (c) {
+      case 'b':
+        return '\b';
+      case 't':
+        return '\t';
+      case 'n':
+        return '\n';
+      case 'f':
+        return '\f';
+      case 'r':
+        return '\r';
+      case 'u':
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+          final int digit = Character.digit(next(), 16);
+          if (digit == -1) {
+            throw UnsupportedSyntax.INSTANCE;
+          }
+          value = value << 4 | digit;
+        }
+        return (char) value;
+      case '"':
+      case '\'':
+      case '\\':
+      case '/':
+        return c;
+      default:
+        throw UnsupportedSyntax.INSTANCE;
+    }
+  }
+
+  private Object readNumber(final char first) throws IOException {
+    this.stringBuilder.setLength(0);
+    this.stringBuilder.append(first);
+    boolean plainInteger = true;
+    while (true) {
+      final char c = peek();
+      if (c >= '0' && c <= '9') {
+        this.stringBuilder.append(next());
+      } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+        plainInteger = false;
+        this.stringBuilder.append(next());
+      } else if (c == ',' || c == '}' || c == ']' || c <= ' ') {
+        break;
+      } else {
+        // org.json would read something like 12abc as String
+        throw UnsupportedSyntax.INSTANCE;
+      }
+    }
+
+    final int length = this.stringBuilder.length();
+    final int start = first == '-' ? 1 : 0;
+    // Fast path for ints. org.json treats "-0" as double & numbers with leading zeros as Strings
+    if (plainInteger
+        && length - start > 0
+        && length < 10
+        && (this.stringBuilder.charAt(start) != '0' || length == 1)) {
+      int value = 0;
+      for (int i = start; i < length; i++) {
+        value = value * 10 + (this.stringBuilder.charAt(i) - '0');
+      }
+      return first == '-' ? -value : value;
+    }
+
+    return JSONObject.stringToValue(this.stringBuilder.toString());
+  }
+
+  private void expect(final String rest) throws IOException {
+    for (int i = 0; i < rest.length(); i++) {
+      if (next() != rest.charAt(i)) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+    }
+    final char after = peek();
+    if (!(after == ',' || after == '}' || after == ']' || after <= ' ')) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Accessing our buffer
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * @return The next char without consuming it, 0 at the end of our data.
+   */
+  private char peek() throws IOException {
+    if (this.position == this.limit && !fill()) {
+      return 0;
+    }
+    return this.buffer[this.position];
+  }
+
+  private char next() throws IOException {
+    if (this.position == this.limit && !fill()) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+    return this.buffer[this.position++];
+  }
+
+  /**
+   * @return The next char which isn't whitespace.
+   */
+  private char nextClean() throws IOException {
+    while (true) {
+      final char c = next();
+      if (c > ' ') {
+        return c;
+      }
+    }
+  }
+
+  private boolean fill() throws IOException {
+    final int read = this.reader.read(this.buffer, 0, this.buffer.length);
+    if (read <= 0) {
+      return false;
+    }
+    this.position = 0;
+    this.limit = read;
+    return true;
+  }
+
+  /**
+   * Thrown internally if our data isn't strict JSON. Preallocated, as it only controls our flow.
+   */
+  private static final class UnsupportedSyntax extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+    private static final UnsupportedSyntax INSTANCE = new UnsupportedSyntax();
+
+    private UnsupportedSyntax() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,312 @@
+package de.leonhard.storage.internal.editor.json;
+
+import de.leonhard.storage.util.Valid;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.regex.Pattern;
+import lombok.NonNull;
+
+/**
+ * Streaming writer for JSON. Writes maps, collections & scalars directly into a buffer instead of
+ * building a {@link org.json.JSONObject} and rendering it to a String first.
+ *
+ * <p>Our output looks like the one of {@link org.json.JSONObject#toString(int)}: Objects & arrays
+ * with a single element are written on one line, Strings are escaped the same way. Other than
+ * org.json we keep the order of our maps. This is NOT Thread safe.
+ */
+public final class JsonWriter implements AutoCloseable {
+
+  private static final int BUFFER_SIZE = 8192;
+  // Numbers which don't match are written as Strings, like org.json does it
+  private static final Pattern NUMBER_PATTERN = Pattern.compile(
+      "-?(?:0|[1-9]\\d*)(?:\\.\\d+)?(?:[eE][+-]?\\d+)?");
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final Writer writer;
+  private final int indentFactor;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private int count;
+
+  /**
+   * @param writer       Writer to write our output to.
+   * @param indentFactor Amount of spaces each level is indented by. 0 to write everything in one
+   *                     line.
+   */
+  public JsonWriter(@NonNull final Writer writer, final int indentFactor) {
+    this.writer = writer;
+    this.indentFactor = indentFactor;
+  }
+
+  public void writeMap(@NonNull final Map<?, ?> map) throws IOException {
+    writeObject(map, 0);
+  }
+
+  /**
+   * Writes our buffer to the underlying writer & flushes it.
+   */
+  public void flush() throws IOException {
+    drain();
+    this.writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      drain();
+    } finally {
+      this.writer.close();
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Writing values
+  // ----------------------------------------------------------------------------------------------------
+
+  private void writeValue(final Object value, final int indent) throws IOException {
+    if (value == null) {
+      write("null");
+    } else if (value instanceof String) {
+      writeString((String) value);
+    } else if (value instanceof Integer
+               || value instanceof Long
+               || value instanceof Short
+               || value instanceof Byte
+               || value instanceof BigInteger) {
+      write(value.toString());
+    } else if (value instanceof Number) {
+      writeNumber((Number) value);
+    } else if (value instanceof Boolean) {
+      write(value.toString());
+    } else if (value instanceof Enum) {
+      writeString(((Enum<?>) value).name());
+    } else if (value instanceof Map) {
+      writeObject((Map<?, ?>) value, indent);
+    } else if (value instanceof Collection) {
+      writeArray(((Collection<?>) value).iterator(), ((Collection<?>) value).size(), indent);
+    } else if (value.getClass().isArray()) {
+      writeArray(value, indent);
+    } else {
+      writeString(value.toString());
+    }
+  }
+
+  private void writeObject(final Map<?, ?> map, final int indent) throws IOException {
+    // org.json drops keys mapped to null
+    int size = 0;
+    for (final Object value : map.values()) {
+      if (value != null) {
+        size++;
+      }
+    }
+
+    write('{');
+    if (size == 1) {
+      for (final Map.Entry<?, ?> entry : map.entrySet()) {
+        if (entry.getValue() != null) {
+          writeKey(entry.getKey());
+          writeValue(entry.getValue(), indent);
+        }
+      }
+    } else if (size != 0) {
+      final int newIndent = indent + this.indentFactor;
+      boolean needsComma = false;
+      for (final Map.Entry<?, ?> entry : map.entrySet()) {
+        if (entry.getValue() == null) {
+          continue;
+        }
+        if (needsComma) {
+          write(',');
+        }
+        newLine(newIndent);
+        writeKey(entry.getKey());
+        writeValue(entry.getValue(), newIndent);
+        needsComma = true;
+      }
+      newLine(indent);
+    }
+    write('}');
+  }
+
+  private void writeKey(final Object key) throws IOException {
+    writeString(String.valueOf(key));
+    write(':');
+    if (this.indentFactor > 0) {
+      write(' ');
+    }
+  }
+
+  private void writeArray(final Iterator<?> iterator, final int size, final int indent)
+      throws IOException {
+    write('[');
+    if (size == 1) {
+      writeValue(iterator.next(), indent);
+    } else if (size != 0) {
+      final int newIndent = indent + this.indentFactor;
+      boolean needsComma = false;
+      while (iterator.hasNext()) {
+        if (needsComma) {
+          write(',');
+        }
+        newLine(newIndent);
+        writeValue(iterator.next(), newIndent);
+        needsComma = true;
+      }
+      newLine(indent);
+    }
+    write(']');
+  }
+
+  private void writeArray(final Object array, final int indent) throws IOException {
+    final int length = Array.getLength(array);
+    writeArray(new Iterator<Object>() {
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return this.index < length;
+      }
+
+      @Override
+      public Object next() {
+        return Array.get(array, this.index++);
+      }
+    }, length, indent);
+  }
+
+  private void writeNumber(final Number number) throws IOException {
+    if (number instanceof Double || number instanceof Float) {
+      final double value = number.doubleValue();
+      Valid.checkBoolean(
+          !Double.isNaN(value) && !Double.isInfinite(value),
+          "JSON does not allow non-finite numbers: " + number);
+    }
+
+    String string = number.toString();
+    // Removes trailing zeros of decimals like org.json does it
+    if (string.indexOf('.') > 0 && string.indexOf('e') < 0 && string.indexOf('E') < 0) {
+      int end = string.length();
+      while (string.charAt(end - 1) == '0') {
+        end--;
+      }
+      if (string.charAt(end - 1) == '.') {
+        end--;
+      }
+      string = string.substring(0, end);
+    }
+
+    if (NUMBER_PATTERN.matcher(string).matches()) {
+      write(string);
+    } else {
+      writeString(string);
+    }
+  }
+
+  /**
+   * Writes a quoted String, escaped like org.json does it. Runs of chars which don't need to be
+   * escaped are copied at once.
+   */
+  private void writeString(final String string) throws IOException {
+    write('"');
+    int start = 0;
+    char previous;
+    char c = 0;
+    for (int i = 0; i < string.length(); i++) {
+      previous = c;
+      c = string.charAt(i);
+      if (c >= ' ' && c < '\u0080' && c != '"' && c != '\\' && c != '/') {
+        continue;
+      }
+      // "</" is escaped, so our output can be embedded in HTML
+      if (c == '/'
+          ? previous != '<'
+          : c >= '\u00a0' && (c < '\u2000' || c >= '\u2100')) {
+        continue;
+      }
+
+      append(string, start, i);
+      start = i + 1;
+      switch (c) {
+        case '"':
+        case '\\':
+          write('\\');
+          write(c);
+          break;
+        case '/':
+          write("\\/");
+          break;
+        case '\b':
+          write("\\b");
+          break;
+        case '\t':
+          write("\\t");
+          break;
+        case '\n':
+          write("\\n");
+          break;
+        case '\f':
+          write("\\f");
+          break;
+        case '\r':
+          write("\\r");
+          break;
+        default:
+          write("\\u");
+          write(HEX[c >> 12 & 0xF]);
+          write(HEX[c >> 8 & 0xF]);
+          write(HEX[c >> 4 & 0xF]);
+          write(HEX[c & 0xF]);
+          break;
+      }
+    }
+    append(string, start, string.length());
+    write('"');
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Accessing our buffer
+  // ----------------------------------------------------------------------------------------------------
+
+  private void newLine(final int indent) throws IOException {
+    if (this.indentFactor > 0) {
+      write('\n');
+    }
+    for (int i = 0; i < indent; i++) {
+      write(' ');
+    }
+  }
+
+  private void write(final char c) throws IOException {
+    if (this.count == this.buffer.length) {
+      drain();
+    }
+    this.buffer[this.count++] = c;
+  }
+
+  private void write(final String string) throws IOException {
+    append(string, 0, string.length());
+  }
+
+  private void append(final String string, int start, final int end) throws IOException {
+    while (start < end) {
+      if (this.count == this.buffer.length) {
+        drain();
+      }
+      final int length = Math.min(end - start, this.buffer.length - this.count);
+      string.getChars(start, start + length, this.buffer, this.count);
+      this.count += length;
+      start += length;
+    }
+  }
+
+  private void drain() throws IOException {
+    if (this.count > 0) {
+      this.writer.write(this.buffer, 0, this.count);
+      this.count = 0;
+    }
+  }
+}
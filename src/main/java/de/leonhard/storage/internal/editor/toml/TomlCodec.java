@@ -0,0 +1,29 @@
+package de.leonhard.storage.internal.editor.toml;
+
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.provider.FormatCodec;
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Built-in codec for TOML, using {@link TomlManager}.
+ */
+public final class TomlCodec extends FormatCodec {
+
+  @Override
+  public FileType getFileType() {
+    return FileType.TOML;
+  }
+
+  @Override
+  public Map<String, Object> read(final File file, final DataType dataType) throws IOException {
+    return TomlManager.read(file, dataType);
+  }
+
+  @Override
+  public void write(final Map<String, Object> data, final File file) throws IOException {
+    TomlManager.write(data, file);
+  }
+}
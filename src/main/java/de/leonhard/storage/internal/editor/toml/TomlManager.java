@@ -1,7 +1,10 @@
 package de.leonhard.storage.internal.editor.toml;
 
 import de.leonhard.storage.internal.exceptions.TomlException;
+import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.util.ChannelReader;
 import de.leonhard.storage.util.FastStringWriter;
+import de.leonhard.storage.util.FileUtils;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
@@ -54,8 +57,9 @@ public class TomlManager {
    * @throws IOException if an error occurs
    */
   public void write(final Map<String, Object> data, final File file) throws IOException {
-    final FileOutputStream out = new FileOutputStream(file);
-    write(data, out);
+    // Our TomlWriter buffers the chars, the encoder writes them to the file in large chunks
+    final Writer writer = FileUtils.createChannelWriter(file);
+    write(data, writer);
   }
 
   /**
@@ -82,8 +86,11 @@ public class TomlManager {
    */
   public void write(final Map<String, Object> data, final Writer writer) throws IOException {
     final TomlWriter tw = new TomlWriter(writer);
-    tw.write(data);
-    tw.close();
+    try {
+      tw.write(data);
+    } finally {
+      tw.close();
+    }
   }
 
   /**
@@ -104,8 +111,11 @@ public class TomlManager {
       final boolean indentWithSpaces)
       throws IOException {
     final TomlWriter tw = new TomlWriter(writer, indentSize, indentWithSpaces);
-    tw.write(data);
-    tw.close();
+    try {
+      tw.write(data);
+    } finally {
+      tw.close();
+    }
   }
 
   /**
@@ -159,7 +169,26 @@ public class TomlManager {
    */
   public Map<String, Object> read(final File file, final boolean strictAsciiBareKeys)
       throws IOException, TomlException {
-    return read(new FileInputStream(file), strictAsciiBareKeys);
+    try (final Reader reader = new ChannelReader(file)) {
+      return read(reader, 0, strictAsciiBareKeys, DataType.UNSORTED);
+    }
+  }
+
+  /**
+   * Reads TOML data from an UTF-8 encoded File. Lenient bare keys are allowed (see {@link
+   * TomlManager}).
+   *
+   * @param file     the File to read data from
+   * @param dataType the DataType providing the implementations of the tables and arrays.
+   * @return a {@code Map<String, Object>} containing the parsed data
+   * @throws IOException   if a read error occurs
+   * @throws TomlException if a parse error occurs
+   */
+  public Map<String, Object> read(final File file, final DataType dataType)
+      throws IOException, TomlException {
+    try (final Reader reader = new ChannelReader(file)) {
+      return read(reader, 0, false, dataType);
+    }
   }
 
   /**
@@ -194,8 +223,8 @@ public class TomlManager {
   /**
    * Reads TOML data from a Reader. The data is read until the end of the stream is reached.
    *
-   * @param bufferSize          the initial size of the internal buffer that will contain the entire
-   *                            data.
+   * @param bufferSize          unused, the data is read in chunks instead of being buffered as a
+   *                            whole.
    * @param strictAsciiBareKeys <code>true</code> to enforce strict bare keys (see {@link
    *                            TomlManager}).
    * @return a {@code Map<String, Object>} containing the parsed data
@@ -205,13 +234,32 @@ public class TomlManager {
   public Map<String, Object> read(
       final Reader reader, final int bufferSize, final boolean strictAsciiBareKeys)
       throws IOException, TomlException {
-    final StringBuilder sb = new StringBuilder(bufferSize);
-    final char[] buf = new char[8192];
-    int read;
-    while ((read = reader.read(buf)) != -1) {
-      sb.append(buf, 0, read);
+    return read(reader, bufferSize, strictAsciiBareKeys, DataType.UNSORTED);
+  }
+
+  /**
+   * Reads TOML data from a Reader. The data is read until the end of the stream is reached.
+   *
+   * @param bufferSize          unused, the data is read in chunks instead of being buffered as a
+   *                            whole.
+   * @param strictAsciiBareKeys <code>true</code> to enforce strict bare keys (see {@link
+   *                            TomlManager}).
+   * @param dataType            the DataType providing the implementations of the tables and
+   *                            arrays.
+   * @return a {@code Map<String, Object>} containing the parsed data
+   * @throws IOException   if a read error occurs
+   * @throws TomlException if a parse error occurs
+   */
+  public Map<String, Object> read(
+      final Reader reader,
+      final int bufferSize,
+      final boolean strictAsciiBareKeys,
+      final DataType dataType)
+      throws IOException, TomlException {
+    try {
+      return new TomlReader(reader, strictAsciiBareKeys, dataType).read();
+    } catch (final UncheckedIOException ex) {
+      throw ex.getCause();
     }
-    final TomlReader tr = new TomlReader(sb.toString(), strictAsciiBareKeys);
-    return tr.read();
   }
 }
@@ -1,8 +1,16 @@
 package de.leonhard.storage.internal.editor.toml;
 
 import de.leonhard.storage.internal.exceptions.TomlException;
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.*;
 
@@ -38,11 +46,30 @@ import java.util.*;
 @SuppressWarnings("unchecked")
 public final class TomlReader {
 
-  private final String data;
+  // Initial size of our window, it only grows for a single token which is bigger
+  private static final int WINDOW_SIZE = 8192;
+
+  // Exact powers of ten used by our fast path for doubles
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  private final Reader reader;
   private final boolean strictAsciiBareKeys;
+  private final DataType dataType;
   private int pos = 0; // current position
   private int line = 1; // current line
 
+  // Sliding window over our data: Contains the chars from windowStart (inclusive) to windowEnd
+  // (exclusive). Only the chars from pos - 1 on are kept when the window is refilled.
+  private char[] window = new char[WINDOW_SIZE];
+  private int windowStart = 0;
+  private int windowEnd = 0;
+  private boolean endOfData;
+
+  // Chars of the number or date we are scanning without underscores, reused for every value
+  private char[] token = new char[32];
+
   /**
    * Creates a new TomlReader.
    *
@@ -52,16 +79,128 @@ public final class TomlReader {
    *                            ones.
    */
   public TomlReader(final String data, final boolean strictAsciiBareKeys) {
-    this.data = data;
+    this(data, strictAsciiBareKeys, DataType.UNSORTED);
+  }
+
+  /**
+   * Creates a new TomlReader.
+   *
+   * @param data                the TOML data to read
+   * @param strictAsciiBareKeys <code>true</false> to allow only strict bare keys,
+   *                            <code>false</code> to allow lenient
+   *                            ones.
+   * @param dataType            the DataType providing the implementations of the tables and
+   *                            arrays we create.
+   */
+  public TomlReader(
+      final String data,
+      final boolean strictAsciiBareKeys,
+      final DataType dataType) {
+    this(new StringReader(data), strictAsciiBareKeys, dataType);
+  }
+
+  /**
+   * Creates a new TomlReader reading its data in chunks from a Reader, so the text is never held
+   * in memory as a whole. The Reader isn't closed by us.
+   *
+   * @param reader              the Reader to read the TOML data from
+   * @param strictAsciiBareKeys <code>true</false> to allow only strict bare keys,
+   *                            <code>false</code> to allow lenient
+   *                            ones.
+   * @param dataType            the DataType providing the implementations of the tables and
+   *                            arrays we create.
+   */
+  public TomlReader(
+      final Reader reader,
+      final boolean strictAsciiBareKeys,
+      final DataType dataType) {
+    this.reader = reader;
     this.strictAsciiBareKeys = strictAsciiBareKeys;
+    this.dataType = dataType;
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Accessing our window
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * Reads from our Reader until the char before the given position is in our window or the end of
+   * our data is reached.
+   *
+   * @return true if the chars up to the given position (exclusive) are available.
+   */
+  private boolean fill(final int end) {
+    while (end > windowEnd && !endOfData) {
+      // We never step back more than one char
+      final int keep = Math.max(windowStart, pos - 1);
+      final int length = windowEnd - keep;
+      if (keep > windowStart) {
+        System.arraycopy(window, keep - windowStart, window, 0, length);
+        windowStart = keep;
+      }
+      if (length == window.length) {
+        window = Arrays.copyOf(window, window.length * 2);
+      }
+
+      final int read;
+      try {
+        read = reader.read(window, length, window.length - length);
+      } catch (final IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+      if (read == -1) {
+        endOfData = true;
+      } else {
+        windowEnd += read;
+      }
+    }
+    return end <= windowEnd;
+  }
+
+  /**
+   * @return true if there are at least count chars left, starting at the current position.
+   */
+  private boolean available(final int count) {
+    return pos + count <= windowEnd || fill(pos + count);
+  }
+
+  private char charAt(final int index) {
+    if (index >= windowEnd && !fill(index + 1)) {
+      throw new TomlException("Unexpected end of data at line " + line);
+    }
+    return window[index - windowStart];
+  }
+
+  private String substring(final int start, final int end) {
+    return new String(window, start - windowStart, end - start);
+  }
+
+  private int indexOf(final char c, final int from) {
+    for (int i = from; i < windowEnd || fill(i + 1); i++) {
+      if (window[i - windowStart] == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int indexOfTripleQuote(final int from) {
+    for (int i = from; i + 2 < windowEnd || fill(i + 3); i++) {
+      if (window[i - windowStart] == '\''
+          && window[i + 1 - windowStart] == '\''
+          && window[i + 2 - windowStart] == '\'') {
+        return i;
+      }
+    }
+    return -1;
   }
 
   private boolean hasNext() {
-    return pos < data.length();
+    return pos < windowEnd || fill(pos + 1);
   }
 
   private char next() {
-    return data.charAt(pos++);
+    return charAt(pos++);
   }
 
   private char nextUseful(final boolean skipComments) {
@@ -70,9 +209,9 @@ public final class TomlReader {
            && (c == ' ' || c == '\t' || c == '\r' || c == '\n' || (c == '#' && skipComments))) {
       c = next();
       if (skipComments && c == '#') {
-        final int nextLinebreak = data.indexOf('\n', pos);
+        final int nextLinebreak = indexOf('\n', pos);
         if (nextLinebreak == -1) {
-          pos = data.length();
+          pos = windowEnd;
         } else {
           pos = nextLinebreak + 1;
           line++;
@@ -115,9 +254,9 @@ public final class TomlReader {
       case '9':
         return nextNumberOrDate(firstChar);
       case '"':
-        if (pos + 1 < data.length()) {
-          final char c2 = data.charAt(pos);
-          final char c3 = data.charAt(pos + 1);
+        if (available(2)) {
+          final char c2 = charAt(pos);
+          final char c3 = charAt(pos + 1);
           if (c2 == '"' && c3 == '"') {
             pos += 2;
             return nextBasicMultilineString();
@@ -125,9 +264,9 @@ public final class TomlReader {
         }
         return nextBasicString();
       case '\'':
-        if (pos + 1 < data.length()) {
-          final char c2 = data.charAt(pos);
-          final char c3 = data.charAt(pos + 1);
+        if (available(2)) {
+          final char c2 = charAt(pos);
+          final char c3 = charAt(pos + 1);
           if (c2 == '\'' && c3 == '\'') {
             pos += 2;
             return nextLiteralMultilineString();
@@ -139,12 +278,12 @@ public final class TomlReader {
       case '{':
         return nextInlineTable();
       case 't': // Must be "true"
-        if (pos + 3 > data.length() || next() != 'r' || next() != 'u' || next() != 'e') {
+        if (!available(3) || next() != 'r' || next() != 'u' || next() != 'e') {
           throw new TomlException("Invalid value at line " + line);
         }
         return true;
       case 'f': // Must be "false"
-        if (pos + 4 > data.length()
+        if (!available(4)
             || next() != 'a'
             || next() != 'l'
             || next() != 's'
@@ -157,10 +296,17 @@ public final class TomlReader {
     }
   }
 
+  /**
+   * Reads our data.
+   *
+   * @return a {@code Map<String, Object>} containing the parsed data
+   * @throws TomlException        if a parse error occurs
+   * @throws UncheckedIOException if our Reader throws an IOException
+   */
   public Map<String, Object> read() {
     final Map<String, Object> map = nextTableContent();
 
-    if (!hasNext() && pos > 0 && data.charAt(pos - 1) == '[') {
+    if (!hasNext() && pos > 0 && charAt(pos - 1) == '[') {
       throw new TomlException("Invalid table declaration at line " + line + ": it never ends");
     }
 
@@ -187,9 +333,9 @@ public final class TomlReader {
         final char nameFirstChar = nextUseful(false);
         switch (nameFirstChar) {
           case '"': {
-            if (pos + 1 < data.length()) {
-              final char c2 = data.charAt(pos);
-              final char c3 = data.charAt(pos + 1);
+            if (available(2)) {
+              final char c2 = charAt(pos);
+              final char c3 = charAt(pos + 1);
               if (c2 == '"' && c3 == '"') {
                 pos += 2;
                 name = nextBasicMultilineString();
@@ -201,9 +347,9 @@ public final class TomlReader {
             break;
           }
           case '\'': {
-            if (pos + 1 < data.length()) {
-              final char c2 = data.charAt(pos);
-              final char c3 = data.charAt(pos + 1);
+            if (available(2)) {
+              final char c2 = charAt(pos);
+              final char c3 = charAt(pos + 1);
               if (c2 == '\'' && c3 == '\'') {
                 pos += 2;
                 name = nextLiteralMultilineString();
@@ -217,7 +363,7 @@ public final class TomlReader {
           default:
             pos--; // to include the first (already read) non-space character
             name = nextBareKey(']', '.').trim();
-            if (data.charAt(pos) == ']') {
+            if (charAt(pos) == ']') {
               if (!name.isEmpty()) {
                 keyParts.add(name);
               }
@@ -253,7 +399,7 @@ public final class TomlReader {
         final Object child = valueMap.get(part);
         final Map<String, Object> childMap;
         if (child == null) { // implicit table
-          childMap = new HashMap<>(4);
+          childMap = dataType.getMapImplementation();
           valueMap.put(part, childMap);
         } else if (child instanceof Map) { // table
           childMap = (Map) child;
@@ -267,7 +413,7 @@ public final class TomlReader {
         final String name = keyParts.get(keyParts.size() - 1);
         Collection<Map> tableArray = (Collection) valueMap.get(name);
         if (tableArray == null) {
-          tableArray = new ArrayList<>(2);
+          tableArray = (Collection) dataType.getListImplementation();
           valueMap.put(name, tableArray);
         }
         tableArray.add(value);
@@ -279,7 +425,7 @@ public final class TomlReader {
   }
 
   private List nextArray() {
-    final ArrayList<Object> list = new ArrayList<>();
+    final List<Object> list = dataType.getListImplementation();
     while (true) {
       final char c = nextUseful(true);
       if (c == ']') {
@@ -304,12 +450,11 @@ public final class TomlReader {
       }
     }
     pos--;
-    list.trimToSize();
     return list;
   }
 
   private Map<String, Object> nextInlineTable() {
-    final Map<String, Object> map = new HashMap<>();
+    final Map<String, Object> map = dataType.getMapImplementation();
     while (true) {
       final char nameFirstChar = nextUsefulOrLinebreak();
       String name = null;
@@ -317,9 +462,9 @@ public final class TomlReader {
         case '}':
           return map;
         case '"': {
-          if (pos + 1 < data.length()) {
-            final char c2 = data.charAt(pos);
-            final char c3 = data.charAt(pos + 1);
+          if (available(2)) {
+            final char c2 = charAt(pos);
+            final char c3 = charAt(pos + 1);
             if (c2 == '"' && c3 == '"') {
               pos += 2;
               name = nextBasicMultilineString();
@@ -331,9 +476,9 @@ public final class TomlReader {
           break;
         }
         case '\'': {
-          if (pos + 1 < data.length()) {
-            final char c2 = data.charAt(pos);
-            final char c3 = data.charAt(pos + 1);
+          if (available(2)) {
+            final char c2 = charAt(pos);
+            final char c3 = charAt(pos + 1);
             if (c2 == '\'' && c3 == '\'') {
               pos += 2;
               name = nextLiteralMultilineString();
@@ -373,7 +518,7 @@ public final class TomlReader {
   }
 
   private Map<String, Object> nextTableContent() {
-    final Map<String, Object> map = new HashMap<>();
+    final Map<String, Object> map = dataType.getMapImplementation();
     while (true) {
       final char nameFirstChar = nextUseful(true);
       if (!hasNext() || nameFirstChar == '[') {
@@ -382,9 +527,9 @@ public final class TomlReader {
       String name = null;
       switch (nameFirstChar) {
         case '"': {
-          if (pos + 1 < data.length()) {
-            final char c2 = data.charAt(pos);
-            final char c3 = data.charAt(pos + 1);
+          if (available(2)) {
+            final char c2 = charAt(pos);
+            final char c3 = charAt(pos + 1);
             if (c2 == '"' && c3 == '"') {
               pos += 2;
               name = nextBasicMultilineString();
@@ -396,9 +541,9 @@ public final class TomlReader {
           break;
         }
         case '\'': {
-          if (pos + 1 < data.length()) {
-            final char c2 = data.charAt(pos);
-            final char c3 = data.charAt(pos + 1);
+          if (available(2)) {
+            final char c2 = charAt(pos);
+            final char c3 = charAt(pos + 1);
             if (c2 == '\'' && c3 == '\'') {
               pos += 2;
               name = nextLiteralMultilineString();
@@ -447,8 +592,21 @@ public final class TomlReader {
 
   private Object nextNumberOrDate(final char first) {
     boolean maybeDouble = true, maybeInteger = true, maybeDate = true;
-    final StringBuilder sb = new StringBuilder();
-    sb.append(first);
+    // Integers are accumulated negatively while scanning, like Long.parseLong does it
+    final boolean negative = first == '-';
+    final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    final long multiplyLimit = limit / 10;
+    long integer = 0;
+    int integerDigits = 0;
+    boolean validInteger = true;
+
+    int length = 0;
+    if (isDigit(first)) {
+      integer = '0' - first;
+      integerDigits++;
+    }
+    token[length++] = first;
+
     char c;
     whileLoop:
     while (hasNext()) {
@@ -467,7 +625,9 @@ public final class TomlReader {
           maybeInteger = false;
           break;
         case '-':
-          if (pos != 0 && data.charAt(pos - 1) != 'e' && data.charAt(pos - 1) != 'E') {
+        case '+':
+          // Only allowed as sign of the exponent of a double
+          if (token[length - 1] != 'e' && token[length - 1] != 'E') {
             maybeInteger = maybeDouble = false;
           }
           break;
@@ -480,47 +640,222 @@ public final class TomlReader {
         case '}':
           pos--;
           break whileLoop;
+        default:
+          if (isDigit(c)) {
+            final int digit = c - '0';
+            if (integer < multiplyLimit || integer * 10 < limit + digit) {
+              validInteger = false; // Overflow
+            } else {
+              integer = integer * 10 - digit;
+              integerDigits++;
+            }
+          } else if (c != '_') {
+            validInteger = false;
+          }
+          break;
       }
       if (c == '_') {
         maybeDate = false;
-      } else {
-        sb.append(c);
+        continue;
+      }
+      if (length == token.length) {
+        token = Arrays.copyOf(token, length * 2);
       }
+      token[length++] = c;
     }
-    final String valueStr = sb.toString();
+
     try {
       if (maybeInteger) {
-        if (valueStr.length() < 10) {
-          return Integer.parseInt(valueStr);
+        if (!validInteger || integerDigits == 0) {
+          throw new NumberFormatException("For input string: \"" + tokenToString(length) + "\"");
+        }
+        final long value = negative ? integer : -integer;
+        if (length < 10) {
+          return (int) value;
         }
-        return Long.parseLong(valueStr);
+        return value;
       }
 
       if (maybeDouble) {
-        return Double.parseDouble(valueStr);
+        return parseDouble(length);
       }
 
       if (maybeDate) {
-        return TomlManager.DATE_FORMATTER.parseBest(
-            valueStr, ZonedDateTime::from, LocalDateTime::from, LocalDate::from);
+        return parseDate(length);
       }
 
     } catch (final Exception ex) {
       throw new TomlException(
           ex,
-          "Invalid value: \"" + valueStr + "\" at line " + line);
+          "Invalid value: \"" + tokenToString(length) + "\" at line " + line);
     }
 
-    throw new TomlException("Invalid value: \"" + valueStr + "\" at line " + line);
+    throw new TomlException("Invalid value: \"" + tokenToString(length) + "\" at line " + line);
+  }
+
+  /**
+   * Parses the double in our token. Decimals with up to 15 significant digits and a small exponent
+   * are computed exactly by a single multiplication or division, as both operands are exact
+   * doubles. Everything else is left to {@link Double#parseDouble(String)}.
+   */
+  private double parseDouble(final int length) {
+    int i = 0;
+    final boolean negative = token[0] == '-';
+    if (negative || token[0] == '+') {
+      i++;
+    }
+
+    long mantissa = 0;
+    int significantDigits = 0;
+    int exponent = 0;
+    boolean anyDigit = false;
+    boolean fraction = false;
+    for (; i < length; i++) {
+      final char c = token[i];
+      if (c == '.' && !fraction) {
+        fraction = true;
+        continue;
+      }
+      if (!isDigit(c)) {
+        break;
+      }
+      anyDigit = true;
+      if (mantissa != 0 || c != '0') {
+        if (++significantDigits > 15) {
+          return Double.parseDouble(tokenToString(length));
+        }
+        mantissa = mantissa * 10 + (c - '0');
+      }
+      if (fraction) {
+        exponent--;
+      }
+    }
+
+    if (i < length && (token[i] == 'e' || token[i] == 'E')) {
+      i++;
+      final boolean negativeExponent = i < length && token[i] == '-';
+      if (i < length && (token[i] == '-' || token[i] == '+')) {
+        i++;
+      }
+      final int start = i;
+      int explicitExponent = 0;
+      for (; i < length && isDigit(token[i]) && explicitExponent < 1000; i++) {
+        explicitExponent = explicitExponent * 10 + (token[i] - '0');
+      }
+      if (i == start) {
+        return Double.parseDouble(tokenToString(length));
+      }
+      exponent += negativeExponent ? -explicitExponent : explicitExponent;
+    }
+
+    if (!anyDigit || i != length || exponent < -22 || exponent > 22) {
+      return Double.parseDouble(tokenToString(length));
+    }
+
+    final double value = exponent < 0
+        ? mantissa / POWERS_OF_TEN[-exponent]
+        : mantissa * POWERS_OF_TEN[exponent];
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses the date in our token. RFC 3339 dates (yyyy-MM-dd[THH:mm:ss[.fraction][offset]]) are
+   * parsed by hand, everything else like dates without seconds is left to {@link
+   * TomlManager#DATE_FORMATTER}.
+   */
+  private Object parseDate(final int length) {
+    if (length >= 10 && token[4] == '-' && token[7] == '-') {
+      final int year = parseDigits(0, 4);
+      final int month = parseDigits(5, 2);
+      final int day = parseDigits(8, 2);
+
+      try {
+        if (length == 10 && year != -1 && month != -1 && day != -1) {
+          return LocalDate.of(year, month, day);
+        }
+
+        if (length >= 19 && token[10] == 'T' && token[13] == ':' && token[16] == ':') {
+          final int hour = parseDigits(11, 2);
+          final int minute = parseDigits(14, 2);
+          final int second = parseDigits(17, 2);
+          int nano = 0;
+          int i = 19;
+          if (i < length && token[i] == '.') {
+            final int start = ++i;
+            while (i < length && i - start < 9 && isDigit(token[i])) {
+              nano = nano * 10 + (token[i++] - '0');
+            }
+            for (int digits = i - start; digits < 9; digits++) {
+              nano *= 10;
+            }
+            if (i == start) {
+              nano = -1;
+            }
+          }
+
+          if (year != -1 && month != -1 && day != -1
+              && hour != -1 && minute != -1 && second != -1 && nano != -1) {
+            final LocalDateTime dateTime = LocalDateTime.of(
+                year, month, day, hour, minute, second, nano);
+            if (i == length) {
+              return dateTime;
+            }
+            if (token[i] == 'Z' && i + 1 == length) {
+              return ZonedDateTime.of(dateTime, ZoneOffset.UTC);
+            }
+            if ((token[i] == '+' || token[i] == '-') && i + 6 == length && token[i + 3] == ':') {
+              final int offsetHours = parseDigits(i + 1, 2);
+              final int offsetMinutes = parseDigits(i + 4, 2);
+              if (offsetHours != -1 && offsetMinutes != -1) {
+                final int sign = token[i] == '-' ? -1 : 1;
+                return ZonedDateTime.of(
+                    dateTime,
+                    ZoneOffset.ofHoursMinutes(sign * offsetHours, sign * offsetMinutes));
+              }
+            }
+          }
+        }
+      } catch (final DateTimeException ignored) {
+        // Our formatter resolves some values out of range, for example the 30th of February
+      }
+    }
+
+    return TomlManager.DATE_FORMATTER.parseBest(
+        CharBuffer.wrap(token, 0, length),
+        ZonedDateTime::from,
+        LocalDateTime::from,
+        LocalDate::from);
+  }
+
+  /**
+   * @return the value of count digits of our token, starting at start. -1 if these aren't digits.
+   */
+  private int parseDigits(final int start, final int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      if (!isDigit(token[i])) {
+        return -1;
+      }
+      value = value * 10 + (token[i] - '0');
+    }
+    return value;
+  }
+
+  private String tokenToString(final int length) {
+    return new String(token, 0, length);
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
   }
 
   private String nextBareKey(final char... allowedEnds) {
     final String keyName;
-    for (int i = pos; i < data.length(); i++) {
-      final char c = data.charAt(i);
+    for (int i = pos; i < windowEnd || fill(i + 1); i++) {
+      final char c = charAt(i);
       for (final char allowedEnd : allowedEnds) {
         if (c == allowedEnd) { // checks if this character allowed to end this bare key
-          keyName = data.substring(pos, i);
+          keyName = substring(pos, i);
           pos = i;
           return keyName;
         }
@@ -548,12 +883,12 @@ public final class TomlReader {
   }
 
   private String nextLiteralString() {
-    final int index = data.indexOf('\'', pos);
+    final int index = indexOf('\'', pos);
     if (index == -1) {
       throw new TomlException("Invalid literal String at line " + line + ": it never ends");
     }
 
-    final String str = data.substring(pos, index);
+    final String str = substring(pos, index);
     if (str.indexOf('\n') != -1) {
       throw new TomlException(
           "Invalid literal String at line " + line + ": newlines are not allowed here");
@@ -564,21 +899,21 @@ public final class TomlReader {
   }
 
   private String nextLiteralMultilineString() {
-    final int index = data.indexOf("'''", pos);
+    final int index = indexOfTripleQuote(pos);
     if (index == -1) {
       throw new TomlException(
           "Invalid multiline literal String at line " + line + ": it never ends");
     }
     final String str;
-    if (data.charAt(pos) == '\r'
-        && data.charAt(pos + 1) == '\n') { // "\r\n" at the beginning of the string
-      str = data.substring(pos + 2, index);
+    if (charAt(pos) == '\r'
+        && charAt(pos + 1) == '\n') { // "\r\n" at the beginning of the string
+      str = substring(pos + 2, index);
       line++;
-    } else if (data.charAt(pos) == '\n') { // '\n' at the beginning of the string
-      str = data.substring(pos + 1, index);
+    } else if (charAt(pos) == '\n') { // '\n' at the beginning of the string
+      str = substring(pos + 1, index);
       line++;
     } else {
-      str = data.substring(pos, index);
+      str = substring(pos, index);
     }
     for (int i = 0; i < str.length(); i++) { // count lines
       final char c = str.charAt(i);
@@ -618,7 +953,7 @@ public final class TomlReader {
     while (hasNext()) {
       final char c = next();
       if (first && (c == '\r' || c == '\n')) {
-        if (c == '\r' && hasNext() && data.charAt(pos) == '\n') // "\r\n"
+        if (c == '\r' && hasNext() && charAt(pos) == '\n') // "\r\n"
         {
           pos++; // so that it is NOT read by the next call to next()
         } else {
@@ -629,7 +964,7 @@ public final class TomlReader {
       }
       if (escape) {
         if (c == '\r' || c == '\n' || c == ' ' || c == '\t') {
-          if (c == '\r' && hasNext() && data.charAt(pos) == '\n') // "\r\n"
+          if (c == '\r' && hasNext() && charAt(pos) == '\n') // "\r\n"
           {
             pos++;
           } else if (c == '\n') {
@@ -644,10 +979,10 @@ public final class TomlReader {
       } else if (c == '\\') {
         escape = true;
       } else if (c == '"') {
-        if (pos + 1 >= data.length()) {
+        if (!available(2)) {
           break;
         }
-        if (data.charAt(pos) == '"' && data.charAt(pos + 1) == '"') {
+        if (charAt(pos) == '"' && charAt(pos + 1) == '"') {
           pos += 2;
           return sb.toString();
         }
@@ -678,10 +1013,10 @@ public final class TomlReader {
       case '\\':
         return '\\';
       case 'u': { // unicode uXXXX
-        if (data.length() - pos < 5) {
+        if (!available(5)) {
           throw new TomlException("Invalid unicode code point at line " + line);
         }
-        final String unicode = data.substring(pos, pos + 4);
+        final String unicode = substring(pos, pos + 4);
         pos += 4;
         try {
           final int hexVal = Integer.parseInt(unicode, 16);
@@ -693,10 +1028,10 @@ public final class TomlReader {
         }
       }
       case 'U': { // unicode UXXXXXXXX
-        if (data.length() - pos < 9) {
+        if (!available(9)) {
           throw new TomlException("Invalid unicode code point at line " + line);
         }
-        final String unicode = data.substring(pos, pos + 8);
+        final String unicode = substring(pos, pos + 8);
         pos += 8;
         try {
           final int hexVal = Integer.parseInt(unicode, 16);
@@ -7,10 +7,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.temporal.TemporalAccessor;
+import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class for writing TOML v0.4.0.
@@ -26,16 +28,28 @@ import java.util.Map;
  * <p>The {@link TomlWriter} always outputs data that strictly follows the TOML specification. Any
  * key that contains one or more non-strictly valid character is surrounded by quotes.
  *
+ * <p>Our output is collected in a pooled buffer and only handed to the underlying writer in
+ * chunks, call {@link #flush()} or {@link #close()} once done.
+ *
  * @author TheElectronWill
  */
 @SuppressWarnings("unchecked")
 public final class TomlWriter {
 
+  private static final int BUFFER_SIZE = 8192;
+  private static final int MAX_POOLED_BUFFERS = 16;
+
+  private static final Queue<char[]> bufferPool = new ConcurrentLinkedQueue<>();
+  private static final AtomicInteger pooledBuffers = new AtomicInteger();
+
   private final Writer writer;
   private final int indentSize;
   private final char indentCharacter;
   private final String lineSeparator;
-  private final LinkedList<String> tablesNames = new LinkedList<>();
+  // Names of the tables we are in, already joined & escaped. The last one is the current table
+  private final ArrayDeque<String> tableNames = new ArrayDeque<>();
+  private char[] buffer = acquireBuffer();
+  private int count;
   private int lineBreaks = 0;
   private int indentationLevel = -1; // -1 to prevent indenting the first level
 
@@ -82,32 +96,30 @@ public final class TomlWriter {
     this.lineSeparator = lineSeparator;
   }
 
-  private static void addEscaped(final StringBuilder stringBuilder, final char c) {
+  /**
+   * @return the escape sequence of a char or null if it can be written as it is.
+   */
+  private static String escape(final char c) {
+    if (c >= ' ' && c != '"' && c != '\\') {
+      return null;
+    }
     switch (c) {
       case '\b':
-        stringBuilder.append("\\b");
-        break;
+        return "\\b";
       case '\t':
-        stringBuilder.append("\\t");
-        break;
+        return "\\t";
       case '\n':
-        stringBuilder.append("\\n");
-        break;
+        return "\\n";
       case '\\':
-        stringBuilder.append("\\\\");
-        break;
+        return "\\\\";
       case '\r':
-        stringBuilder.append("\\r");
-        break;
+        return "\\r";
       case '\f':
-        stringBuilder.append("\\f");
-        break;
+        return "\\f";
       case '"':
-        stringBuilder.append("\\\"");
-        break;
+        return "\\\"";
       default:
-        stringBuilder.append(c);
-        break;
+        return null;
     }
   }
 
@@ -117,15 +129,25 @@ public final class TomlWriter {
    * @throws IOException if an error occurs
    */
   public void close() throws IOException {
-    writer.close();
+    if (buffer == null) {
+      return;
+    }
+    try {
+      drain();
+    } finally {
+      releaseBuffer(buffer);
+      buffer = null;
+      writer.close();
+    }
   }
 
   /**
-   * Flushes the underlying writer.
+   * Writes our buffer to the underlying writer & flushes it.
    *
    * @throws IOException if an error occurs
    */
   public void flush() throws IOException {
+    drain();
     writer.flush();
   }
 
@@ -139,15 +161,25 @@ public final class TomlWriter {
     writeTableContent(data);
   }
 
-  private void writeTableName() throws IOException {
-    final Iterator<String> it = tablesNames.iterator();
-    while (it.hasNext()) {
-      final String namePart = it.next();
-      writeKey(namePart);
-      if (it.hasNext()) {
-        write('.');
-      }
+  /**
+   * Enters a child table of our current table.
+   *
+   * @return the full name of the child table, used in its header.
+   */
+  private String enterTable(final String name) {
+    final StringBuilder tableName = new StringBuilder();
+    if (!tableNames.isEmpty()) {
+      tableName.append(tableNames.peekLast()).append('.');
     }
+    appendKey(tableName, name);
+    tableNames.addLast(tableName.toString());
+    indentationLevel++;
+    return tableNames.peekLast();
+  }
+
+  private void leaveTable() {
+    indentationLevel--;
+    tableNames.removeLast();
   }
 
   private void writeTableContent(final Map<String, Object> table) throws IOException {
@@ -173,18 +205,14 @@ public final class TomlWriter {
           if (simpleValues) {
             continue;
           }
-          tablesNames.addLast(name);
-          indentationLevel++;
+          final String header = "[[" + enterTable(name) + "]]\n";
           for (final Object element : c) {
             indent();
-            write("[[");
-            writeTableName();
-            write("]]\n");
+            write(header);
             final Map<String, Object> map = (Map) element;
             writeTableContent(map);
           }
-          indentationLevel--;
-          tablesNames.removeLast();
+          leaveTable();
         } else { // normal array
           if (!simpleValues) {
             continue;
@@ -200,18 +228,14 @@ public final class TomlWriter {
           if (simpleValues) {
             continue;
           }
-          tablesNames.addLast(name);
-          indentationLevel++;
+          final String header = "[[" + enterTable(name) + "]]\n";
           for (final Object element : array) {
             indent();
-            write("[[");
-            writeTableName();
-            write("]]\n");
+            write(header);
             final Map<String, Object> map = (Map) element;
             writeTableContent(map);
           }
-          indentationLevel--;
-          tablesNames.removeLast();
+          leaveTable();
         } else { // normal array
           if (!simpleValues) {
             continue;
@@ -225,18 +249,16 @@ public final class TomlWriter {
         if (simpleValues) {
           continue;
         }
-        tablesNames.addLast(name);
-        indentationLevel++;
+        final String tableName = enterTable(name);
 
         indent();
         write('[');
-        writeTableName();
+        write(tableName);
         write(']');
         newLine();
         writeTableContent((Map) value);
 
-        indentationLevel--;
-        tablesNames.removeLast();
+        leaveTable();
       } else { // simple value
         if (!simpleValues) {
           continue;
@@ -252,6 +274,32 @@ public final class TomlWriter {
   }
 
   private void writeKey(final String key) throws IOException {
+    if (isBareKey(key)) {
+      write(key);
+    } else {
+      writeString(key);
+    }
+  }
+
+  private static void appendKey(final StringBuilder stringBuilder, final String key) {
+    if (isBareKey(key)) {
+      stringBuilder.append(key);
+      return;
+    }
+    stringBuilder.append('"');
+    for (int i = 0; i < key.length(); i++) {
+      final char c = key.charAt(i);
+      final String escaped = escape(c);
+      if (escaped == null) {
+        stringBuilder.append(c);
+      } else {
+        stringBuilder.append(escaped);
+      }
+    }
+    stringBuilder.append('"');
+  }
+
+  private static boolean isBareKey(final String key) {
     for (int i = 0; i < key.length(); i++) {
       final char c = key.charAt(i);
       if (!(
@@ -260,22 +308,28 @@ public final class TomlWriter {
           || c >= '0' && c <= '9'
           || c == '-'
           || c == '_')) {
-        writeString(key);
-        return;
+        return false;
       }
     }
-    write(key);
+    return true;
   }
 
+  /**
+   * Writes a quoted String. Runs of chars which don't need to be escaped are copied at once.
+   */
   private void writeString(final String str) throws IOException {
-    final StringBuilder stringBuilder = new StringBuilder();
-    stringBuilder.append('"');
+    write('"');
+    int start = 0;
     for (int i = 0; i < str.length(); i++) {
-      final char c = str.charAt(i);
-      addEscaped(stringBuilder, c);
+      final String escaped = escape(str.charAt(i));
+      if (escaped != null) {
+        append(str, start, i);
+        append(escaped, 0, escaped.length());
+        start = i + 1;
+      }
     }
-    stringBuilder.append('"');
-    write(stringBuilder.toString());
+    append(str, start, str.length());
+    write('"');
   }
 
   private void writeArray(final Collection<?> c) throws IOException {
@@ -399,21 +453,43 @@ public final class TomlWriter {
 
   private void newLine() throws IOException {
     if (lineBreaks <= 1) {
-      writer.write(lineSeparator);
+      append(lineSeparator, 0, lineSeparator.length());
       lineBreaks++;
     }
   }
 
   private void write(final char c) throws IOException {
-    writer.write(c);
+    if (count == buffer.length) {
+      drain();
+    }
+    buffer[count++] = c;
     lineBreaks = 0;
   }
 
   private void write(final String str) throws IOException {
-    writer.write(str);
+    append(str, 0, str.length());
     lineBreaks = 0;
   }
 
+  private void append(final String str, int start, final int end) throws IOException {
+    while (start < end) {
+      if (count == buffer.length) {
+        drain();
+      }
+      final int length = Math.min(end - start, buffer.length - count);
+      str.getChars(start, start + length, buffer, count);
+      count += length;
+      start += length;
+    }
+  }
+
+  private void drain() throws IOException {
+    if (count > 0) {
+      writer.write(buffer, 0, count);
+      count = 0;
+    }
+  }
+
   private void indent() throws IOException {
     for (int i = 0; i < indentationLevel; i++) {
       for (int j = 0; j < indentSize; j++) {
@@ -421,4 +497,21 @@ public final class TomlWriter {
       }
     }
   }
+
+  private static char[] acquireBuffer() {
+    final char[] buffer = bufferPool.poll();
+    if (buffer == null) {
+      return new char[BUFFER_SIZE];
+    }
+    pooledBuffers.decrementAndGet();
+    return buffer;
+  }
+
+  private static void releaseBuffer(final char[] buffer) {
+    if (pooledBuffers.incrementAndGet() > MAX_POOLED_BUFFERS) {
+      pooledBuffers.decrementAndGet();
+      return;
+    }
+    bufferPool.offer(buffer);
+  }
 }
@@ -0,0 +1,632 @@
+package de.leonhard.storage.internal.editor.yaml;
+
+import de.leonhard.storage.internal.settings.DataType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reader for the subset of YAML used by configs: Block & flow mappings and sequences, plain,
+ * quoted & literal scalars and comments. Creates the maps & lists of our DataType directly and
+ * reads every scalar as String, like yamlbeans does it.
+ *
+ * <p>Everything else (anchors, tags, multi line plain & quoted scalars, folded scalars, tabs...)
+ * makes {@link #readToMap()} return null and the caller should use yamlbeans instead. This is also
+ * the case for syntax errors, so yamlbeans reports them. This is NOT Thread safe.
+ */
+public final class FastYamlReader {
+
+  private final String yaml;
+  @Nullable
+  private final DataType dataType;
+  private String[] lines;
+  private int row;
+  // Indentation of the current row
+  private int column;
+  // Position in the current row
+  private int position;
+
+  public FastYamlReader(@NonNull final String yaml, @Nullable final DataType dataType) {
+    this.yaml = yaml;
+    this.dataType = dataType;
+  }
+
+  /**
+   * @return The content of our YAML or null if it isn't supported by us.
+   */
+  @Nullable
+  public Map<String, Object> readToMap() {
+    try {
+      this.lines = splitLines(this.yaml);
+      return readDocument();
+    } catch (final UnsupportedSyntax ex) {
+      return null;
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Reading blocks
+  // ----------------------------------------------------------------------------------------------------
+
+  private Map<String, Object> readDocument() {
+    while (this.row < this.lines.length && isBlankOrComment(this.lines[this.row])) {
+      this.row++;
+    }
+    // A single document start marker is allowed
+    if (this.row < this.lines.length && this.lines[this.row].trim().equals("---")) {
+      this.row++;
+    }
+    skipToContent();
+
+    if (this.row == this.lines.length) {
+      return newMap();
+    }
+    // Top level sequences aren't supported by SimpleYamlReader#readToMap()
+    if (isSequenceItem(this.lines[this.row], this.column)) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+
+    final Map<String, Object> map = readBlockMap(this.column);
+    if (this.row != this.lines.length) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+    return map;
+  }
+
+  private Map<String, Object> readBlockMap(final int indent) {
+    final Map<String, Object> map = newMap();
+    while (true) {
+      this.position = this.column;
+      if (isSequenceItem(this.lines[this.row], this.position)) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+
+      final String key = readKey();
+      map.put(key, readValue(indent, true));
+
+      if (this.row == this.lines.length || this.column < indent) {
+        return map;
+      }
+      if (this.column > indent) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+    }
+  }
+
+  private List<Object> readBlockSequence(final int indent) {
+    final List<Object> list = newList();
+    while (true) {
+      final String line = this.lines[this.row];
+      this.position = indent + 1;
+      skipSpaces();
+
+      if (!isLineEnd(line) && isSequenceItem(line, this.position)) {
+        // Compact nested sequences like "- - value"
+        throw UnsupportedSyntax.INSTANCE;
+      } else if (!isLineEnd(line) && isKey(line, this.position)) {
+        // Compact maps like "- key: value"
+        this.column = this.position;
+        list.add(readBlockMap(this.position));
+      } else {
+        list.add(readValue(indent, false));
+      }
+
+      if (this.row == this.lines.length || this.column < indent) {
+        return list;
+      }
+      if (this.column > indent) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      if (!isSequenceItem(this.lines[this.row], indent)) {
+        // Sequence at the indentation of its key, the map continues
+        return list;
+      }
+    }
+  }
+
+  /**
+   * Reads the value starting at our position & moves to the next row containing content.
+   *
+   * @param parentIndent       Indentation of the map or sequence containing the value.
+   * @param sameIndentSequence Whether a block sequence may start at the indentation of its parent,
+   *                           like it is allowed for the values of maps.
+   */
+  @Nullable
+  private Object readValue(final int parentIndent, final boolean sameIndentSequence) {
+    final String line = this.lines[this.row];
+    skipSpaces();
+
+    if (isLineEnd(line)) {
+      nextRow();
+      if (this.row == this.lines.length) {
+        return null;
+      }
+      if (this.column > parentIndent) {
+        return isSequenceItem(this.lines[this.row], this.column)
+            ? readBlockSequence(this.column)
+            : readBlockMap(this.column);
+      }
+      if (sameIndentSequence
+          && this.column == parentIndent
+          && isSequenceItem(this.lines[this.row], this.column)) {
+        return readBlockSequence(this.column);
+      }
+      return null;
+    }
+
+    final char c = line.charAt(this.position);
+    if (c == '|') {
+      return readLiteral(parentIndent);
+    }
+
+    final Object value;
+    if (c == '[' || c == '{') {
+      value = readFlow(line);
+    } else if (c == '"' || c == '\'') {
+      value = readQuoted(line);
+    } else {
+      value = readPlain(line);
+    }
+
+    skipSpaces();
+    if (!isLineEnd(line)) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+    nextRow();
+    return value;
+  }
+
+  private String readKey() {
+    final String line = this.lines[this.row];
+    final char c = line.charAt(this.position);
+    final String key;
+    if (c == '"' || c == '\'') {
+      key = readQuoted(line);
+      skipSpaces();
+    } else {
+      final int end = plainKeyEnd(line, this.position);
+      if (end == -1) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      key = line.substring(this.position, end).trim();
+      checkPlainStart(key);
+      this.position = end;
+    }
+
+    if (!isMappingIndicator(line, this.position)) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+    this.position++;
+    return key;
+  }
+
+  /**
+   * Reads a block scalar like "|" or "|-". Other than the YAML spec says, yamlbeans removes all
+   * trailing line breaks in both cases.
+   */
+  private String readLiteral(final int parentIndent) {
+    final String header = this.lines[this.row];
+    this.position++;
+    if (this.position < header.length() && header.charAt(this.position) == '-') {
+      this.position++;
+    }
+    // Keep chomping, indentation indicators & comments are rare
+    if (this.position != header.length() && !header.substring(this.position).trim().isEmpty()) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+    this.row++;
+
+    int blockIndent = -1;
+    for (int i = this.row; i < this.lines.length; i++) {
+      final int indent = indentOf(this.lines[i]);
+      if (indent < this.lines[i].length()) {
+        blockIndent = indent;
+        break;
+      }
+    }
+    if (blockIndent <= parentIndent) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+
+    final StringBuilder builder = new StringBuilder();
+    int emptyLines = 0;
+    boolean first = true;
+    for (; this.row < this.lines.length; this.row++) {
+      final String line = this.lines[this.row];
+      final int indent = indentOf(line);
+      if (indent == line.length()) {
+        if (indent > blockIndent) {
+          throw UnsupportedSyntax.INSTANCE;
+        }
+        emptyLines++;
+        continue;
+      }
+      if (indent < blockIndent) {
+        break;
+      }
+
+      if (!first) {
+        builder.append('\n');
+      }
+      for (int i = 0; i < emptyLines; i++) {
+        builder.append('\n');
+      }
+      builder.append(line, blockIndent, line.length());
+      emptyLines = 0;
+      first = false;
+    }
+
+    skipToContent();
+    return builder.toString();
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Reading flow collections & scalars
+  // ----------------------------------------------------------------------------------------------------
+
+  private Object readFlow(final String line) {
+    skipSpaces();
+    final char c = peek(line);
+    if (c == '[') {
+      this.position++;
+      final List<Object> list = newList();
+      skipSpaces();
+      if (peek(line) == ']') {
+        this.position++;
+        return list;
+      }
+      while (true) {
+        list.add(readFlow(line));
+        if (!nextFlowEntry(line, ']')) {
+          return list;
+        }
+      }
+    }
+
+    if (c == '{') {
+      this.position++;
+      final Map<String, Object> map = newMap();
+      skipSpaces();
+      if (peek(line) == '}') {
+        this.position++;
+        return map;
+      }
+      while (true) {
+        final String key = readFlowKey(line);
+        if (!isMappingIndicator(line, this.position)) {
+          throw UnsupportedSyntax.INSTANCE;
+        }
+        this.position++;
+        skipSpaces();
+        final char next = peek(line);
+        map.put(key, next == ',' || next == '}' ? null : readFlow(line));
+        if (!nextFlowEntry(line, '}')) {
+          return map;
+        }
+      }
+    }
+
+    if (c == '"' || c == '\'') {
+      return readQuoted(line);
+    }
+
+    final int start = this.position;
+    while (this.position < line.length()) {
+      final char current = line.charAt(this.position);
+      if (current == ',' || current == ']' || current == '}') {
+        break;
+      }
+      if (current == ':' || current == '#' || current == '[' || current == '{') {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      this.position++;
+    }
+    final String value = line.substring(start, this.position).trim();
+    checkPlainStart(value);
+    return value;
+  }
+
+  private String readFlowKey(final String line) {
+    final char c = peek(line);
+    if (c == '"' || c == '\'') {
+      final String key = readQuoted(line);
+      skipSpaces();
+      return key;
+    }
+
+    final int start = this.position;
+    while (this.position < line.length() && line.charAt(this.position) != ':') {
+      final char current = line.charAt(this.position);
+      if (current == ',' || current == '#' || "[]{}".indexOf(current) != -1) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      this.position++;
+    }
+    final String key = line.substring(start, this.position).trim();
+    checkPlainStart(key);
+    return key;
+  }
+
+  /**
+   * @return Whether another entry follows in our flow collection.
+   */
+  private boolean nextFlowEntry(final String line, final char end) {
+    skipSpaces();
+    final char c = peek(line);
+    if (c == end) {
+      this.position++;
+      return false;
+    }
+    if (c != ',') {
+      // Also the end of our row, multi line flow collections aren't supported
+      throw UnsupportedSyntax.INSTANCE;
+    }
+    this.position++;
+    skipSpaces();
+    // Trailing commas
+    if (peek(line) == end) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+    return true;
+  }
+
+  private String readQuoted(final String line) {
+    final char quote = line.charAt(this.position++);
+    final StringBuilder builder = new StringBuilder();
+    while (true) {
+      if (this.position == line.length()) {
+        // Multi line scalars aren't supported
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      final char c = line.charAt(this.position++);
+      if (c == quote) {
+        if (quote == '\'' && peek(line) == '\'') {
+          builder.append('\'');
+          this.position++;
+          continue;
+        }
+        return builder.toString();
+      }
+      if (c == '\\' && quote == '"') {
+        builder.append(unescape(line));
+      } else {
+        builder.append(c);
+      }
+    }
+  }
+
+  private char unescape(final String line) {
+    final char c = peek(line);
+    this.position++;
+    switch (c) {
+      case 'n':
+        return '\n';
+      case 't':
+        return '\t';
+      case '"':
+      case '\\':
+        return c;
+      case 'u':
+        if (this.position + 4 > line.length()) {
+          throw UnsupportedSyntax.INSTANCE;
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+          final int digit = Character.digit(line.charAt(this.position++), 16);
+          if (digit == -1) {
+            throw UnsupportedSyntax.INSTANCE;
+          }
+          value = value << 4 | digit;
+        }
+        return (char) value;
+      default:
+        throw UnsupportedSyntax.INSTANCE;
+    }
+  }
+
+  private String readPlain(final String line) {
+    final int start = this.position;
+    int end = line.length();
+    for (int i = start; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (c == '#' && line.charAt(i - 1) == ' ') {
+        end = i;
+        break;
+      }
+      if (isMappingIndicator(line, i)) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+    }
+
+    final String value = line.substring(start, end).trim();
+    checkPlainStart(value);
+    this.position = end;
+    return value;
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Helper methods
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * Splits our YAML into lines & rejects chars we don't handle like yamlbeans does.
+   */
+  private static String[] splitLines(final String yaml) {
+    final List<String> lines = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i < yaml.length(); i++) {
+      final char c = yaml.charAt(i);
+      if (c == '\n') {
+        lines.add(yaml.substring(start, i));
+        start = i + 1;
+      } else if (c == '\r') {
+        if (i + 1 == yaml.length() || yaml.charAt(i + 1) != '\n') {
+          throw UnsupportedSyntax.INSTANCE;
+        }
+        lines.add(yaml.substring(start, i));
+        start = i + 2;
+        i++;
+      } else if (c < ' ' || c == '\u0085' || c == '\u2028' || c == '\u2029' || c == '\uFEFF') {
+        // Tabs, control chars, unicode line breaks & byte order marks
+        throw UnsupportedSyntax.INSTANCE;
+      }
+    }
+    if (start < yaml.length()) {
+      lines.add(yaml.substring(start));
+    }
+    return lines.toArray(new String[0]);
+  }
+
+  /**
+   * Moves to the next row containing content.
+   */
+  private void nextRow() {
+    this.row++;
+    skipToContent();
+  }
+
+  private void skipToContent() {
+    while (this.row < this.lines.length) {
+      final String line = this.lines[this.row];
+      // Document markers
+      if (line.startsWith("---") || line.startsWith("...")) {
+        throw UnsupportedSyntax.INSTANCE;
+      }
+      if (!isBlankOrComment(line)) {
+        this.column = indentOf(line);
+        return;
+      }
+      this.row++;
+    }
+    this.column = 0;
+  }
+
+  private void skipSpaces() {
+    final String line = this.lines[this.row];
+    while (this.position < line.length() && line.charAt(this.position) == ' ') {
+      this.position++;
+    }
+  }
+
+  private char peek(final String line) {
+    return this.position < line.length() ? line.charAt(this.position) : 0;
+  }
+
+  /**
+   * @return Whether the rest of the line after our position is empty or a comment.
+   */
+  private boolean isLineEnd(final String line) {
+    return this.position == line.length()
+        || (line.charAt(this.position) == '#' && line.charAt(this.position - 1) == ' ');
+  }
+
+  /**
+   * @return Whether a plain or quoted key followed by ':' starts at the given position.
+   */
+  private static boolean isKey(final String line, int position) {
+    final char c = line.charAt(position);
+    if (c == '[' || c == '{') {
+      return false;
+    }
+    if (c != '"' && c != '\'') {
+      return plainKeyEnd(line, position) != -1;
+    }
+
+    position++;
+    while (position < line.length()) {
+      final char current = line.charAt(position++);
+      if (current == '\\' && c == '"') {
+        position++;
+      } else if (current == c) {
+        if (c == '\'' && position < line.length() && line.charAt(position) == '\'') {
+          position++;
+          continue;
+        }
+        while (position < line.length() && line.charAt(position) == ' ') {
+          position++;
+        }
+        return isMappingIndicator(line, position);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return The index of the ':' ending the plain key starting at the given position or -1.
+   */
+  private static int plainKeyEnd(final String line, final int position) {
+    for (int i = position; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (c == '#' && i > 0 && line.charAt(i - 1) == ' ') {
+        return -1;
+      }
+      if (isMappingIndicator(line, i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return Whether there is a ':' followed by a space or the end of the line.
+   */
+  private static boolean isMappingIndicator(final String line, final int index) {
+    return index < line.length()
+        && line.charAt(index) == ':'
+        && (index + 1 == line.length() || line.charAt(index + 1) == ' ');
+  }
+
+  private static boolean isSequenceItem(final String line, final int index) {
+    return index < line.length()
+        && line.charAt(index) == '-'
+        && (index + 1 == line.length() || line.charAt(index + 1) == ' ');
+  }
+
+  private static boolean isBlankOrComment(final String line) {
+    final int indent = indentOf(line);
+    return indent == line.length() || line.charAt(indent) == '#';
+  }
+
+  private static int indentOf(final String line) {
+    int indent = 0;
+    while (indent < line.length() && line.charAt(indent) == ' ') {
+      indent++;
+    }
+    return indent;
+  }
+
+  /**
+   * Rejects plain scalars which are empty or start with an indicator of YAML.
+   */
+  private static void checkPlainStart(final String value) {
+    if (value.isEmpty()
+        || "&*!|>%@`,[]{}#?:'\"".indexOf(value.charAt(0)) != -1
+        || (value.charAt(0) == '-' && (value.length() == 1 || value.charAt(1) == ' '))) {
+      throw UnsupportedSyntax.INSTANCE;
+    }
+  }
+
+  private Map<String, Object> newMap() {
+    return this.dataType == null ? new LinkedHashMap<>() : this.dataType.getMapImplementation();
+  }
+
+  private List<Object> newList() {
+    return this.dataType == null ? new ArrayList<>() : this.dataType.getListImplementation();
+  }
+
+  /**
+   * Thrown internally if our YAML isn't supported. Preallocated, as it only controls our flow.
+   */
+  private static final class UnsupportedSyntax extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+    private static final UnsupportedSyntax INSTANCE = new UnsupportedSyntax();
+
+    private UnsupportedSyntax() {
+      super(null, null, false, false);
+    }
+  }
+}
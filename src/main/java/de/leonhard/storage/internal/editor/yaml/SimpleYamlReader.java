@@ -2,34 +2,119 @@ package de.leonhard.storage.internal.editor.yaml;
 
 import com.esotericsoftware.yamlbeans.YamlException;
 import com.esotericsoftware.yamlbeans.YamlReader;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.DataType;
 import de.leonhard.storage.util.FileUtils;
 import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Enhanced Version of YamlReader of EsotericSoftware, which implements {@link AutoCloseable}
+ *
+ * <p>If a {@link DataType} is given, the maps & lists we read are created using its
+ * implementations. {@link #readToMap()} uses our {@link FastYamlReader} & only falls back to
+ * yamlbeans for YAML it doesn't support.
  */
 public class SimpleYamlReader
     extends YamlReader
     implements AutoCloseable {
 
+  private final String yaml;
+  @Nullable
+  private final DataType dataType;
+
   public SimpleYamlReader(final Reader reader) {
-    super(reader);
+    this(reader, null);
+  }
+
+  public SimpleYamlReader(final Reader reader, @Nullable final DataType dataType) {
+    this(readToString(reader), dataType);
   }
 
   public SimpleYamlReader(final File file) {
-    super(FileUtils.createReader(file));
+    this(FileUtils.createReader(file));
   }
 
   public SimpleYamlReader(final String yaml) {
+    this(yaml, null);
+  }
+
+  public SimpleYamlReader(final String yaml, @Nullable final DataType dataType) {
     super(yaml);
+    this.yaml = yaml;
+    this.dataType = dataType;
   }
 
   @SuppressWarnings("unchecked")
   public Map<String, Object> readToMap() throws YamlException {
+    final Map<String, Object> fast = new FastYamlReader(this.yaml, this.dataType).readToMap();
+    if (fast != null) {
+      return fast;
+    }
+
     final Object obj = read();
-    return obj == null ? new HashMap<>() : (Map<String, Object>) obj;
+    if (obj == null) {
+      return this.dataType == null ? new HashMap<>() : this.dataType.getMapImplementation();
+    }
+
+    final Map<String, Object> result = (Map<String, Object>) obj;
+    // Lists are created by yamlbeans directly, we only need to replace them
+    // if another implementation was registered.
+    if (this.dataType != null
+        && this.dataType.getListImplementation().getClass() != ArrayList.class) {
+      replaceLists(result);
+    }
+    return result;
+  }
+
+  @Override
+  protected Object createObject(final Class type) throws InvocationTargetException {
+    if (this.dataType != null
+        && (type == LinkedHashMap.class || type == HashMap.class || type == Map.class)) {
+      return this.dataType.getMapImplementation();
+    }
+    return super.createObject(type);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object replaceLists(final Object value) {
+    if (value instanceof Map) {
+      for (final Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+        entry.setValue(replaceLists(entry.getValue()));
+      }
+    } else if (value instanceof List) {
+      final List<Object> result = this.dataType.getListImplementation();
+      for (final Object element : (List<Object>) value) {
+        result.add(replaceLists(element));
+      }
+      return result;
+    }
+    return value;
+  }
+
+  /**
+   * Reads & closes our reader. Both parsers need the whole document anyway, and yamlbeans can
+   * re-read it if our FastYamlReader doesn't support it.
+   */
+  private static String readToString(final Reader reader) {
+    try (final Reader closed = reader) {
+      final StringBuilder builder = new StringBuilder();
+      final char[] buffer = new char[8192];
+      int read;
+      while ((read = closed.read(buffer)) != -1) {
+        builder.append(buffer, 0, read);
+      }
+      return builder.toString();
+    } catch (final IOException ex) {
+      throw LightningProviders.exceptionHandler().create(ex, "Error while reading YAML");
+    }
   }
 }
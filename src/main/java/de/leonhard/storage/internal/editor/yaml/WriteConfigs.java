@@ -0,0 +1,66 @@
+package de.leonhard.storage.internal.editor.yaml;
+
+import com.esotericsoftware.yamlbeans.YamlConfig.WriteConfig;
+import com.esotericsoftware.yamlbeans.emitter.EmitterConfig;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Compares the settings of the WriteConfigs of yamlbeans. They can be modified in place, but only
+ * have setters, so we have to read their fields using reflection.
+ */
+@UtilityClass
+public class WriteConfigs {
+
+  // Null if our reflection failed, every config counts as modified then
+  private final Field[] WRITE_CONFIG_FIELDS = settingFields(WriteConfig.class);
+  private final Field[] EMITTER_CONFIG_FIELDS = settingFields(EmitterConfig.class);
+
+  /**
+   * @return true if both configs have the same settings, including the ones of their EmitterConfig.
+   */
+  public boolean sameSettings(final WriteConfig first, final WriteConfig second) {
+    return sameSettings(WRITE_CONFIG_FIELDS, first, second);
+  }
+
+  private boolean sameSettings(final Field[] fields, final Object first, final Object second) {
+    if (fields == null) {
+      return false;
+    }
+
+    try {
+      for (final Field field : fields) {
+        final Object firstValue = field.get(first);
+        final Object secondValue = field.get(second);
+        final boolean same = field.getType() == EmitterConfig.class
+            ? sameSettings(EMITTER_CONFIG_FIELDS, firstValue, secondValue)
+            : Objects.equals(firstValue, secondValue);
+        if (!same) {
+          return false;
+        }
+      }
+      return true;
+    } catch (final IllegalAccessException | RuntimeException ex) {
+      return false;
+    }
+  }
+
+  private Field[] settingFields(final Class<?> type) {
+    try {
+      final List<Field> fields = new ArrayList<>();
+      for (final Field field : type.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+          field.setAccessible(true);
+          fields.add(field);
+        }
+      }
+      return fields.toArray(new Field[0]);
+    } catch (final RuntimeException ex) {
+      return null;
+    }
+  }
+}
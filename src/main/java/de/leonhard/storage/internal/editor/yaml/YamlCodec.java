@@ -0,0 +1,48 @@
+package de.leonhard.storage.internal.editor.yaml;
+
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.provider.FormatCodec;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.util.ChannelReader;
+import de.leonhard.storage.util.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import lombok.Cleanup;
+
+/**
+ * Built-in codec for YAML, using {@link SimpleYamlReader} & {@link YamlEmitter}. Data our emitter
+ * doesn't support is written by {@link SimpleYamlWriter}.
+ */
+public final class YamlCodec extends FormatCodec {
+
+  @Override
+  public FileType getFileType() {
+    return FileType.YAML;
+  }
+
+  @Override
+  public Map<String, Object> read(final File file, final DataType dataType) throws IOException {
+    @Cleanup final SimpleYamlReader reader = new SimpleYamlReader(
+        ChannelReader.readToString(file), dataType);
+    return reader.readToMap();
+  }
+
+  @Override
+  public void write(final Map<String, Object> data, final File file) throws IOException {
+    // Our emitter only knows the output of the default YamlConfig
+    if (LightningProviders.hasDefaultYamlConfig()) {
+      @Cleanup final YamlEmitter emitter = new YamlEmitter();
+      if (emitter.emit(data)) {
+        @Cleanup final Writer writer = FileUtils.createWriter(file);
+        emitter.writeTo(writer);
+        return;
+      }
+    }
+
+    @Cleanup final SimpleYamlWriter writer = new SimpleYamlWriter(file);
+    writer.write(data);
+  }
+}
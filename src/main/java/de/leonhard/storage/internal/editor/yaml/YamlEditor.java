@@ -3,79 +3,155 @@ package de.leonhard.storage.internal.editor.yaml;
 import de.leonhard.storage.util.FileUtils;
 import de.leonhard.storage.util.YamlUtils;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-@Getter
+/**
+ * Line based access to a YAML-file, for the parts yamlbeans doesn't know about like comments.
+ *
+ * <p>The lines are read once into an in-memory model, indexed by the end of the header & the
+ * start of the footer. Queries are answered from the model, edits of the header only change the
+ * model until {@link #flush()} writes it back in one go. The model is read again if the file was
+ * changed by someone else (by its size & timestamp) or after {@link #invalidate()}.
+ */
 @RequiredArgsConstructor
 public class YamlEditor {
 
+  @Getter
   private final File file;
 
-  public List<String> read() {
-    return FileUtils.readAllLines(file);
+  private List<String> lines;
+  // Lines [0, headerEnd) are the header, lines [footerStart, size) the footer
+  private int headerEnd;
+  private int footerStart;
+  // State of the file the lines were read from or written to
+  private long lastModified;
+  private long length;
+  private boolean dirty;
+
+  public synchronized List<String> read() {
+    return new ArrayList<>(lines());
   }
 
   // ----------------------------------------------------------------------------------------------------
   // Reading specific things from File
   // ----------------------------------------------------------------------------------------------------
 
-  public List<String> readKeys() {
-    return YamlUtils.getKeys(read());
+  public synchronized List<String> readKeys() {
+    return YamlUtils.getKeys(lines());
   }
 
-  public List<String> readComments() {
-    return YamlUtils.getKeys(read());
+  public synchronized List<String> readComments() {
+    return YamlUtils.getCommentsFromLines(lines());
   }
 
-  public List<String> readHeader() {
-    return YamlUtils.getHeaderFromLines(read());
+  public synchronized List<String> readHeader() {
+    return new ArrayList<>(lines().subList(0, this.headerEnd));
   }
 
-  public List<String> readFooter() {
-    return YamlUtils.getFooterFromLines(read());
+  public synchronized List<String> readFooter() {
+    final List<String> lines = lines();
+    return new ArrayList<>(lines.subList(this.footerStart, lines.size()));
   }
 
-  public List<String> readPureComments() {
-    return YamlUtils.getPureCommentsFromLines(read());
+  public synchronized List<String> readPureComments() {
+    return YamlUtils.getCommentsFromLines(body());
   }
 
-  public List<String> readWithoutHeaderAndFooter() {
-    return YamlUtils.getLinesWithoutFooterAndHeaderFromLines(read());
+  public synchronized List<String> readWithoutHeaderAndFooter() {
+    return new ArrayList<>(body());
   }
 
   // ----------------------------------------------------------------------------------------------------
   // Writing specific things from File
   // ----------------------------------------------------------------------------------------------------
-  public void write(final List<String> lines) {
-    FileUtils.write(file, lines);
+
+  /**
+   * Replaces the content of the file & the model with the lines, discarding unflushed edits.
+   */
+  public synchronized void write(final List<String> lines) {
+    this.lines = new ArrayList<>(lines);
+    index();
+    flush0();
   }
 
-  public void setHeader(final List<String> header) {
-    final List<String> lines = read();
+  /**
+   * Replaces the header of the model. Call {@link #flush()} to write it to the file.
+   */
+  public synchronized void setHeader(final List<String> header) {
+    final List<String> lines = lines();
+    lines.subList(0, this.headerEnd).clear();
+    lines.addAll(0, toComments(header));
+    index();
+    this.dirty = true;
+  }
 
-    // Remove old header
-    lines.removeAll(readHeader());
+  /**
+   * Adds lines in front of the header of the model. Call {@link #flush()} to write it to the file.
+   */
+  public synchronized void addHeader(final List<String> header) {
+    lines().addAll(0, toComments(header));
+    index();
+    this.dirty = true;
+  }
 
-    // Adding new header in front
-    for (int i = 0; i < header.size(); i++) {
-      final String toAdd = header.get(i);
-      lines.add(i, toAdd.startsWith("#") ? toAdd : "#" + toAdd);
+  /**
+   * Writes the edits of the model to the file, if there are any.
+   */
+  public synchronized void flush() {
+    if (this.dirty) {
+      flush0();
     }
+  }
 
-    // Write to file
-    write(lines);
+  /**
+   * Drops the model, which is read again on the next access. Unflushed edits are lost.
+   */
+  public synchronized void invalidate() {
+    this.lines = null;
+    this.dirty = false;
   }
 
-  public void addHeader(final List<String> header) {
-    final List<String> lines = read();
-    for (int i = 0; i < header.size(); i++) {
-      final String toAdd = header.get(i);
-      lines.add(i, toAdd.startsWith("#") ? toAdd : "#" + toAdd);
+  // ----------------------------------------------------------------------------------------------------
+  // Internal stuff
+  // ----------------------------------------------------------------------------------------------------
+
+  private List<String> lines() {
+    if (this.lines == null
+        || (!this.dirty
+            && (this.file.lastModified() != this.lastModified
+                || this.file.length() != this.length))) {
+      this.lastModified = this.file.lastModified();
+      this.length = this.file.length();
+      this.lines = FileUtils.readAllLines(this.file);
+      index();
     }
+    return this.lines;
+  }
 
-    // Write to file
-    write(lines);
+  private List<String> body() {
+    return lines().subList(this.headerEnd, Math.max(this.headerEnd, this.footerStart));
+  }
+
+  private void index() {
+    this.headerEnd = YamlUtils.getHeaderEnd(this.lines);
+    this.footerStart = YamlUtils.getFooterStart(this.lines);
+  }
+
+  private void flush0() {
+    FileUtils.write(this.file, this.lines);
+    this.lastModified = this.file.lastModified();
+    this.length = this.file.length();
+    this.dirty = false;
+  }
+
+  private List<String> toComments(final List<String> header) {
+    final List<String> result = new ArrayList<>(header.size());
+    for (final String line : header) {
+      result.add(line.startsWith("#") ? line : "#" + line);
+    }
+    return result;
   }
 }
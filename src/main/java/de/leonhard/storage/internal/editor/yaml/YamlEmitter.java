@@ -0,0 +1,590 @@
+package de.leonhard.storage.internal.editor.yaml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+
+/**
+ * Writes maps, collections & scalars as YAML directly into a buffer, without the bean
+ * introspection & event pipeline of yamlbeans.
+ *
+ * <p>Our output is the same as the one of {@link SimpleYamlWriter} using the default YamlConfig of
+ * our {@link de.leonhard.storage.internal.provider.LightningProviders}: The block styles, the
+ * indentation & the choice when a scalar has to be quoted follow the emitter of yamlbeans. Data we
+ * can't write this way (other types than maps, collections, arrays & scalars, double quoted
+ * scalars, complex keys, control chars...) makes {@link #emit(Map)} return false and the caller
+ * should use yamlbeans instead. This is NOT Thread safe.
+ */
+public final class YamlEmitter implements AutoCloseable {
+
+  // Settings of yamlbeans' default EmitterConfig
+  private static final int INDENT_SIZE = 3;
+  private static final int WRAP_COLUMN = 100;
+  private static final int MAX_SIMPLE_KEY_LENGTH = 1024;
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final int MAX_POOLED_BUFFERS = 16;
+  // Bigger buffers are left to the GC instead of being kept forever
+  private static final int MAX_POOLED_BUFFER_SIZE = 1 << 20;
+  private static final Queue<char[]> bufferPool = new ConcurrentLinkedQueue<>();
+  private static final AtomicInteger pooledBuffers = new AtomicInteger();
+
+  private static final char[] SPACES = new char[64];
+  private static final String NULL_BL_T_LINEBR = "\0 \t\r\n\u0085";
+  private static final String SPECIAL_INDICATOR = "#,[]{}#&*!|>'\"%@`";
+
+  // Result of #analyze
+  private static final int MULTILINE = 1;
+  private static final int EMPTY = 1 << 1;
+  private static final int ALLOW_PLAIN = 1 << 2;
+  private static final int ALLOW_SINGLE_QUOTED = 1 << 3;
+  private static final int ALLOW_BLOCK = 1 << 4;
+
+  static {
+    Arrays.fill(SPACES, ' ');
+  }
+
+  private final String lineSeparator = System.getProperty("line.separator");
+  private char[] buffer = acquireBuffer();
+  private int count;
+  // State of the writer, like the EmitterWriter of yamlbeans tracks it
+  private int column;
+  private boolean whitespace;
+  private boolean indentation;
+
+  /**
+   * Writes a document containing our map into our buffer, replacing the previous one.
+   *
+   * @return true if the map could be written like yamlbeans would write it. If false, our buffer
+   * is empty.
+   */
+  public boolean emit(@NonNull final Map<?, ?> map) {
+    this.count = 0;
+    this.column = 0;
+    this.whitespace = true;
+    this.indentation = true;
+    try {
+      writeNode(map, -1, false);
+      // End of the document
+      writeIndent(0);
+      return true;
+    } catch (final UnsupportedData ex) {
+      this.count = 0;
+      return false;
+    }
+  }
+
+  /**
+   * Writes the last emitted document to a writer.
+   */
+  public void writeTo(@NonNull final Writer writer) throws IOException {
+    writer.write(this.buffer, 0, this.count);
+  }
+
+  @Override
+  public String toString() {
+    return new String(this.buffer, 0, this.count);
+  }
+
+  @Override
+  public void close() {
+    if (this.buffer != null) {
+      releaseBuffer(this.buffer);
+      this.buffer = null;
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Writing nodes
+  // ----------------------------------------------------------------------------------------------------
+
+  private void writeNode(final Object value, final int indent, final boolean mappingContext) {
+    if (value instanceof Map) {
+      final Map<?, ?> map = (Map<?, ?>) value;
+      if (map.isEmpty()) {
+        writeIndicator("{", true, true, false);
+        writeIndicator("}", false, false, false);
+      } else {
+        writeBlockMapping(map, increaseIndent(indent, false));
+      }
+    } else if (value instanceof Collection) {
+      final Collection<?> collection = (Collection<?>) value;
+      if (collection.isEmpty()) {
+        writeEmptySequence();
+      } else {
+        writeBlockSequence(
+            collection.iterator(),
+            increaseIndent(indent, mappingContext && !this.indentation));
+      }
+    } else if (value != null && value.getClass().isArray()) {
+      // yamlbeans tags elements of other arrays whose class isn't the component type
+      final Class<?> componentType = value.getClass().getComponentType();
+      if (!componentType.isPrimitive() && componentType != String.class) {
+        throw UnsupportedData.INSTANCE;
+      }
+      final int length = Array.getLength(value);
+      if (length == 0) {
+        writeEmptySequence();
+      } else {
+        writeBlockSequence(
+            new Iterator<Object>() {
+              private int index;
+
+              @Override
+              public boolean hasNext() {
+                return this.index < length;
+              }
+
+              @Override
+              public Object next() {
+                return Array.get(value, this.index++);
+              }
+            },
+            increaseIndent(indent, mappingContext && !this.indentation));
+      }
+    } else {
+      final String scalar = toScalar(value);
+      writeScalar(scalar, analyze(scalar), indent + INDENT_SIZE, false);
+    }
+  }
+
+  private void writeBlockMapping(final Map<?, ?> map, final int indent) {
+    for (final Map.Entry<?, ?> entry : map.entrySet()) {
+      writeIndent(indent);
+      final Object key = entry.getKey();
+      if (key == null || key instanceof Map || key instanceof Collection) {
+        throw UnsupportedData.INSTANCE;
+      }
+      final String scalar = toScalar(key);
+      final int analysis = analyze(scalar);
+      // yamlbeans would write a complex key, starting with '?'
+      if ((analysis & MULTILINE) != 0 || scalar.length() >= MAX_SIMPLE_KEY_LENGTH) {
+        throw UnsupportedData.INSTANCE;
+      }
+      writeScalar(scalar, analysis, indent + INDENT_SIZE, true);
+      writeIndicator(": ", false, true, false);
+      writeNode(entry.getValue(), indent, true);
+    }
+  }
+
+  private void writeBlockSequence(final Iterator<?> iterator, final int indent) {
+    while (iterator.hasNext()) {
+      writeIndent(indent);
+      writeIndicator("-", true, false, true);
+      writeNode(iterator.next(), indent, false);
+    }
+  }
+
+  private void writeEmptySequence() {
+    writeIndicator("[", true, true, false);
+    writeIndicator("]", false, false, false);
+  }
+
+  private static int increaseIndent(final int indent, final boolean indentless) {
+    if (indent == -1) {
+      return 0;
+    }
+    return indentless ? indent : indent + INDENT_SIZE;
+  }
+
+  /**
+   * @return The String yamlbeans would write for one of its scalar types.
+   */
+  private static String toScalar(final Object value) {
+    if (value == null || value instanceof String) {
+      return (String) value;
+    }
+    if (value instanceof Integer
+        || value instanceof Long
+        || value instanceof Double
+        || value instanceof Boolean
+        || value instanceof Float
+        || value instanceof Short
+        || value instanceof Byte
+        || value instanceof Character) {
+      return value.toString();
+    }
+    if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    throw UnsupportedData.INSTANCE;
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Writing scalars
+  // ----------------------------------------------------------------------------------------------------
+
+  private void writeScalar(
+      final String scalar,
+      final int analysis,
+      final int indent,
+      final boolean simpleKey) {
+    final boolean multiline = (analysis & MULTILINE) != 0;
+    if ((!simpleKey || (analysis & (EMPTY | MULTILINE)) == 0) && (analysis & ALLOW_PLAIN) != 0) {
+      writePlain(scalar, !simpleKey, indent);
+    } else if ((analysis & ALLOW_SINGLE_QUOTED) != 0 && !(simpleKey && multiline)) {
+      // yamlbeans mangles line breaks in single quoted scalars
+      if (multiline) {
+        throw UnsupportedData.INSTANCE;
+      }
+      writeSingleQuoted(scalar, !simpleKey, indent);
+    } else if (multiline && (analysis & ALLOW_BLOCK) != 0) {
+      writeLiteral(scalar, indent);
+    } else if (scalar.isEmpty()) {
+      writeIndicator("\"", true, false, false);
+      writeIndicator("\"", false, false, false);
+    } else {
+      throw UnsupportedData.INSTANCE;
+    }
+  }
+
+  private void writePlain(final String text, final boolean split, final int indent) {
+    if (text == null || text.isEmpty()) {
+      return;
+    }
+    if (!this.whitespace) {
+      write(' ');
+      this.column++;
+    }
+    this.whitespace = false;
+    this.indentation = false;
+
+    // Plain scalars have no line breaks, but long lines are wrapped at single spaces
+    final int length = text.length();
+    boolean spaces = false;
+    int start = 0;
+    for (int end = 0; end <= length; end++) {
+      final char c = end < length ? text.charAt(end) : 0;
+      if (spaces) {
+        if (c != ' ') {
+          if (start + 1 == end && this.column > WRAP_COLUMN && split) {
+            writeIndent(indent);
+            this.whitespace = false;
+            this.indentation = false;
+          } else {
+            writeColumns(text, start, end);
+          }
+          start = end;
+        }
+      } else if (c == 0 || c == ' ') {
+        writeColumns(text, start, end);
+        start = end;
+      }
+      if (c != 0) {
+        spaces = c == ' ';
+      }
+    }
+  }
+
+  private void writeSingleQuoted(final String text, final boolean split, final int indent) {
+    writeIndicator("'", true, false, false);
+    final int length = text.length();
+    boolean spaces = false;
+    int start = 0;
+    for (int end = 0; end <= length; end++) {
+      final char c = end < length ? text.charAt(end) : 0;
+      if (spaces) {
+        if (c != ' ') {
+          if (start + 1 == end
+              && this.column > WRAP_COLUMN
+              && split
+              && start != 0
+              && end != length) {
+            writeIndent(indent);
+          } else {
+            writeColumns(text, start, end);
+          }
+          start = end;
+        }
+      } else if (c == 0 || c == ' ' || c == '\'') {
+        writeColumns(text, start, end);
+        start = end;
+      }
+      if (c == '\'') {
+        write("''");
+        this.column += 2;
+        start = end + 1;
+      }
+      if (c != 0) {
+        spaces = c == ' ';
+      }
+    }
+    writeIndicator("'", false, false, false);
+  }
+
+  private void writeLiteral(final String text, final int indent) {
+    // yamlbeans only looks at the second last char
+    writeIndicator(text.charAt(text.length() - 2) == '\n' ? "|" : "|-", true, false, false);
+    writeIndent(indent);
+
+    final int length = text.length();
+    boolean breaks = false;
+    int start = 0;
+    for (int end = 0; end <= length; end++) {
+      final char c = end < length ? text.charAt(end) : 0;
+      if (breaks) {
+        if (c != '\n') {
+          for (int i = start; i < end; i++) {
+            writeLineBreak();
+          }
+          if (c != 0) {
+            writeIndent(indent);
+          }
+          start = end;
+        }
+      } else if (c == 0 || c == '\n') {
+        // yamlbeans doesn't count the columns of literal text
+        write(text, start, end);
+        if (c == 0) {
+          writeLineBreak();
+        }
+        start = end;
+      }
+      if (c != 0) {
+        breaks = c == '\n';
+      }
+    }
+  }
+
+  /**
+   * Scans a scalar for the styles it can be written in, the same way the ScalarAnalysis of
+   * yamlbeans does it.
+   */
+  private static int analyze(final String scalar) {
+    if (scalar == null) {
+      return EMPTY | ALLOW_PLAIN | ALLOW_SINGLE_QUOTED;
+    }
+    final int length = scalar.length();
+    if (length == 0) {
+      return 0;
+    }
+
+    boolean indicators = scalar.equals("---") || scalar.equals("...");
+    boolean lineBreaks = false;
+    boolean leadingSpaces = false;
+    boolean leadingBreaks = false;
+    boolean trailingSpaces = false;
+    boolean trailingBreaks = false;
+    boolean inlineBreaks = false;
+    boolean inlineBreaksSpaces = false;
+    boolean mixedBreaksSpaces = false;
+
+    boolean precededBySpace = true;
+    boolean followedBySpace = length == 1 || NULL_BL_T_LINEBR.indexOf(scalar.charAt(1)) != -1;
+    // The current run of whitespace
+    boolean spaces = false;
+    boolean breaks = false;
+    boolean mixed = false;
+    boolean leading = false;
+
+    for (int index = 0; index < length; index++) {
+      final char c = scalar.charAt(index);
+      if (c < ' '
+          ? c != '\n' && c != '\t'
+          : c >= '\u007f' && (c <= '\u009f' || c == '\u2028' || c == '\u2029' || c == '\ufeff')) {
+        throw UnsupportedData.INSTANCE;
+      }
+
+      if (index == 0) {
+        if (SPECIAL_INDICATOR.indexOf(c) != -1
+            || ((c == '?' || c == ':' || c == '-') && followedBySpace)) {
+          indicators = true;
+        }
+      } else if ((c == ':' && followedBySpace) || (c == '#' && precededBySpace)) {
+        indicators = true;
+      }
+
+      if (c == ' ' || c == '\n') {
+        lineBreaks |= c == '\n';
+        if (spaces && breaks) {
+          mixed |= c != ' ';
+        } else if (spaces) {
+          if (c != ' ') {
+            breaks = true;
+            mixed = true;
+          }
+        } else if (breaks) {
+          spaces |= c == ' ';
+        } else {
+          leading = index == 0;
+          spaces = c == ' ';
+          breaks = c != ' ';
+        }
+      } else if (spaces || breaks) {
+        if (leading) {
+          if (spaces && breaks) {
+            mixedBreaksSpaces = true;
+          } else if (spaces) {
+            leadingSpaces = true;
+          } else {
+            leadingBreaks = true;
+          }
+        } else if (mixed) {
+          mixedBreaksSpaces = true;
+        } else if (spaces && breaks) {
+          inlineBreaksSpaces = true;
+        } else if (breaks) {
+          inlineBreaks = true;
+        }
+        spaces = breaks = mixed = leading = false;
+      }
+
+      if ((spaces || breaks) && index == length - 1) {
+        if (spaces && breaks) {
+          mixedBreaksSpaces = true;
+        } else if (spaces) {
+          trailingSpaces = true;
+          leadingSpaces |= leading;
+        } else {
+          trailingBreaks = true;
+          leadingBreaks |= leading;
+        }
+        spaces = breaks = mixed = leading = false;
+      }
+
+      precededBySpace = NULL_BL_T_LINEBR.indexOf(c) != -1;
+      followedBySpace = index + 2 >= length
+                        || NULL_BL_T_LINEBR.indexOf(scalar.charAt(index + 2)) != -1;
+    }
+
+    boolean allowPlain = !(indicators || lineBreaks);
+    boolean allowSingleQuoted = true;
+    boolean allowBlock = true;
+    if (leadingSpaces || leadingBreaks || trailingSpaces) {
+      allowPlain = allowBlock = false;
+    }
+    if (trailingBreaks) {
+      allowPlain = allowSingleQuoted = false;
+    }
+    if (inlineBreaksSpaces || inlineBreaks) {
+      allowPlain = allowSingleQuoted = false;
+    }
+    if (mixedBreaksSpaces) {
+      allowPlain = allowSingleQuoted = allowBlock = false;
+    }
+
+    return (lineBreaks ? MULTILINE : 0)
+           | (allowPlain ? ALLOW_PLAIN : 0)
+           | (allowSingleQuoted ? ALLOW_SINGLE_QUOTED : 0)
+           | (allowBlock ? ALLOW_BLOCK : 0);
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Writing like the EmitterWriter of yamlbeans
+  // ----------------------------------------------------------------------------------------------------
+
+  private void writeIndicator(
+      final String indicator,
+      final boolean needWhitespace,
+      final boolean whitespace,
+      final boolean indentation) {
+    if (!this.whitespace && needWhitespace) {
+      write(' ');
+      this.column++;
+    }
+    this.whitespace = whitespace;
+    this.indentation &= indentation;
+    writeColumns(indicator, 0, indicator.length());
+  }
+
+  private void writeIndent(final int indent) {
+    if (!this.indentation
+        || this.column > indent
+        || (this.column == indent && !this.whitespace)) {
+      writeLineBreak();
+    }
+    if (this.column < indent) {
+      this.whitespace = true;
+      int spaces = indent - this.column;
+      while (spaces > 0) {
+        final int length = Math.min(spaces, SPACES.length);
+        ensureCapacity(length);
+        System.arraycopy(SPACES, 0, this.buffer, this.count, length);
+        this.count += length;
+        spaces -= length;
+      }
+      this.column = indent;
+    }
+  }
+
+  private void writeLineBreak() {
+    this.whitespace = true;
+    this.indentation = true;
+    this.column = 0;
+    write(this.lineSeparator);
+  }
+
+  private void writeColumns(final String string, final int start, final int end) {
+    write(string, start, end);
+    this.column += end - start;
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Accessing our buffer
+  // ----------------------------------------------------------------------------------------------------
+
+  private void write(final char c) {
+    ensureCapacity(1);
+    this.buffer[this.count++] = c;
+  }
+
+  private void write(final String string) {
+    write(string, 0, string.length());
+  }
+
+  private void write(final String string, final int start, final int end) {
+    ensureCapacity(end - start);
+    string.getChars(start, end, this.buffer, this.count);
+    this.count += end - start;
+  }
+
+  private void ensureCapacity(final int length) {
+    if (this.count + length > this.buffer.length) {
+      this.buffer = Arrays.copyOf(
+          this.buffer,
+          Math.max(this.buffer.length * 2, this.count + length));
+    }
+  }
+
+  private static char[] acquireBuffer() {
+    final char[] buffer = bufferPool.poll();
+    if (buffer == null) {
+      return new char[BUFFER_SIZE];
+    }
+    pooledBuffers.decrementAndGet();
+    return buffer;
+  }
+
+  private static void releaseBuffer(final char[] buffer) {
+    if (buffer.length > MAX_POOLED_BUFFER_SIZE) {
+      return;
+    }
+    if (pooledBuffers.incrementAndGet() > MAX_POOLED_BUFFERS) {
+      pooledBuffers.decrementAndGet();
+      return;
+    }
+    bufferPool.offer(buffer);
+  }
+
+  /**
+   * Thrown internally if our data can't be written like yamlbeans would write it. Preallocated, as
+   * it only controls our flow.
+   */
+  private static final class UnsupportedData extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+    private static final UnsupportedData INSTANCE = new UnsupportedData();
+
+    private UnsupportedData() {
+      super(null, null, false, false);
+    }
+  }
+}
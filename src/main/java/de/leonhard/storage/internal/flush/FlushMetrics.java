@@ -0,0 +1,50 @@
+package de.leonhard.storage.internal.flush;
+
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Snapshot of the state of a {@link FlushScheduler}, see {@link FlushScheduler#getMetrics()}
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class FlushMetrics {
+
+  /**
+   * Files waiting for their write, excluding the ones being written
+   */
+  private final int queuedFiles;
+  /**
+   * Estimated size of the queued files, by the size of their last write
+   */
+  private final long queuedBytes;
+  private final int activeWriters;
+  /**
+   * Writes done by the scheduler
+   */
+  private final long flushedFiles;
+  /**
+   * Files written without being queued, as the queue was full
+   */
+  private final long rejectedFiles;
+  private final long failedFlushes;
+  private final long totalLatencyNanos;
+  private final long maxLatencyNanos;
+
+  /**
+   * @return Average time from the first unwritten change of a file to the end of its write.
+   */
+  public long getAverageLatency(@NonNull final TimeUnit timeUnit) {
+    return this.flushedFiles == 0
+        ? 0
+        : timeUnit.convert(this.totalLatencyNanos / this.flushedFiles, TimeUnit.NANOSECONDS);
+  }
+
+  public long getMaxLatency(@NonNull final TimeUnit timeUnit) {
+    return timeUnit.convert(this.maxLatencyNanos, TimeUnit.NANOSECONDS);
+  }
+}
@@ -0,0 +1,439 @@
+package de.leonhard.storage.internal.flush;
+
+import de.leonhard.storage.internal.FlatFile;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.util.FileUtils;
+import de.leonhard.storage.util.Valid;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes the changes of FlatFiles using {@link de.leonhard.storage.internal.settings.WriteSettings#SCHEDULED}
+ * in the background.
+ *
+ * <p>Files are queued by their {@link FlatFile#getFlushPriority()} & the age of their first
+ * unwritten change. A file is queued at most once, all changes until its write are written
+ * together. Changes made while a file is written queue it again afterwards. At most {@link
+ * #getMaxWriters()} files are written at the same time, using our executor.
+ *
+ * <p>If the queue exceeds its budget of files or bytes, the thread making a change writes its
+ * file itself. Producers are slowed down to the speed of our disk that way, instead of letting the
+ * queue grow without bound.
+ *
+ * <p>Files whose write failed stay dirty & are queued again by their next change or by {@link
+ * #flushAll()}. Failures are created using the {@link LightningProviders#exceptionHandler()} &
+ * counted in {@link FlushMetrics#getFailedFlushes()}.
+ *
+ * <p>A {@link #cooperative(int, long, long) cooperative} scheduler has no writers of its own. Its
+ * files are written whenever the host calls {@link #runFor(Duration)}, for example once per tick
+ * of a game loop. Changes never write on the thread making them, files over budget are written
+ * asynchronously instead.
+ */
+public final class FlushScheduler {
+
+  @Nullable
+  private final Executor executor;
+  @Getter
+  private final boolean cooperative;
+  @Getter
+  private final int maxWriters;
+  @Getter
+  private final int maxQueuedFiles;
+  @Getter
+  private final long maxQueuedBytes;
+  // Files of at least this size are written asynchronously by runFor()
+  @Getter
+  private final long asyncBytes;
+
+  // Queued & currently written files
+  private final Map<FlatFile, Pending> pending = new IdentityHashMap<>();
+  private final Queue<Pending> queue = new PriorityQueue<>(
+      Comparator
+          .comparingInt((Pending next) -> -next.priority)
+          .thenComparingLong(next -> next.sequence));
+  // Files whose last write failed, waiting for a retry
+  private final List<Pending> failed = new ArrayList<>();
+  private long sequence;
+  private boolean shutdown;
+  private long queuedBytes;
+  private int activeWriters;
+  private long flushedFiles;
+  private long rejectedFiles;
+  private long failedFlushes;
+  private long totalLatencyNanos;
+  private long maxLatencyNanos;
+
+  /**
+   * @param executor       Executor running our writers.
+   * @param maxWriters     Maximum amount of files written at the same time.
+   * @param maxQueuedFiles Maximum amount of files waiting for their write.
+   * @param maxQueuedBytes Maximum estimated size of the files waiting for their write.
+   */
+  public FlushScheduler(
+      @NonNull final Executor executor,
+      final int maxWriters,
+      final int maxQueuedFiles,
+      final long maxQueuedBytes) {
+    this(executor, maxWriters, maxQueuedFiles, maxQueuedBytes, Long.MAX_VALUE);
+    Valid.checkBoolean(maxWriters > 0, "FlushScheduler needs at least one writer");
+  }
+
+  private FlushScheduler(
+      @Nullable final Executor executor,
+      final int maxWriters,
+      final int maxQueuedFiles,
+      final long maxQueuedBytes,
+      final long asyncBytes) {
+    Valid.checkBoolean(maxQueuedFiles > 0, "Queue of FlushScheduler mustn't be empty");
+    Valid.checkBoolean(maxQueuedBytes > 0, "Queue of FlushScheduler mustn't be empty");
+    this.executor = executor;
+    this.cooperative = executor == null;
+    this.maxWriters = maxWriters;
+    this.maxQueuedFiles = maxQueuedFiles;
+    this.maxQueuedBytes = maxQueuedBytes;
+    this.asyncBytes = asyncBytes;
+  }
+
+  /**
+   * Creates a scheduler without writers of its own, writing files only in {@link
+   * #runFor(Duration)}.
+   *
+   * @param maxQueuedFiles Maximum amount of files waiting for their write.
+   * @param maxQueuedBytes Maximum estimated size of the files waiting for their write.
+   * @param asyncBytes     Files of at least this size are only copied by runFor(), their
+   *                       serialization & write happen on our {@link de.leonhard.storage.internal.provider.LightningProviders#ioExecutor()}.
+   */
+  public static FlushScheduler cooperative(
+      final int maxQueuedFiles,
+      final long maxQueuedBytes,
+      final long asyncBytes) {
+    return new FlushScheduler(null, 0, maxQueuedFiles, maxQueuedBytes, asyncBytes);
+  }
+
+  /**
+   * Queues the file for a write of its changes, unless it is queued already. If the queue is
+   * full or we were shut down, the file is written immediately by the calling thread.
+   */
+  public void schedule(@NonNull final FlatFile flatFile) {
+    Pending queued = null;
+    boolean startWriter = false;
+    synchronized (this) {
+      Pending scheduled = this.pending.get(flatFile);
+      if (scheduled != null && !scheduled.failed) {
+        // Changes made during a write need another one
+        scheduled.rescheduled |= scheduled.writing;
+        return;
+      }
+      if (scheduled != null) {
+        // Retry the failed write together with the new change
+        this.failed.remove(scheduled);
+        this.pending.remove(flatFile);
+        scheduled.failed = false;
+      } else {
+        scheduled = new Pending(flatFile);
+      }
+
+      final long bytes = estimateBytes(flatFile);
+      if (this.shutdown) {
+        // Written by the caller
+      } else if (this.queue.size() < this.maxQueuedFiles
+          && (this.queue.isEmpty() || this.queuedBytes + bytes <= this.maxQueuedBytes)) {
+        enqueue(scheduled, bytes);
+        queued = scheduled;
+        if (!this.cooperative && this.activeWriters < this.maxWriters) {
+          this.activeWriters++;
+          startWriter = true;
+        }
+      } else {
+        this.rejectedFiles++;
+      }
+    }
+
+    if (queued == null && this.cooperative) {
+      flatFile.saveAsync();
+    } else if (queued == null) {
+      flatFile.flush();
+    } else if (startWriter) {
+      try {
+        this.executor.execute(this::runWriter);
+      } catch (final RejectedExecutionException ex) {
+        // The caller might hold the lock of its file, so only its own file is written here. Other
+        // queued files are left to the next writer started.
+        final Pending own = claim(queued);
+        if (own != null) {
+          throwIfFailed(write(own));
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes queued files using the calling thread until the budget is used up, the most important
+   * & oldest ones first. Files of at least {@link #getAsyncBytes()} are only copied, they are
+   * serialized & written asynchronously. A single write might exceed the budget.
+   *
+   * @param budget Time to spend, checked before each file.
+   * @return Amount of files written or handed to asynchronous writes.
+   */
+  public int runFor(@NonNull final Duration budget) {
+    final long deadline = System.nanoTime() + budget.toNanos();
+    RuntimeException failure = null;
+    int flushed = 0;
+    while (System.nanoTime() - deadline < 0) {
+      final Pending next = poll();
+      if (next == null) {
+        break;
+      }
+      if (next.bytes >= this.asyncBytes) {
+        writeAsync(next);
+      } else {
+        failure = addFailure(failure, write(next));
+      }
+      flushed++;
+    }
+    throwIfFailed(failure);
+    return flushed;
+  }
+
+  /**
+   * Writes all queued files using the calling thread & waits for the writes already running. Files
+   * whose write failed before are retried once. Should be called before shutting down, as our
+   * writers might be daemon threads.
+   */
+  public void flushAll() {
+    RuntimeException failure = null;
+    synchronized (this) {
+      for (final Pending retried : this.failed) {
+        retried.failed = false;
+        enqueue(retried, estimateBytes(retried.flatFile));
+      }
+      this.failed.clear();
+    }
+
+    while (true) {
+      final Pending next;
+      synchronized (this) {
+        next = poll();
+        if (next == null) {
+          // Only failed files are left or files are still written by our writers
+          if (this.pending.size() == this.failed.size()) {
+            break;
+          }
+          try {
+            wait();
+          } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            break;
+          }
+          continue;
+        }
+      }
+      failure = addFailure(failure, write(next));
+    }
+    throwIfFailed(failure);
+  }
+
+  /**
+   * Stops queueing files & writes the queued ones like {@link #flushAll()}, waiting for the writes
+   * already running. Files scheduled afterwards are written by the calling thread, writers still
+   * running find nothing left to write.
+   *
+   * @param successor Scheduler retrying the files whose write failed, null to leave them dirty
+   *                  until their next change.
+   */
+  public void shutdown(@Nullable final FlushScheduler successor) {
+    synchronized (this) {
+      this.shutdown = true;
+    }
+
+    try {
+      flushAll();
+    } finally {
+      final List<FlatFile> failedFiles = new ArrayList<>();
+      synchronized (this) {
+        for (final Pending next : this.failed) {
+          this.pending.remove(next.flatFile);
+          failedFiles.add(next.flatFile);
+        }
+        this.failed.clear();
+      }
+      if (successor != null) {
+        failedFiles.forEach(successor::schedule);
+      }
+    }
+  }
+
+  public synchronized FlushMetrics getMetrics() {
+    return new FlushMetrics(
+        this.queue.size(),
+        this.queuedBytes,
+        this.activeWriters,
+        this.flushedFiles,
+        this.rejectedFiles,
+        this.failedFlushes,
+        this.totalLatencyNanos,
+        this.maxLatencyNanos);
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Internal stuff
+  // ----------------------------------------------------------------------------------------------------
+
+  private void runWriter() {
+    RuntimeException failure = null;
+    Pending next;
+    while ((next = pollForWriter()) != null) {
+      failure = addFailure(failure, write(next));
+    }
+    // Reported by our executor, after the writer stopped
+    throwIfFailed(failure);
+  }
+
+  // A writer stops within the same lock, so no file is queued without one running
+  private synchronized Pending pollForWriter() {
+    final Pending next = poll();
+    if (next == null) {
+      this.activeWriters--;
+    }
+    return next;
+  }
+
+  // Takes the file out of the queue, unless a writer took it already
+  @Nullable
+  private synchronized Pending claim(final Pending queued) {
+    this.activeWriters--;
+    if (!this.queue.remove(queued)) {
+      return null;
+    }
+    queued.writing = true;
+    this.queuedBytes -= queued.bytes;
+    return queued;
+  }
+
+  private synchronized Pending poll() {
+    final Pending next = this.queue.poll();
+    if (next != null) {
+      next.writing = true;
+      this.queuedBytes -= next.bytes;
+    }
+    return next;
+  }
+
+  /**
+   * @return The failure of the write, null if it succeeded.
+   */
+  @Nullable
+  private RuntimeException write(final Pending next) {
+    try {
+      next.flatFile.flushChecked();
+    } catch (final IOException | RuntimeException ex) {
+      final RuntimeException failure = LightningProviders.exceptionHandler().create(
+          ex,
+          "Exception flushing file '" + next.flatFile.getName() + "'",
+          "In '" + FileUtils.getParentDirPath(next.flatFile.getFile()) + "'");
+      finish(next, failure);
+      return failure;
+    }
+    finish(next, null);
+    return null;
+  }
+
+  private void writeAsync(final Pending next) {
+    try {
+      // Takes a snapshot of our data, the rest happens on the ioExecutor
+      next.flatFile.saveAsync().whenComplete((result, throwable) -> finish(next, throwable));
+    } catch (final RuntimeException ex) {
+      finish(next, ex);
+    }
+  }
+
+  // Asynchronous failures were already created by the exceptionHandler in FlatFile.saveAsync()
+  private synchronized void finish(final Pending next, @Nullable final Throwable throwable) {
+    next.writing = false;
+    if (throwable != null) {
+      // Our file is still dirty, it is retried later on
+      this.failedFlushes++;
+      next.rescheduled = false;
+      next.failed = true;
+      this.failed.add(next);
+      notifyAll();
+      return;
+    }
+
+    final long latency = System.nanoTime() - next.since;
+    this.flushedFiles++;
+    this.totalLatencyNanos += latency;
+    this.maxLatencyNanos = Math.max(this.maxLatencyNanos, latency);
+
+    if (next.rescheduled) {
+      next.rescheduled = false;
+      next.since = System.nanoTime();
+      enqueue(next, estimateBytes(next.flatFile));
+    } else {
+      this.pending.remove(next.flatFile);
+    }
+    notifyAll();
+  }
+
+  @Nullable
+  private static RuntimeException addFailure(
+      @Nullable final RuntimeException failure,
+      @Nullable final RuntimeException next) {
+    if (failure == null) {
+      return next;
+    }
+    if (next != null) {
+      failure.addSuppressed(next);
+    }
+    return failure;
+  }
+
+  private static void throwIfFailed(@Nullable final RuntimeException failure) {
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void enqueue(final Pending next, final long bytes) {
+    next.bytes = bytes;
+    next.priority = next.flatFile.getFlushPriority();
+    next.sequence = this.sequence++;
+    this.pending.put(next.flatFile, next);
+    this.queue.add(next);
+    this.queuedBytes += bytes;
+  }
+
+  private long estimateBytes(final FlatFile flatFile) {
+    return Math.max(1, flatFile.getFile().length());
+  }
+
+  private static final class Pending {
+
+    private final FlatFile flatFile;
+    // Time of the first change which isn't written yet
+    private long since = System.nanoTime();
+    private long bytes;
+    private int priority;
+    // Order of files with the same priority
+    private long sequence;
+    private boolean writing;
+    private boolean rescheduled;
+    private boolean failed;
+
+    private Pending(final FlatFile flatFile) {
+      this.flatFile = flatFile;
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package de.leonhard.storage.internal.provider;
+
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reads & writes the files of one {@link FileType}. Allows using other engines than the built-in
+ * ones, for example Jackson for JSON or SnakeYAML for YAML.
+ *
+ * <p>Register your own using {@link LightningProviders#formatCodec(FormatCodec)} or by listing it
+ * in META-INF/services/de.leonhard.storage.internal.provider.FormatCodec. Codecs found by the
+ * ServiceLoader need a public no-args constructor. Codecs are shared between all FlatFiles of their
+ * FileType and must be Thread safe.
+ */
+public abstract class FormatCodec {
+
+  public abstract FileType getFileType();
+
+  /**
+   * Reads the content of a file.
+   *
+   * @param file     The file to read.
+   * @param dataType DataType providing the maps & lists to create.
+   */
+  public abstract Map<String, Object> read(File file, DataType dataType) throws IOException;
+
+  /**
+   * Writes our data to a file, replacing its content.
+   */
+  public abstract void write(Map<String, Object> data, File file) throws IOException;
+}
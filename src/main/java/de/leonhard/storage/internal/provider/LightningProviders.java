@@ -1,6 +1,20 @@
 package de.leonhard.storage.internal.provider;
 
 import com.esotericsoftware.yamlbeans.YamlConfig;
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.editor.binary.BinaryCodec;
+import de.leonhard.storage.internal.editor.json.JsonCodec;
+import de.leonhard.storage.internal.editor.toml.TomlCodec;
+import de.leonhard.storage.internal.editor.yaml.WriteConfigs;
+import de.leonhard.storage.internal.editor.yaml.YamlCodec;
+import de.leonhard.storage.internal.flush.FlushScheduler;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import lombok.experimental.UtilityClass;
@@ -22,6 +36,14 @@ public class LightningProviders {
   private InputStreamProvider inputStreamProvider;
   @Setter
   private ExceptionHandler exceptionHandler;
+  @Setter
+  private Executor ioExecutor;
+  // Replaced while other threads schedule their files, see LightningFlusher
+  private volatile FlushScheduler flushScheduler;
+  private final Map<FileType, FormatCodec> formatCodecs = new ConcurrentHashMap<>();
+  private YamlConfig defaultYamlConfig;
+  // Never handed out, so the settings of our default YamlConfig can be compared against it
+  private final YamlConfig unmodifiedYamlConfig = createYamlConfig();
 
   public MapProvider mapProvider() {
 
@@ -37,6 +59,10 @@ public class LightningProviders {
     if (yamlConfig != null) {
       return yamlConfig;
     }
+    return yamlConfig = defaultYamlConfig = createYamlConfig();
+  }
+
+  private YamlConfig createYamlConfig() {
     final YamlConfig config = new YamlConfig();
     // Use unicode
     config.writeConfig.setEscapeUnicode(false);
@@ -44,7 +70,17 @@ public class LightningProviders {
     config.writeConfig.setAutoAnchor(false);
     // Never use write the classname above keys
     config.writeConfig.setWriteClassname(YamlConfig.WriteClassName.NEVER);
-    return yamlConfig = config;
+    return config;
+  }
+
+  /**
+   * @return true if no other YamlConfig than our default one has been set & its write settings
+   * weren't modified in place. Only in this case our YAML can be written without yamlbeans.
+   */
+  public boolean hasDefaultYamlConfig() {
+    final YamlConfig config = yamlConfig();
+    return config == defaultYamlConfig
+        && WriteConfigs.sameSettings(config.writeConfig, unmodifiedYamlConfig.writeConfig);
   }
 
   public InputStreamProvider inputStreamProvider() {
@@ -64,4 +100,90 @@ public class LightningProviders {
     return exceptionHandler = new ExceptionHandler() {
     };
   }
+
+  /**
+   * Executor running the asynchronous I/O of our FlatFiles, see {@link
+   * de.leonhard.storage.internal.FlatFile#saveAsync()}. Defaults to a cached pool of daemon
+   * threads.
+   */
+  public Executor ioExecutor() {
+    if (ioExecutor != null) {
+      return ioExecutor;
+    }
+
+    final AtomicInteger threadCount = new AtomicInteger();
+    return ioExecutor = Executors.newCachedThreadPool(runnable -> {
+      final Thread thread = new Thread(runnable, "Lightning-IO-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Scheduler writing the changes of FlatFiles using {@link de.leonhard.storage.internal.settings.WriteSettings#SCHEDULED}.
+   * Defaults to 4 writers on our {@link #ioExecutor()} & a queue of up to 1024 files or 64MB.
+   */
+  public synchronized FlushScheduler flushScheduler() {
+    if (flushScheduler != null) {
+      return flushScheduler;
+    }
+
+    return flushScheduler = new FlushScheduler(ioExecutor(), 4, 1024, 64 * 1024 * 1024);
+  }
+
+  /**
+   * Replaces the scheduler used by all FlatFiles scheduling their changes afterwards. Files queued
+   * by the previous one aren't moved, see {@link FlushScheduler#shutdown(FlushScheduler)}.
+   *
+   * @param flushScheduler The new scheduler, null to use our default one.
+   */
+  public synchronized void flushScheduler(final FlushScheduler flushScheduler) {
+    LightningProviders.flushScheduler = flushScheduler;
+  }
+
+  /**
+   * Registers a codec, replacing the current one of its FileType. Affects all FlatFiles reading or
+   * writing afterwards.
+   */
+  public void formatCodec(@NonNull final FormatCodec formatCodec) {
+    formatCodecs.put(formatCodec.getFileType(), formatCodec);
+  }
+
+  /**
+   * Codec used to read & write files of the given FileType. If none was registered using {@link
+   * #formatCodec(FormatCodec)}, the first one found by the {@link ServiceLoader} is used, falling
+   * back to our built-in one.
+   */
+  public FormatCodec formatCodec(@NonNull final FileType fileType) {
+    final FormatCodec formatCodec = formatCodecs.get(fileType);
+    if (formatCodec != null) {
+      return formatCodec;
+    }
+
+    return formatCodecs.computeIfAbsent(fileType, type -> {
+      for (final FormatCodec loaded : ServiceLoader.load(
+          FormatCodec.class,
+          LightningProviders.class.getClassLoader())) {
+        if (loaded.getFileType() == type) {
+          return loaded;
+        }
+      }
+      return defaultFormatCodec(type);
+    });
+  }
+
+  private FormatCodec defaultFormatCodec(final FileType fileType) {
+    switch (fileType) {
+      case JSON:
+        return new JsonCodec();
+      case YAML:
+        return new YamlCodec();
+      case TOML:
+        return new TomlCodec();
+      case LBIN:
+        return new BinaryCodec();
+      default:
+        throw new IllegalArgumentException("No codec for FileType " + fileType);
+    }
+  }
 }
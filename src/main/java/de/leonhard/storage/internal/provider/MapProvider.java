@@ -1,16 +1,31 @@
 package de.leonhard.storage.internal.provider;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import de.leonhard.storage.util.CompactMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
+/**
+ * Provides the Map/List implementations for every layer of our data, including the maps & lists
+ * created by our parsers. Register your own using {@link LightningProviders#mapProvider(MapProvider)}
+ */
 public abstract class MapProvider {
 
   public Map<String, Object> getMapImplementation() {
-    return new HashMap<>();
+    return new CompactMap<>();
   }
 
   public Map<String, Object> getSortedMapImplementation() {
-    return new LinkedHashMap<>();
+    return new CompactMap<>();
+  }
+
+  public NavigableMap<String, Object> getNavigableMapImplementation() {
+    return new TreeMap<>();
+  }
+
+  public List<Object> getListImplementation() {
+    return new ArrayList<>();
   }
 }
@@ -1,7 +1,7 @@
 package de.leonhard.storage.internal.settings;
 
 import de.leonhard.storage.internal.provider.LightningProviders;
-import de.leonhard.storage.internal.provider.MapProvider;
+import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 
@@ -13,29 +13,42 @@ public enum DataType {
   SORTED {
     @Override
     public Map<String, Object> getMapImplementation() {
-      return mapProvider.getSortedMapImplementation();
+      return LightningProviders.mapProvider().getSortedMapImplementation();
     }
   },
 
   UNSORTED {
     @Override
     public Map<String, Object> getMapImplementation() {
-      return mapProvider.getMapImplementation();
+      return LightningProviders.mapProvider().getMapImplementation();
     }
-  };
+  },
 
-  private static final MapProvider mapProvider = LightningProviders.mapProvider();
+  /**
+   * Keys are kept in their natural order in every layer, which allows range and prefix scans. See
+   * {@link de.leonhard.storage.internal.FileData#range(String, String)}
+   */
+  NAVIGABLE {
+    @Override
+    public Map<String, Object> getMapImplementation() {
+      return LightningProviders.mapProvider().getNavigableMapImplementation();
+    }
+  };
 
   public static DataType forConfigSetting(final ConfigSettings configSettings) {
     // Only Configs needs the preservation of the order of the keys
     if (ConfigSettings.PRESERVE_COMMENTS.equals(configSettings)) {
       return SORTED;
     }
-    // In all other cases using the normal HashMap is better to save memory.
+    // In all other cases the order of the keys is irrelevant
     return UNSORTED;
   }
 
   public Map<String, Object> getMapImplementation() {
     throw new AbstractMethodError("Not implemented");
   }
+
+  public List<Object> getListImplementation() {
+    return LightningProviders.mapProvider().getListImplementation();
+  }
 }
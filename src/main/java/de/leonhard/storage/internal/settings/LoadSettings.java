@@ -0,0 +1,15 @@
+package de.leonhard.storage.internal.settings;
+
+/**
+ * An Enum defining when the content of a FlatFile is read for the first time
+ */
+public enum LoadSettings {
+  /**
+   * Our file is read while creating the FlatFile
+   */
+  EAGER,
+  /**
+   * Creating the FlatFile only creates our file if needed. Its content is read on the first access
+   */
+  LAZY
+}
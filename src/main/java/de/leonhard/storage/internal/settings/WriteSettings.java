@@ -0,0 +1,23 @@
+package de.leonhard.storage.internal.settings;
+
+/**
+ * An Enum defining when changes of a FlatFile are written to its file
+ */
+public enum WriteSettings {
+  /**
+   * Every change is written immediately
+   */
+  AUTOMATICALLY,
+  /**
+   * Changes are only written on {@link de.leonhard.storage.internal.FlatFile#flush()} or {@link
+   * de.leonhard.storage.internal.FlatFile#write()}
+   */
+  MANUALLY,
+  /**
+   * Changes are written in the background by the process-wide {@link
+   * de.leonhard.storage.internal.flush.FlushScheduler}, see {@link
+   * de.leonhard.storage.internal.provider.LightningProviders#flushScheduler()}. Several changes of
+   * a file before its write are written at once.
+   */
+  SCHEDULED
+}
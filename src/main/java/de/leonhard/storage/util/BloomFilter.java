@@ -0,0 +1,124 @@
+package de.leonhard.storage.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.Getter;
+
+/**
+ * A simple Bloom filter over Strings. Used in {@link de.leonhard.storage.internal.FileData} to
+ * answer lookups of keys which are definitely not present without walking the nested maps.
+ *
+ * <p>False negatives are impossible, false positives happen with roughly the configured rate as
+ * long as the number of added elements stays below the expected count.
+ *
+ * <p>Elements can be added while others are looked up from other threads, an element is found as
+ * soon as its put() returned. Only {@link #clear()} isn't atomic, a cleared filter shouldn't be
+ * shared.
+ */
+public class BloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray bits;
+  @Getter
+  private final long bitSize;
+  @Getter
+  private final int hashFunctions;
+
+  /**
+   * Creates a Bloom filter sized for the given amount of elements and false-positive rate.
+   *
+   * @param expectedElements  Amount of elements we expect to add.
+   * @param falsePositiveRate Rate of false positives we accept (0 < rate < 1).
+   */
+  public BloomFilter(final int expectedElements, final double falsePositiveRate) {
+    this(
+        optimalBitSize(expectedElements, falsePositiveRate),
+        optimalHashFunctions(expectedElements, falsePositiveRate));
+  }
+
+  /**
+   * Creates a Bloom filter with a fixed memory footprint.
+   *
+   * @param bitSize       Amount of bits to use. Memory used is roughly bitSize / 8 bytes.
+   * @param hashFunctions Amount of hash functions to apply per element.
+   */
+  public BloomFilter(final long bitSize, final int hashFunctions) {
+    Valid.checkBoolean(bitSize > 0, "Size of BloomFilter must be positive");
+    Valid.checkBoolean(hashFunctions > 0, "BloomFilter needs at least one hash function");
+    this.bits = new AtomicLongArray((int) ((bitSize + 63) >>> 6));
+    this.bitSize = (long) this.bits.length() << 6;
+    this.hashFunctions = hashFunctions;
+  }
+
+  private static long optimalBitSize(final int expectedElements, final double falsePositiveRate) {
+    Valid.checkBoolean(expectedElements > 0, "Expected elements must be positive");
+    Valid.checkBoolean(
+        falsePositiveRate > 0 && falsePositiveRate < 1,
+        "False positive rate must be between 0 and 1");
+    return Math.max(64, (long) Math.ceil(
+        -expectedElements * Math.log(falsePositiveRate) / (LN2 * LN2)));
+  }
+
+  private static int optimalHashFunctions(
+      final int expectedElements,
+      final double falsePositiveRate) {
+    final double bitsPerElement =
+        (double) optimalBitSize(expectedElements, falsePositiveRate) / expectedElements;
+    return Math.max(1, (int) Math.round(bitsPerElement * LN2));
+  }
+
+  // FNV-1a over the chars followed by the murmur3 finalizer
+  private static long hash(final CharSequence value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  public void put(final CharSequence value) {
+    final long hash = hash(value);
+    final int hash1 = (int) hash;
+    final int hash2 = (int) (hash >>> 32);
+
+    for (int i = 1; i <= this.hashFunctions; i++) {
+      final long index = ((hash1 + (long) i * hash2) & Long.MAX_VALUE) % this.bitSize;
+      final int word = (int) (index >>> 6);
+      final long mask = 1L << index;
+      long bits;
+      while (((bits = this.bits.get(word)) & mask) == 0
+          && !this.bits.compareAndSet(word, bits, bits | mask)) {
+        // Another bit of the word was set concurrently, retry
+      }
+    }
+  }
+
+  /**
+   * @return false if the value was definitely never added, true if it might have been.
+   */
+  public boolean mightContain(final CharSequence value) {
+    final long hash = hash(value);
+    final int hash1 = (int) hash;
+    final int hash2 = (int) (hash >>> 32);
+
+    for (int i = 1; i <= this.hashFunctions; i++) {
+      final long index = ((hash1 + (long) i * hash2) & Long.MAX_VALUE) % this.bitSize;
+      if ((this.bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void clear() {
+    for (int i = 0; i < this.bits.length(); i++) {
+      this.bits.set(i, 0L);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package de.leonhard.storage.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Pools of the direct buffers & UTF-8 coders used for our file I/O. Direct buffers are expensive
+ * to allocate & are only freed by the GC, coders keep internal state worth reusing. Everything
+ * acquired has to be released again by the same caller & mustn't be used afterwards.
+ */
+@UtilityClass
+class ChannelBuffers {
+
+  static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_POOLED = 16;
+
+  private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooledBuffers = new AtomicInteger();
+  private final Queue<CharsetDecoder> decoders = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooledDecoders = new AtomicInteger();
+  private final Queue<CharsetEncoder> encoders = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooledEncoders = new AtomicInteger();
+
+  /**
+   * @return A cleared direct buffer of {@link #BUFFER_SIZE} bytes.
+   */
+  ByteBuffer acquireBuffer() {
+    final ByteBuffer buffer = poll(buffers, pooledBuffers);
+    if (buffer == null) {
+      return ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+    buffer.clear();
+    return buffer;
+  }
+
+  void releaseBuffer(final ByteBuffer buffer) {
+    offer(buffers, pooledBuffers, buffer);
+  }
+
+  /**
+   * @return A decoder for UTF-8, replacing malformed input like the Readers of the JDK do it.
+   */
+  CharsetDecoder acquireDecoder() {
+    final CharsetDecoder decoder = poll(decoders, pooledDecoders);
+    if (decoder == null) {
+      return StandardCharsets.UTF_8
+          .newDecoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+    return decoder.reset();
+  }
+
+  void releaseDecoder(final CharsetDecoder decoder) {
+    offer(decoders, pooledDecoders, decoder);
+  }
+
+  /**
+   * @return An encoder for UTF-8, replacing malformed input like the Writers of the JDK do it.
+   */
+  CharsetEncoder acquireEncoder() {
+    final CharsetEncoder encoder = poll(encoders, pooledEncoders);
+    if (encoder == null) {
+      return StandardCharsets.UTF_8
+          .newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+    return encoder.reset();
+  }
+
+  void releaseEncoder(final CharsetEncoder encoder) {
+    offer(encoders, pooledEncoders, encoder);
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Internal stuff
+  // ----------------------------------------------------------------------------------------------------
+
+  private <T> T poll(final Queue<T> pool, final AtomicInteger pooled) {
+    final T element = pool.poll();
+    if (element != null) {
+      pooled.decrementAndGet();
+    }
+    return element;
+  }
+
+  private <T> void offer(final Queue<T> pool, final AtomicInteger pooled, final T element) {
+    if (pooled.incrementAndGet() > MAX_POOLED) {
+      pooled.decrementAndGet();
+      return;
+    }
+    pool.offer(element);
+  }
+}
@@ -0,0 +1,166 @@
+package de.leonhard.storage.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import lombok.NonNull;
+
+/**
+ * A Reader decoding an UTF-8 encoded file straight from its FileChannel into the buffer of the
+ * caller.
+ *
+ * <p>Files are read in chunks into pooled direct buffers. Other than a {@link java.io.FileReader}
+ * or an {@link java.io.InputStreamReader} we therefore don't copy our data into heap byte arrays
+ * first. Malformed input is replaced like the Readers of the JDK do it. This is NOT Thread safe.
+ *
+ * <p>Large files aren't memory mapped: A mapping can't be released explicitly & prevents
+ * truncating its file on Windows until it is garbage collected.
+ *
+ * @see ChannelWriter
+ */
+public final class ChannelReader extends Reader {
+
+  private final FileChannel channel;
+  private final CharsetDecoder decoder = ChannelBuffers.acquireDecoder();
+  // Single chars are decoded in here, as a surrogate pair doesn't fit in a buffer of length 1
+  private final CharBuffer pair = (CharBuffer) CharBuffer.allocate(2).flip();
+  private ByteBuffer input;
+  private boolean endOfInput;
+  private boolean flushing;
+  private boolean finished;
+
+  public ChannelReader(@NonNull final File file) throws IOException {
+    try {
+      this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    } catch (final IOException | RuntimeException ex) {
+      ChannelBuffers.releaseDecoder(this.decoder);
+      throw ex;
+    }
+    this.input = (ByteBuffer) ChannelBuffers.acquireBuffer().flip();
+  }
+
+  /**
+   * Reads the whole file into a String. The chars are decoded into an array sized by the length
+   * of the file, as UTF-8 never needs more chars than bytes.
+   */
+  public static String readToString(@NonNull final File file) throws IOException {
+    try (final ChannelReader reader = new ChannelReader(file)) {
+      char[] chars = new char[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, file.length()))];
+      int length = 0;
+      int read;
+      while (true) {
+        if (length == chars.length) {
+          // The file has grown while reading
+          chars = Arrays.copyOf(chars, chars.length * 2);
+        }
+        read = reader.read(chars, length, chars.length - length);
+        if (read == -1) {
+          return new String(chars, 0, length);
+        }
+        length += read;
+      }
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Overridden methods from Reader
+  // ----------------------------------------------------------------------------------------------------
+
+  @Override
+  public int read(final char[] cbuf, final int off, final int len) throws IOException {
+    if (this.input == null) {
+      throw new IOException("Reader is closed");
+    }
+    if (off < 0 || len < 0 || off + len > cbuf.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (len == 0) {
+      return 0;
+    }
+
+    if (this.pair.hasRemaining()) {
+      int read = 0;
+      while (read < len && this.pair.hasRemaining()) {
+        cbuf[off + read++] = this.pair.get();
+      }
+      return read;
+    }
+
+    if (len == 1) {
+      this.pair.clear();
+      final int decoded = decode(this.pair);
+      this.pair.flip();
+      if (decoded == -1) {
+        return -1;
+      }
+      cbuf[off] = this.pair.get();
+      return 1;
+    }
+
+    return decode(CharBuffer.wrap(cbuf, off, len));
+  }
+
+  @Override
+  public boolean ready() {
+    return this.input != null && (this.pair.hasRemaining() || this.input.hasRemaining());
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.input == null) {
+      return;
+    }
+    ChannelBuffers.releaseBuffer(this.input);
+    ChannelBuffers.releaseDecoder(this.decoder);
+    this.input = null;
+    this.channel.close();
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Internal stuff
+  // ----------------------------------------------------------------------------------------------------
+
+  private int decode(final CharBuffer out) throws IOException {
+    final int start = out.position();
+
+    while (!this.finished && out.hasRemaining()) {
+      if (!this.flushing) {
+        final CoderResult result = this.decoder.decode(this.input, out, this.endOfInput);
+        if (result.isOverflow()) {
+          break;
+        }
+        if (!this.endOfInput) {
+          fill();
+          continue;
+        }
+        this.flushing = true;
+      }
+
+      if (this.decoder.flush(out).isOverflow()) {
+        break;
+      }
+      this.finished = true;
+    }
+
+    final int decoded = out.position() - start;
+    return decoded == 0 && this.finished ? -1 : decoded;
+  }
+
+  private void fill() throws IOException {
+    this.input.compact();
+    try {
+      if (this.channel.read(this.input) == -1) {
+        this.endOfInput = true;
+      }
+    } finally {
+      this.input.flip();
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package de.leonhard.storage.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.StandardOpenOption;
+import lombok.NonNull;
+
+/**
+ * A Writer encoding UTF-8 from the buffer of the caller straight into a pooled direct buffer, which
+ * is written to the FileChannel of the file once it's full. The file is created or truncated.
+ *
+ * <p>Other than a {@link java.io.FileWriter} we don't depend on the platform charset & don't go
+ * through an OutputStream. Malformed input is replaced like the Writers of the JDK do it. This is
+ * NOT Thread safe.
+ *
+ * @see ChannelReader
+ */
+public final class ChannelWriter extends Writer {
+
+  // Size of the chunks Strings are copied in before being encoded
+  private static final int CHUNK_SIZE = 8192;
+
+  private final FileChannel channel;
+  private final CharsetEncoder encoder = ChannelBuffers.acquireEncoder();
+  private ByteBuffer output = ChannelBuffers.acquireBuffer();
+  // A high surrogate at the end of a write, waiting for its low surrogate
+  private final CharBuffer pair = CharBuffer.allocate(2);
+  private char[] chunk;
+
+  public ChannelWriter(@NonNull final File file) throws IOException {
+    try {
+      this.channel = FileChannel.open(
+          file.toPath(),
+          StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.WRITE);
+    } catch (final IOException | RuntimeException ex) {
+      release();
+      throw ex;
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Overridden methods from Writer
+  // ----------------------------------------------------------------------------------------------------
+
+  @Override
+  public void write(final char[] cbuf, final int off, final int len) throws IOException {
+    ensureOpen();
+    if (off < 0 || len < 0 || off + len > cbuf.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    encode(CharBuffer.wrap(cbuf, off, len));
+  }
+
+  @Override
+  public void write(final int c) throws IOException {
+    ensureOpen();
+    final char[] chunk = chunk();
+    chunk[0] = (char) c;
+    encode(CharBuffer.wrap(chunk, 0, 1));
+  }
+
+  @Override
+  public void write(final String str, int off, int len) throws IOException {
+    ensureOpen();
+    final char[] chunk = chunk();
+    while (len > 0) {
+      final int length = Math.min(len, CHUNK_SIZE);
+      str.getChars(off, off + length, chunk, 0);
+      encode(CharBuffer.wrap(chunk, 0, length));
+      off += length;
+      len -= length;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    drain();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.output == null) {
+      return;
+    }
+    try {
+      // A surrogate without its partner is replaced
+      this.pair.flip();
+      encode(this.pair, true);
+      while (this.encoder.flush(this.output).isOverflow()) {
+        drain();
+      }
+      drain();
+    } finally {
+      release();
+      this.channel.close();
+    }
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Internal stuff
+  // ----------------------------------------------------------------------------------------------------
+
+  private void encode(final CharBuffer input) throws IOException {
+    // Completes the pending surrogate pair. If the next char is another high surrogate, the pending
+    // one is replaced & the next one is pending instead, so at most one char is waiting.
+    while (this.pair.position() > 0 && input.hasRemaining()) {
+      this.pair.put(input.get()).flip();
+      encode(this.pair, false);
+      this.pair.compact();
+    }
+    encode(input, false);
+    if (input.hasRemaining()) {
+      // The encoder leaves a trailing high surrogate in our input
+      this.pair.put(input.get());
+    }
+  }
+
+  private void encode(final CharBuffer input, final boolean endOfInput) throws IOException {
+    while (true) {
+      final CoderResult result = this.encoder.encode(input, this.output, endOfInput);
+      if (!result.isOverflow()) {
+        return;
+      }
+      drain();
+    }
+  }
+
+  private void drain() throws IOException {
+    this.output.flip();
+    try {
+      while (this.output.hasRemaining()) {
+        this.channel.write(this.output);
+      }
+    } finally {
+      this.output.clear();
+    }
+  }
+
+  private char[] chunk() {
+    if (this.chunk == null) {
+      this.chunk = new char[CHUNK_SIZE];
+    }
+    return this.chunk;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (this.output == null) {
+      throw new IOException("Writer is closed");
+    }
+  }
+
+  private void release() {
+    ChannelBuffers.releaseBuffer(this.output);
+    ChannelBuffers.releaseEncoder(this.encoder);
+    this.output = null;
+  }
+}
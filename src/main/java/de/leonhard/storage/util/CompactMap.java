@@ -0,0 +1,426 @@
+package de.leonhard.storage.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A memory efficient, insertion ordered Map. Default implementation of the layers of our data, see
+ * {@link de.leonhard.storage.internal.provider.MapProvider}
+ *
+ * <p>Keys and values are stored in two parallel arrays in insertion order. Small maps are searched
+ * linearly. Once a map grows beyond {@value #LINEAR_THRESHOLD} entries an open addressing table of
+ * positions in these arrays is added, like the dict of CPython does it. Compared to a {@link
+ * java.util.LinkedHashMap} we don't need an entry object per mapping, which makes up most of the
+ * memory used by the typical (small) layer of a configuration file.
+ *
+ * <p>Removed entries leave a gap in the arrays until the arrays need to grow. Entries returned by
+ * the entry set are views of their position and only valid until the map is modified
+ * structurally. This is NOT Thread safe.
+ */
+@SuppressWarnings("unchecked")
+public class CompactMap<K, V> extends AbstractMap<K, V> {
+
+  private static final int LINEAR_THRESHOLD = 8;
+  private static final int DEFAULT_CAPACITY = 4;
+  private static final Object NULL_KEY = new Object();
+  private static final Object REMOVED = new Object();
+
+  private Object[] keys;
+  private Object[] values;
+  // Positions used in keys & values, including removed ones
+  private int used;
+  private int size;
+  // Positions in keys & values plus one, zero marks a free slot. Null for small maps
+  private int[] index;
+  private int modCount;
+
+  private Set<Map.Entry<K, V>> entrySet;
+  private Set<K> keySet;
+  private Collection<V> valueCollection;
+
+  public CompactMap() {
+  }
+
+  public CompactMap(final int initialCapacity) {
+    Valid.checkBoolean(initialCapacity >= 0, "Capacity mustn't be negative");
+    if (initialCapacity > 0) {
+      allocate(initialCapacity);
+    }
+  }
+
+  public CompactMap(final Map<? extends K, ? extends V> map) {
+    this(map.size());
+    putAll(map);
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Overridden methods from Map
+  // ----------------------------------------------------------------------------------------------------
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return find(key) != -1;
+  }
+
+  @Override
+  public V get(final Object key) {
+    final int position = find(key);
+    return position == -1 ? null : (V) this.values[position];
+  }
+
+  @Override
+  public V put(final K key, final V value) {
+    final int position = find(key);
+    if (position != -1) {
+      final V old = (V) this.values[position];
+      this.values[position] = value;
+      return old;
+    }
+
+    append(maskNull(key), value);
+    return null;
+  }
+
+  @Override
+  public V remove(final Object key) {
+    final int position = find(key);
+    return position == -1 ? null : removeAt(position);
+  }
+
+  @Override
+  public void clear() {
+    if (this.keys != null) {
+      Arrays.fill(this.keys, 0, this.used, null);
+      Arrays.fill(this.values, 0, this.used, null);
+    }
+    this.used = 0;
+    this.size = 0;
+    this.index = null;
+    this.modCount++;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    if (this.entrySet == null) {
+      this.entrySet = new AbstractSet<Map.Entry<K, V>>() {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+          return new CompactIterator<Map.Entry<K, V>>() {
+            @Override
+            Map.Entry<K, V> get(final int position) {
+              return new CompactEntry(position);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return CompactMap.this.size;
+        }
+
+        @Override
+        public void clear() {
+          CompactMap.this.clear();
+        }
+      };
+    }
+    return this.entrySet;
+  }
+
+  @Override
+  public Set<K> keySet() {
+    if (this.keySet == null) {
+      this.keySet = new AbstractSet<K>() {
+        @Override
+        public Iterator<K> iterator() {
+          return new CompactIterator<K>() {
+            @Override
+            K get(final int position) {
+              return (K) unmaskNull(CompactMap.this.keys[position]);
+            }
+          };
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+          return containsKey(o);
+        }
+
+        @Override
+        public int size() {
+          return CompactMap.this.size;
+        }
+
+        @Override
+        public void clear() {
+          CompactMap.this.clear();
+        }
+      };
+    }
+    return this.keySet;
+  }
+
+  @Override
+  public Collection<V> values() {
+    if (this.valueCollection == null) {
+      this.valueCollection = new AbstractCollection<V>() {
+        @Override
+        public Iterator<V> iterator() {
+          return new CompactIterator<V>() {
+            @Override
+            V get(final int position) {
+              return (V) CompactMap.this.values[position];
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return CompactMap.this.size;
+        }
+
+        @Override
+        public void clear() {
+          CompactMap.this.clear();
+        }
+      };
+    }
+    return this.valueCollection;
+  }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Internal stuff
+  // ----------------------------------------------------------------------------------------------------
+
+  private static Object maskNull(final Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  private static Object unmaskNull(final Object key) {
+    return key == NULL_KEY ? null : key;
+  }
+
+  private static int hash(final Object key) {
+    final int hash = key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  private int find(final Object key) {
+    final Object masked = maskNull(key);
+
+    if (this.index == null) {
+      for (int i = 0; i < this.used; i++) {
+        final Object candidate = this.keys[i];
+        if (candidate == masked || masked.equals(candidate)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    final int mask = this.index.length - 1;
+    for (int i = hash(masked) & mask; ; i = (i + 1) & mask) {
+      final int position = this.index[i] - 1;
+      if (position == -1) {
+        return -1;
+      }
+      final Object candidate = this.keys[position];
+      if (candidate == masked || masked.equals(candidate)) {
+        return position;
+      }
+    }
+  }
+
+  private void append(final Object key, final Object value) {
+    if (this.keys == null) {
+      allocate(DEFAULT_CAPACITY);
+    } else if (this.used == this.keys.length) {
+      // If at least half of our positions are removed ones, compacting is enough
+      compact(this.size * 2 <= this.used ? this.keys.length : this.keys.length * 2);
+    }
+
+    this.keys[this.used] = key;
+    this.values[this.used] = value;
+    if (this.index != null) {
+      addToIndex(key, this.used);
+    }
+    this.used++;
+    this.size++;
+    this.modCount++;
+
+    if (this.index == null && this.used > LINEAR_THRESHOLD) {
+      buildIndex();
+    }
+  }
+
+  private V removeAt(final int position) {
+    final V old = (V) this.values[position];
+    // The index might still point to this position, so we keep it as removed
+    this.keys[position] = REMOVED;
+    this.values[position] = null;
+    this.size--;
+    this.modCount++;
+
+    if (this.index == null) {
+      while (this.used > 0 && this.keys[this.used - 1] == REMOVED) {
+        this.keys[--this.used] = null;
+      }
+    }
+    return old;
+  }
+
+  private void allocate(final int capacity) {
+    this.keys = new Object[capacity];
+    this.values = new Object[capacity];
+  }
+
+  private void compact(final int capacity) {
+    final Object[] oldKeys = this.keys;
+    final Object[] oldValues = this.values;
+    final int oldUsed = this.used;
+    allocate(capacity);
+
+    int position = 0;
+    for (int i = 0; i < oldUsed; i++) {
+      if (oldKeys[i] != REMOVED) {
+        this.keys[position] = oldKeys[i];
+        this.values[position] = oldValues[i];
+        position++;
+      }
+    }
+    this.used = position;
+
+    if (this.used > LINEAR_THRESHOLD) {
+      buildIndex();
+    } else {
+      this.index = null;
+    }
+  }
+
+  private void buildIndex() {
+    // At least twice as big as our arrays to keep the table at most half full
+    this.index = new int[Integer.highestOneBit(this.keys.length * 2 - 1) << 1];
+    for (int i = 0; i < this.used; i++) {
+      if (this.keys[i] != REMOVED) {
+        addToIndex(this.keys[i], i);
+      }
+    }
+  }
+
+  private void addToIndex(final Object key, final int position) {
+    final int mask = this.index.length - 1;
+    int i = hash(key) & mask;
+    while (this.index[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    this.index[i] = position + 1;
+  }
+
+  private abstract class CompactIterator<E> implements Iterator<E> {
+
+    private int next = skipRemoved(0);
+    private int last = -1;
+    private int expectedModCount = CompactMap.this.modCount;
+
+    abstract E get(final int position);
+
+    private int skipRemoved(int position) {
+      while (position < CompactMap.this.used && CompactMap.this.keys[position] == REMOVED) {
+        position++;
+      }
+      return position;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next < CompactMap.this.used;
+    }
+
+    @Override
+    public E next() {
+      if (this.expectedModCount != CompactMap.this.modCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (this.next >= CompactMap.this.used) {
+        throw new NoSuchElementException();
+      }
+      this.last = this.next;
+      this.next = skipRemoved(this.next + 1);
+      return get(this.last);
+    }
+
+    @Override
+    public void remove() {
+      if (this.last == -1) {
+        throw new IllegalStateException();
+      }
+      if (this.expectedModCount != CompactMap.this.modCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeAt(this.last);
+      this.last = -1;
+      this.expectedModCount = CompactMap.this.modCount;
+    }
+  }
+
+  private final class CompactEntry implements Map.Entry<K, V> {
+
+    private final int position;
+
+    private CompactEntry(final int position) {
+      this.position = position;
+    }
+
+    @Override
+    public K getKey() {
+      return (K) unmaskNull(CompactMap.this.keys[this.position]);
+    }
+
+    @Override
+    public V getValue() {
+      return (V) CompactMap.this.values[this.position];
+    }
+
+    @Override
+    public V setValue(final V value) {
+      final V old = getValue();
+      CompactMap.this.values[this.position] = value;
+      return old;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) obj;
+      return Objects.equals(getKey(), entry.getKey()) && Objects.equals(
+          getValue(),
+          entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+}
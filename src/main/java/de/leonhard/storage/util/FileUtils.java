@@ -2,14 +2,18 @@ package de.leonhard.storage.util;
 
 import de.leonhard.storage.internal.provider.LightningProviders;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.jar.JarEntry;
@@ -66,6 +70,24 @@ public class FileUtils {
     return result;
   }
 
+  /**
+   * Resolves the file a FlatFile with the given name & path stores its data in. Doesn't create it.
+   *
+   * @param name      Name of the file, an existing extension is replaced.
+   * @param path      Directory of the file. Null or empty for the working directory.
+   * @param extension Extension of the file, without the leading '.'
+   */
+  public File getFile(
+      @NonNull final String name,
+      @Nullable final String path,
+      @NonNull final String extension) {
+    if (path == null || path.isEmpty()) {
+      return new File(replaceExtensions(name) + "." + extension);
+    }
+    final String fixedPath = path.replace("\\", "/");
+    return new File(fixedPath + File.separator + replaceExtensions(name) + "." + extension);
+  }
+
   public File getAndMake(
       @NonNull final String name,
       @NonNull final String path) {
@@ -155,8 +177,8 @@ public class FileUtils {
 
   private OutputStream createOutputStream(@NonNull final File file) {
     try {
-      return new FileOutputStream(file);
-    } catch (final FileNotFoundException ex) {
+      return Files.newOutputStream(file.toPath());
+    } catch (final IOException ex) {
       throw LightningProviders.exceptionHandler().create(
           ex,
           "Error while creating OutputStream from '" + file.getName() + "'.",
@@ -166,8 +188,8 @@ public class FileUtils {
 
   public Reader createReader(@NonNull final File file) {
     try {
-      return new FileReader(file);
-    } catch (final FileNotFoundException ex) {
+      return new ChannelReader(file);
+    } catch (final IOException ex) {
       throw LightningProviders.exceptionHandler().create(
           ex,
           "Error while creating Reader for '" + file.getName() + "'.",
@@ -175,9 +197,13 @@ public class FileUtils {
     }
   }
 
+  /**
+   * Creates a Writer encoding UTF-8 directly into the channel of the file, see {@link
+   * ChannelWriter}. The file is created or truncated.
+   */
   public Writer createWriter(@NonNull final File file) {
     try {
-      return new FileWriter(file);
+      return new ChannelWriter(file);
     } catch (final IOException ex) {
       throw LightningProviders.exceptionHandler().create(
           ex,
@@ -186,11 +212,26 @@ public class FileUtils {
     }
   }
 
+  /**
+   * Same as {@link #createWriter(File)}, but leaves the handling of the IOException to the caller.
+   */
+  public Writer createChannelWriter(@NonNull final File file) throws IOException {
+    return new ChannelWriter(file);
+  }
+
+  /**
+   * Writes the lines UTF-8 encoded to the file, each one followed by the line separator of the
+   * platform.
+   */
   public void write(
       @NonNull final File file,
       @NonNull final List<String> lines) {
-    try {
-      Files.write(file.toPath(), lines);
+    try (final Writer writer = new ChannelWriter(file)) {
+      final String separator = System.lineSeparator();
+      for (final String line : lines) {
+        writer.write(line);
+        writer.write(separator);
+      }
     } catch (final IOException ex) {
       throw LightningProviders.exceptionHandler().create(
           ex,
@@ -199,18 +240,25 @@ public class FileUtils {
     }
   }
 
+  /**
+   * Transfers the remaining content of the stream into the file, which is created or truncated.
+   * The stream isn't closed.
+   */
   public void writeToFile(
       @NonNull final File file,
       @NonNull final InputStream inputStream) {
-    try (final FileOutputStream outputStream = new FileOutputStream(file)) {
-      if (!file.exists()) {
-        Files.copy(inputStream, file.toPath());
-      } else {
-        final byte[] data = new byte[8192];
-        int count;
-        while ((count = inputStream.read(data, 0, 8192)) != -1) {
-          outputStream.write(data, 0, count);
-        }
+    try (final FileChannel channel = FileChannel.open(
+        file.toPath(),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE)) {
+      // Not closed, as this would close our inputStream
+      final ReadableByteChannel source = Channels.newChannel(inputStream);
+      long position = 0;
+      long transferred;
+      while ((transferred = channel.transferFrom(source, position, ChannelBuffers.BUFFER_SIZE))
+             > 0) {
+        position += transferred;
       }
     } catch (final IOException ex) {
       throw LightningProviders.exceptionHandler().create(
@@ -220,21 +268,50 @@ public class FileUtils {
     }
   }
 
-  private byte[] readAllBytes(@NonNull final File file) {
+  /**
+   * Reads the UTF-8 encoded file & splits it into its lines. Both '\n' & '\r\n' are accepted as
+   * line breaks. Like {@link String#split(String)} does it trailing empty lines are dropped.
+   */
+  public List<String> readAllLines(@NonNull final File file) {
+    final String content;
     try {
-      return Files.readAllBytes(file.toPath());
+      content = ChannelReader.readToString(file);
     } catch (final IOException ex) {
       throw LightningProviders.exceptionHandler().create(
           ex,
           "Error while reading '" + file.getName() + "'.",
           "In: '" + getParentDirPath(file) + "'");
     }
+    return splitLines(content);
   }
 
-  public List<String> readAllLines(@NonNull final File file) {
-    final byte[] fileBytes = readAllBytes(file);
-    final String asString = new String(fileBytes);
-    return new ArrayList<>(Arrays.asList(asString.split(System.lineSeparator())));
+  private List<String> splitLines(@NonNull final String content) {
+    final List<String> lines = new ArrayList<>();
+    if (content.isEmpty()) {
+      lines.add(content);
+      return lines;
+    }
+
+    int start = 0;
+    int nonEmpty = 0;
+    while (start <= content.length()) {
+      int end = content.indexOf('\n', start);
+      final int next = end == -1 ? content.length() + 1 : end + 1;
+      if (end == -1) {
+        end = content.length();
+      }
+      if (end > start && content.charAt(end - 1) == '\r') {
+        end--;
+      }
+      lines.add(content.substring(start, end));
+      if (end > start) {
+        nonEmpty = lines.size();
+      }
+      start = next;
+    }
+
+    // Trailing empty lines are dropped
+    return nonEmpty == lines.size() ? lines : new ArrayList<>(lines.subList(0, nonEmpty));
   }
 
   // ----------------------------------------------------------------------------------------------------
@@ -283,18 +360,15 @@ public class FileUtils {
   }
 
   private byte[] md5Checksum(@NonNull final File file) {
-    try (final InputStream fileInputStream = new FileInputStream(file)) {
-      final byte[] buffer = new byte[1024];
+    final ByteBuffer buffer = ChannelBuffers.acquireBuffer();
+    try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
       final MessageDigest complete = MessageDigest.getInstance("MD5");
-      int numRead;
-
-      do {
-        numRead = fileInputStream.read(buffer);
 
-        if (numRead > 0) {
-          complete.update(buffer, 0, numRead);
-        }
-      } while (numRead != -1);
+      while (channel.read(buffer) != -1) {
+        buffer.flip();
+        complete.update(buffer);
+        buffer.clear();
+      }
 
       return complete.digest();
     } catch (final IOException | NoSuchAlgorithmException ex) {
@@ -302,6 +376,8 @@ public class FileUtils {
           ex,
           "Error while creating checksum of '" + file.getName() + "'.",
           "In: '" + getParentDirPath(file) + "'");
+    } finally {
+      ChannelBuffers.releaseBuffer(buffer);
     }
   }
 
@@ -414,13 +490,23 @@ public class FileUtils {
       }
     } else {
 
-      @Cleanup final InputStream in = createInputStream(source);
-      @Cleanup final OutputStream out = createOutputStream(destination);
-      final byte[] buffer = new byte[1024];
-
-      int length;
-      while ((length = in.read(buffer)) > 0) {
-        out.write(buffer, 0, length);
+      @Cleanup final FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+      @Cleanup final FileChannel out = FileChannel.open(
+          destination.toPath(),
+          StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.WRITE);
+
+      // transferTo may transfer less than requested, e.g. 2G at most per call on Linux
+      final long size = in.size();
+      long position = 0;
+      while (position < size) {
+        final long transferred = in.transferTo(position, size - position, out);
+        if (transferred <= 0) {
+          // The source has shrunk while we copied it
+          break;
+        }
+        position += transferred;
       }
     }
   }
@@ -1,6 +1,9 @@
 package de.leonhard.storage.util;
 
+import de.leonhard.storage.LightningBuilder;
+import de.leonhard.storage.internal.FileType;
 import de.leonhard.storage.internal.FlatFile;
+import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -8,7 +11,27 @@ public class FlatFileConverter {
 
   public void addAllData(final FlatFile source, final FlatFile destination) {
     destination.getFileData().clear();
-    destination.getFileData().loadData(source.getFileData().toMap());
+    // A copy, the destination might patch its maps in place on its next reload
+    destination.getFileData().loadData(source.getFileData().snapshot().toMap());
     destination.write();
   }
+
+  /**
+   * Copies the data of a FlatFile to a file of another type with the same name in the same
+   * directory. For example to migrate a {@link de.leonhard.storage.Json} to a {@link
+   * de.leonhard.storage.Lbin}
+   *
+   * @param source   FlatFile to copy the data from.
+   * @param fileType Type of the new file.
+   * @return The FlatFile containing the copied data.
+   */
+  public FlatFile convert(@NonNull final FlatFile source, @NonNull final FileType fileType) {
+    final FlatFile destination = LightningBuilder
+        .fromPath(
+            FileUtils.replaceExtensions(source.getName()),
+            FileUtils.getParentDirPath(source.getFile()))
+        .createFlatFile(fileType);
+    addAllData(source, destination);
+    return destination;
+  }
 }
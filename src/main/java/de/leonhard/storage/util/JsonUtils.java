@@ -1,5 +1,6 @@
 package de.leonhard.storage.util;
 
+import de.leonhard.storage.internal.settings.DataType;
 import java.util.*;
 import lombok.experimental.UtilityClass;
 import lombok.val;
@@ -12,12 +13,16 @@ import org.json.JSONObject;
 public class JsonUtils {
 
   public Map<String, Object> jsonToMap(final JSONObject jsonObject) throws JSONException {
-    Map<String, Object> retMap = new HashMap<>();
+    return jsonToMap(jsonObject, DataType.UNSORTED);
+  }
 
-    if (jsonObject != JSONObject.NULL) {
-      retMap = toMap(jsonObject);
+  public Map<String, Object> jsonToMap(
+      final JSONObject jsonObject,
+      final DataType dataType) throws JSONException {
+    if (jsonObject == JSONObject.NULL) {
+      return dataType.getMapImplementation();
     }
-    return retMap;
+    return toMap(jsonObject, dataType);
   }
 
   public JSONObject getJsonFromMap(final Map<String, Object> map) throws JSONException {
@@ -35,26 +40,41 @@ public class JsonUtils {
   }
 
   public Map<String, Object> toMap(final JSONObject jsonObject) throws JSONException {
-    final Map<String, Object> map = new HashMap<>();
+    return toMap(jsonObject, DataType.UNSORTED);
+  }
+
+  /**
+   * Converts a JSONObject to a Map, using the implementations of our DataType for every layer.
+   */
+  public Map<String, Object> toMap(
+      final JSONObject jsonObject,
+      final DataType dataType) throws JSONException {
+    final Map<String, Object> map = dataType.getMapImplementation();
 
     final Iterator<String> keysItr = jsonObject.keys();
-    keysItr.forEachRemaining(key -> map.put(key, getValue(jsonObject.get(key))));
+    keysItr.forEachRemaining(key -> map.put(key, getValue(jsonObject.get(key), dataType)));
     return map;
   }
 
   public List<Object> toList(final JSONArray array) throws JSONException {
-    final List<Object> list = new ArrayList<>();
+    return toList(array, DataType.UNSORTED);
+  }
+
+  public List<Object> toList(final JSONArray array, final DataType dataType) throws JSONException {
+    final List<Object> list = dataType.getListImplementation();
     for (int i = 0; i < array.length(); i++) {
-      list.add(getValue(array.get(i)));
+      list.add(getValue(array.get(i), dataType));
     }
     return list;
   }
 
-  private Object getValue(final Object obj) {
+  private Object getValue(final Object obj, final DataType dataType) {
     if (obj instanceof JSONArray) {
-      return toList((JSONArray) obj);
+      return toList((JSONArray) obj, dataType);
     } else if (obj instanceof JSONObject) {
-      return toMap((JSONObject) obj);
+      return toMap((JSONObject) obj, dataType);
+    } else if (JSONObject.NULL.equals(obj)) {
+      return null;
     } else {
       return obj;
     }
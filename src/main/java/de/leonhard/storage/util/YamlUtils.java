@@ -1,12 +1,12 @@
 package de.leonhard.storage.util;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import lombok.experimental.UtilityClass;
 
 /**
- * Class to work with the parts of the lines of a YAML-file
+ * Class to work with the parts of the lines of a YAML-file. The lists passed in are never
+ * modified.
  */
 @UtilityClass
 public class YamlUtils {
@@ -23,53 +23,24 @@ public class YamlUtils {
   }
 
   public List<String> getFooterFromLines(final List<String> lines) {
-    final List<String> result = new ArrayList<>();
-    Collections.reverse(lines);
-    for (final String line : lines) {
-      if (!line.startsWith("#")) {
-        Collections.reverse(result);
-        return result;
-      }
-      result.add(line);
-    }
-    Collections.reverse(result);
-    return result;
+    return new ArrayList<>(lines.subList(getFooterStart(lines), lines.size()));
   }
 
   public List<String> getHeaderFromLines(final List<String> lines) {
-    final List<String> result = new ArrayList<>();
-
-    for (final String line : lines) {
-      if (!line.startsWith("#")) {
-        return result;
-      }
-      result.add(line);
-    }
-    return result;
+    return new ArrayList<>(lines.subList(0, getHeaderEnd(lines)));
   }
 
   /**
    * @return List of comments that don't belong to header or footer
    */
   public List<String> getPureCommentsFromLines(final List<String> lines) {
-    final List<String> comments = getCommentsFromLines(lines);
-    final List<String> header = getHeaderFromLines(lines);
-    final List<String> footer = getFooterFromLines(lines);
-
-    comments.removeAll(header);
-    comments.removeAll(footer);
-
-    return comments;
+    return getCommentsFromLines(getLinesWithoutFooterAndHeaderFromLines(lines));
   }
 
   public List<String> getLinesWithoutFooterAndHeaderFromLines(final List<String> lines) {
-    final List<String> header = getHeaderFromLines(lines);
-    final List<String> footer = getFooterFromLines(lines);
-
-    lines.removeAll(header);
-    lines.removeAll(footer);
-
-    return lines;
+    final int headerEnd = getHeaderEnd(lines);
+    return new ArrayList<>(
+        lines.subList(headerEnd, Math.max(headerEnd, getFooterStart(lines))));
   }
 
   public List<String> getKeys(final List<String> lines) {
@@ -82,4 +53,30 @@ public class YamlUtils {
     }
     return result;
   }
+
+  // ----------------------------------------------------------------------------------------------------
+  // Indices of the parts
+  // ----------------------------------------------------------------------------------------------------
+
+  /**
+   * @return Index of the first line after the header, 0 if there is no header.
+   */
+  public int getHeaderEnd(final List<String> lines) {
+    int index = 0;
+    while (index < lines.size() && lines.get(index).startsWith("#")) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * @return Index of the first line of the footer, the size of the lines if there is no footer.
+   */
+  public int getFooterStart(final List<String> lines) {
+    int index = lines.size();
+    while (index > 0 && lines.get(index - 1).startsWith("#")) {
+      index--;
+    }
+    return index;
+  }
 }
@@ -0,0 +1,140 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.change.Change;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChangeListenerTest {
+
+  private final Json json = LightningBuilder.fromPath("Changes", "").createJson();
+
+  @AfterEach
+  void tearDown() {
+    new File("Changes.json").delete();
+  }
+
+  @Test
+  void testPatterns() {
+    final List<Change> database = new ArrayList<>();
+    final List<Change> hosts = new ArrayList<>();
+    this.json.onChange("database", database::addAll);
+    this.json.onChange("database.*.host", hosts::addAll);
+
+    this.json.set("database.main.host", "localhost");
+    this.json.set("database.main.port", 3306);
+    this.json.set("other", true);
+    this.json.set("database.main.host", "example.com");
+
+    Assertions.assertEquals(
+        Arrays.asList(
+            new Change("database.main.host", null, "localhost"),
+            new Change("database.main.port", null, 3306),
+            new Change("database.main.host", "localhost", "example.com")),
+        database);
+    Assertions.assertEquals(
+        Arrays.asList(
+            new Change("database.main.host", null, "localhost"),
+            new Change("database.main.host", "localhost", "example.com")),
+        hosts);
+
+    // Removing a section reports its values
+    database.clear();
+    this.json.remove("database");
+    Assertions.assertEquals(2, database.size());
+    Assertions.assertTrue(database.stream().allMatch(Change::isRemoved));
+  }
+
+  @Test
+  void testReplacedSections() {
+    final List<Change> changes = new ArrayList<>();
+    this.json.set("a", 1);
+    this.json.onChange("a", changes::addAll);
+
+    // The value of 'a' becomes a section
+    this.json.set("a.b", 2);
+    Assertions.assertEquals(
+        Arrays.asList(new Change("a", 1, null), new Change("a.b", null, 2)),
+        changes);
+
+    changes.clear();
+    this.json.set("a", "value");
+    Assertions.assertEquals(
+        Arrays.asList(new Change("a.b", 2, null), new Change("a", null, "value")),
+        changes);
+  }
+
+  @Test
+  void testReload() {
+    final Map<String, Object> data = new LinkedHashMap<>();
+    data.put("kept", 1);
+    data.put("changed", 2);
+    this.json.putAll(data);
+
+    final List<Change> changes = new ArrayList<>();
+    final Consumer<List<Change>> listener = changes::addAll;
+    this.json.onChange("*", listener);
+
+    final Json other = new Json("Changes", "");
+    other.set("changed", 3);
+    this.json.forceReload();
+    Assertions.assertEquals(Collections.singletonList(new Change("changed", 2, 3)), changes);
+
+    changes.clear();
+    this.json.removeChangeListener(listener);
+    this.json.set("kept", 4);
+    Assertions.assertTrue(changes.isEmpty());
+  }
+
+  @Test
+  void testBulkChanges() {
+    final List<Change> changes = new ArrayList<>();
+    this.json.onChange("database.*", changes::addAll);
+
+    // Defaults only add missing keys
+    this.json.set("database.main.host", "localhost");
+    changes.clear();
+    final Map<String, Object> main = new LinkedHashMap<>();
+    main.put("host", "example.com");
+    main.put("port", 3306);
+    this.json.addDefaultsFromMap(Collections.singletonMap(
+        "database",
+        Collections.singletonMap("main", main)));
+    Assertions.assertEquals(
+        Collections.singletonList(new Change("database.main.port", null, 3306)),
+        changes);
+
+    changes.clear();
+    this.json.putAll(Collections.singletonMap("database", Collections.singletonMap("debug", true)));
+    Assertions.assertTrue(changes.contains(new Change("database.debug", null, true)));
+    Assertions.assertTrue(changes.contains(new Change("database.main.port", 3306, null)));
+
+    changes.clear();
+    this.json.clear();
+    Assertions.assertEquals(
+        Collections.singletonList(new Change("database.debug", true, null)),
+        changes);
+  }
+
+  @Test
+  void testListenersOutsideLock() {
+    final List<Boolean> locked = new ArrayList<>();
+    this.json.onChange("key", changes -> {
+      throw new IllegalStateException("Failing listener");
+    });
+    this.json.onChange("key", changes -> locked.add(Thread.holdsLock(this.json)));
+
+    // The failing listener neither stops the other one nor the change
+    Assertions.assertThrows(RuntimeException.class, () -> this.json.set("key", 1));
+    Assertions.assertEquals(Collections.singletonList(false), locked);
+    Assertions.assertEquals(1, this.json.getInt("key"));
+  }
+}
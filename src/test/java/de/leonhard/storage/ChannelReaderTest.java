@@ -0,0 +1,49 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.util.ChannelReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChannelReaderTest {
+
+  private final File file = new File("Channel.txt");
+
+  @AfterEach
+  void tearDown() {
+    this.file.delete();
+  }
+
+  @Test
+  void testBufferBoundaries() throws IOException {
+    // Multi byte chars & surrogate pairs crossing the boundaries of our buffers
+    final StringBuilder builder = new StringBuilder();
+    while (builder.length() < 3 * 1024 * 1024) {
+      builder.append("key: Größe 😀 ").append(builder.length()).append('\n');
+    }
+
+    for (final String text : new String[]{"", builder.substring(0, 200_000), builder.toString()}) {
+      Files.write(this.file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+      Assertions.assertEquals(text, ChannelReader.readToString(this.file));
+    }
+  }
+
+  @Test
+  void testSingleChars() throws IOException {
+    final String text = "ä😀b";
+    Files.write(this.file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+
+    final StringBuilder read = new StringBuilder();
+    try (final ChannelReader reader = new ChannelReader(this.file)) {
+      int c;
+      while ((c = reader.read()) != -1) {
+        read.append((char) c);
+      }
+    }
+    Assertions.assertEquals(text, read.toString());
+  }
+}
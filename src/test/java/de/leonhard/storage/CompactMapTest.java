@@ -0,0 +1,54 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.util.CompactMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CompactMapTest {
+
+  @Test
+  void testOrderAndLookup() {
+    final Map<String, Object> map = new CompactMap<>();
+    final Map<String, Object> expected = new LinkedHashMap<>();
+    // Exceed the linear threshold to also use the index table
+    for (int i = 0; i < 50; i++) {
+      map.put("key" + i, i);
+      expected.put("key" + i, i);
+    }
+    map.put(null, "null");
+    expected.put(null, "null");
+
+    Assertions.assertEquals(expected, map);
+    Assertions.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+    Assertions.assertEquals(42, map.get("key42"));
+    Assertions.assertEquals("null", map.get(null));
+    Assertions.assertNull(map.get("missing"));
+  }
+
+  @Test
+  void testRemove() {
+    final Map<String, Object> map = new CompactMap<>();
+    for (int i = 0; i < 20; i++) {
+      map.put("key" + i, i);
+    }
+    for (int i = 0; i < 20; i += 2) {
+      Assertions.assertEquals(i, map.remove("key" + i));
+    }
+    final Iterator<String> iterator = map.keySet().iterator();
+    while (iterator.hasNext()) {
+      if (!iterator.next().equals("key19")) {
+        iterator.remove();
+      }
+    }
+    map.put("key0", 0);
+
+    Assertions.assertEquals(2, map.size());
+    Assertions.assertEquals(Arrays.asList("key19", "key0"), new ArrayList<>(map.keySet()));
+    Assertions.assertFalse(map.containsKey("key1"));
+  }
+}
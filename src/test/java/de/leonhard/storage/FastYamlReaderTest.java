@@ -0,0 +1,88 @@
+package de.leonhard.storage;
+
+import com.esotericsoftware.yamlbeans.YamlException;
+import com.esotericsoftware.yamlbeans.YamlReader;
+import de.leonhard.storage.internal.editor.yaml.FastYamlReader;
+import de.leonhard.storage.internal.editor.yaml.SimpleYamlWriter;
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance of our {@link FastYamlReader} with yamlbeans.
+ */
+class FastYamlReaderTest {
+
+  private static final String[] SUPPORTED = {
+      // Written by YamlTest & ConfigTest
+      "#Example-1\n#Example-2\nKey: Default-Value-To-Be-Set-If-Not-Yet-Present\nTest-Key-1: true\n",
+      "",
+      "# only a comment",
+      "---\na: 1",
+      "a: b # comment\nc: d#e\n'quoted key': 'it''s'\n\"double\": \"\\u00e4\\\"\\n\"",
+      "a:\n  b:\n  c:\n    d: x\ne:",
+      "list:\n- a: 1\n  b:\n  - x\n  - y\n- c: |\n    lit\n    eral\n",
+      "a:\n  - 1\n  - 2\nb: [1, 'two', \"three\", [4]]\nc: {x: , y: {z: 2}}\nd: []\ne: {}",
+      "a: |\n\n  x\n\n  y\n\n\nb: |-\n  z\n",
+      "a: ~\nb: null\nc: -1\nd: http://x\n-e: f\n",
+  };
+
+  private static final String[] UNSUPPORTED = {
+      "a: &anchor 1\nb: *anchor",
+      "a: !!str 1",
+      "a: multi\n  line",
+      "a: >\n  folded\n",
+      "a: [1,\n  2]",
+      "a:\tb",
+      "- top level list",
+      "a: x: y",
+  };
+
+  @Test
+  void testSupported() throws YamlException {
+    for (final String yaml : SUPPORTED) {
+      final Map<String, Object> read = new FastYamlReader(yaml, DataType.UNSORTED).readToMap();
+      Assertions.assertNotNull(read, yaml);
+
+      final Object expected = new YamlReader(yaml).read();
+      Assertions.assertEquals(expected == null ? Collections.emptyMap() : expected, read, yaml);
+    }
+  }
+
+  @Test
+  void testUnsupported() {
+    for (final String yaml : UNSUPPORTED) {
+      Assertions.assertNull(new FastYamlReader(yaml, DataType.UNSORTED).readToMap(), yaml);
+    }
+  }
+
+  @Test
+  void testWrittenByYamlbeans() throws YamlException {
+    final Map<String, Object> inner = new LinkedHashMap<>();
+    inner.put("text", "multi\nline\n text");
+    inner.put("quoted", "'single' \"double\" # no comment: x");
+    inner.put("list", Arrays.asList("a", Collections.singletonMap("b", "c"), Arrays.asList()));
+    inner.put("empty", Collections.emptyMap());
+    inner.put("null", null);
+
+    final Map<String, Object> data = new LinkedHashMap<>();
+    data.put("Test-Key-1", true);
+    data.put("inner", inner);
+
+    final StringWriter writer = new StringWriter();
+    final SimpleYamlWriter yamlWriter = new SimpleYamlWriter(writer);
+    yamlWriter.write(data);
+    yamlWriter.close();
+
+    final String yaml = writer.toString();
+    Assertions.assertEquals(
+        new YamlReader(yaml).read(),
+        new FastYamlReader(yaml, DataType.UNSORTED).readToMap(),
+        yaml);
+  }
+}
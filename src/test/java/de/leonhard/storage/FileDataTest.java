@@ -0,0 +1,204 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.FileData;
+import de.leonhard.storage.internal.change.Change;
+import de.leonhard.storage.internal.exceptions.LightningValidationException;
+import de.leonhard.storage.internal.settings.DataType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FileDataTest {
+
+  FileData fileData;
+
+  @BeforeEach
+  void setUp() {
+    final Map<String, Object> database = new HashMap<>();
+    database.put("host", "localhost");
+    database.put("port", 3306);
+
+    final Map<String, Object> data = new HashMap<>();
+    data.put("database", database);
+    data.put("debug", true);
+
+    fileData = new FileData(data, DataType.UNSORTED);
+  }
+
+  @Test
+  void testKeyFilter() {
+    fileData.enableKeyFilter(100, 0.01);
+    Assertions.assertTrue(fileData.hasKeyFilter());
+
+    Assertions.assertTrue(fileData.containsKey("database"));
+    Assertions.assertTrue(fileData.containsKey("database.host"));
+    Assertions.assertEquals(3306, fileData.get("database.port"));
+    Assertions.assertFalse(fileData.containsKey("database.user"));
+    Assertions.assertNull(fileData.get("missing.key"));
+
+    fileData.insert("database.user.name", "root");
+    Assertions.assertTrue(fileData.containsKey("database.user"));
+    Assertions.assertEquals("root", fileData.get("database.user.name"));
+
+    final Map<String, Object> reloaded = new HashMap<>();
+    reloaded.put("other", 1);
+    fileData.loadData(reloaded);
+    Assertions.assertTrue(fileData.containsKey("other"));
+    Assertions.assertFalse(fileData.containsKey("database.host"));
+  }
+
+  @Test
+  void testKeyFilterConcurrentRebuild() throws InterruptedException {
+    fileData.enableKeyFilter(100, 0.01);
+    final AtomicBoolean missed = new AtomicBoolean();
+    final Thread reader = new Thread(() -> {
+      for (int i = 0; i < 200_000 && !missed.get(); i++) {
+        if (!fileData.containsKey("database.host")) {
+          missed.set(true);
+        }
+      }
+    });
+    reader.start();
+    while (reader.isAlive()) {
+      fileData.insert("database.user", "root");
+      fileData.rebuildKeyFilter();
+    }
+    reader.join();
+
+    // Readers never see a filter which isn't built completely
+    Assertions.assertFalse(missed.get());
+  }
+
+  @Test
+  void testCopyNonStringKeys() {
+    // Like integer keys parsed from YAML
+    final Map<Object, Object> levels = new HashMap<>();
+    levels.put(1, "easy");
+    levels.put(2, "hard");
+    final Map<Object, Object> data = new HashMap<>();
+    data.put("levels", levels);
+
+    final FileData copied = new FileData(new HashMap<>(), DataType.SORTED);
+    copied.insert("game", data);
+    Assertions.assertEquals("hard", copied.get("game.levels.2"));
+    Assertions.assertEquals("easy", copied.snapshot().get("game.levels.1"));
+  }
+
+  @Test
+  void testNavigable() {
+    final FileData navigable = new FileData(new HashMap<>(), DataType.NAVIGABLE);
+    navigable.insert("scores.dave", 40);
+    navigable.insert("scores.alice", 10);
+    navigable.insert("scores.carol", 30);
+    navigable.insert("scores.bob", 20);
+    navigable.insert("scores.bobby", 25);
+
+    Assertions.assertEquals("alice", navigable.firstKey("scores"));
+    Assertions.assertEquals("dave", navigable.lastKey("scores"));
+
+    final NavigableMap<String, Object> range = navigable.range("scores.b", "scores.d");
+    Assertions.assertEquals(Arrays.asList("bob", "bobby", "carol"), Arrays.asList(
+        range.keySet().toArray()));
+
+    final NavigableMap<String, Object> prefixed = navigable.prefixScan("scores.bob");
+    Assertions.assertEquals(Arrays.asList("bob", "bobby"), Arrays.asList(
+        prefixed.keySet().toArray()));
+
+    Assertions.assertEquals("dave", navigable.descendingKeySet("scores").first());
+
+    // Views stay live, although inserting replaces the layer
+    final NavigableMap<String, Object> descending = navigable.descendingMap("scores");
+    navigable.insert("scores.erin", 50);
+    navigable.insert("scores.bobcat", 22);
+    Assertions.assertEquals("erin", descending.firstKey());
+    Assertions.assertEquals(Arrays.asList("bob", "bobby", "bobcat"), Arrays.asList(
+        prefixed.keySet().toArray()));
+    Assertions.assertEquals(4, range.size());
+    Assertions.assertThrows(LightningValidationException.class, () -> fileData.firstKey(null));
+  }
+
+  @Test
+  void testNavigableViewsAreReadOnly() {
+    final FileData navigable = new FileData(new HashMap<>(), DataType.NAVIGABLE);
+    navigable.enableKeyFilter(16, 0.01);
+    navigable.insert("scores.alice", 10);
+    navigable.insert("scores.bob", 20);
+
+    // Changes have to go through the FileData, which keeps its key filter up to date
+    final NavigableMap<String, Object> range = navigable.range("scores.a", "scores.z");
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> range.put("carol", 30));
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> range.remove("bob"));
+    Assertions.assertThrows(UnsupportedOperationException.class, range::pollFirstEntry);
+    Assertions.assertThrows(
+        UnsupportedOperationException.class,
+        () -> range.firstEntry().setValue(0));
+    Assertions.assertThrows(
+        UnsupportedOperationException.class,
+        () -> range.entrySet().iterator().next().setValue(0));
+    Assertions.assertThrows(
+        UnsupportedOperationException.class,
+        () -> navigable.descendingKeySet("scores").pollFirst());
+    Assertions.assertThrows(
+        UnsupportedOperationException.class,
+        () -> navigable.prefixScan("scores.").keySet().remove("alice"));
+    Assertions.assertThrows(
+        UnsupportedOperationException.class,
+        () -> navigable.descendingMap("scores").values().clear());
+
+    Assertions.assertEquals(10, navigable.get("scores.alice"));
+    Assertions.assertEquals(20, navigable.get("scores.bob"));
+    Assertions.assertFalse(navigable.containsKey("scores.carol"));
+  }
+
+  @Test
+  void testPatch() {
+    final FileData sorted = new FileData(new HashMap<>(), DataType.SORTED);
+    sorted.insert("database.host", "localhost");
+    sorted.insert("database.port", 3306);
+    sorted.insert("players.alice", Arrays.asList("sword", "shield"));
+    sorted.insert("debug", true);
+    final Object database = sorted.get("database");
+    final Object players = sorted.get("players");
+    final Object items = sorted.get("players.alice");
+
+    // Equal content, but parsed again & in another order
+    final Map<String, Object> loaded = new LinkedHashMap<>();
+    final Map<String, Object> loadedPlayers = new LinkedHashMap<>();
+    loadedPlayers.put("alice", Arrays.asList("sword", "shield"));
+    loaded.put("players", loadedPlayers);
+    final Map<String, Object> loadedDatabase = new LinkedHashMap<>();
+    loadedDatabase.put("port", 3307);
+    loadedDatabase.put("host", "localhost");
+    loaded.put("database", loadedDatabase);
+    loaded.put("version", 2);
+
+    final List<Change> changes = new ArrayList<>();
+    Assertions.assertTrue(sorted.patch(loaded, changes));
+    Assertions.assertEquals(
+        Arrays.asList(
+            new Change("debug", true, null),
+            new Change("database.port", 3306, 3307),
+            new Change("version", null, 2)),
+        changes);
+
+    Assertions.assertSame(database, sorted.get("database"));
+    Assertions.assertSame(players, sorted.get("players"));
+    Assertions.assertSame(items, sorted.get("players.alice"));
+    Assertions.assertEquals(
+        Arrays.asList("players", "database", "version"),
+        new ArrayList<>(sorted.singleLayerKeySet()));
+    Assertions.assertEquals(
+        Arrays.asList("port", "host"),
+        new ArrayList<>(sorted.singleLayerKeySet("database")));
+
+    Assertions.assertFalse(sorted.patch(sorted.snapshot().toMap(), null));
+  }
+}
@@ -0,0 +1,120 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.util.ChannelReader;
+import de.leonhard.storage.util.ChannelWriter;
+import de.leonhard.storage.util.FileUtils;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FileUtilsTest {
+
+  private final File file = new File("FileUtils.txt");
+
+  @AfterEach
+  void tearDown() {
+    this.file.delete();
+  }
+
+  @Test
+  void testChannelWriter() throws IOException {
+    // Multi byte chars & surrogate pairs crossing the boundaries of our chunks & buffers
+    final StringBuilder builder = new StringBuilder();
+    while (builder.length() < 200_000) {
+      builder.append("key: Größe 😀 ").append(builder.length()).append('\n');
+    }
+    final String text = builder.toString();
+
+    try (final Writer writer = new ChannelWriter(this.file)) {
+      writer.write(text);
+    }
+    Assertions.assertEquals(text, readUtf8());
+
+    // A surrogate pair split across two writes & single chars
+    final char[] chars = "a😀ö".toCharArray();
+    try (final Writer writer = new ChannelWriter(this.file)) {
+      writer.write(chars, 0, 2);
+      writer.write(chars, 2, 2);
+      for (final char c : chars) {
+        writer.write(c);
+      }
+    }
+    Assertions.assertEquals("a😀öa😀ö", readUtf8());
+
+    // A lone surrogate is replaced
+    try (final Writer writer = new ChannelWriter(this.file)) {
+      writer.write("x\uD83D");
+    }
+    Assertions.assertEquals("x?", readUtf8());
+
+    // Lone high surrogates across writes never leave more than one surrogate waiting
+    try (final Writer writer = new ChannelWriter(this.file)) {
+      writer.write("\uD800");
+      writer.write("\uD800\uD800");
+      writer.write("x");
+      writer.write("\uD83D");
+      writer.write("\uDE00");
+    }
+    Assertions.assertEquals("???x😀", readUtf8());
+  }
+
+  @Test
+  void testReadAllLines() {
+    FileUtils.write(this.file, Arrays.asList("first", "", "third"));
+    Assertions.assertEquals(Arrays.asList("first", "", "third"), FileUtils.readAllLines(this.file));
+
+    FileUtils.writeToFile(this.file, input("a\r\nb\n\nc\n\n\n"));
+    Assertions.assertEquals(Arrays.asList("a", "b", "", "c"), FileUtils.readAllLines(this.file));
+
+    FileUtils.writeToFile(this.file, input(""));
+    Assertions.assertEquals(Collections.singletonList(""), FileUtils.readAllLines(this.file));
+  }
+
+  @Test
+  void testChecksum() throws Exception {
+    final byte[] data = new byte[200_000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i * 31);
+    }
+    FileUtils.writeToFile(this.file, new ByteArrayInputStream(data));
+    Assertions.assertArrayEquals(data, Files.readAllBytes(this.file.toPath()));
+
+    final StringBuilder expected = new StringBuilder();
+    for (final byte b : MessageDigest.getInstance("MD5").digest(data)) {
+      expected.append(String.format("%02x", b));
+    }
+    Assertions.assertEquals(expected.toString(), FileUtils.md5ChecksumAsString(this.file));
+  }
+
+  @Test
+  void testLoadAndSave() throws IOException {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 10_000; i++) {
+      builder.append("section").append(i).append(":\n  name: Größe ").append(i).append('\n');
+    }
+    final String text = builder.toString();
+
+    try (final Writer writer = FileUtils.createWriter(this.file)) {
+      writer.write(text);
+    }
+    Assertions.assertEquals(text, ChannelReader.readToString(this.file));
+    Assertions.assertEquals(text, readUtf8());
+  }
+
+  private String readUtf8() throws IOException {
+    return new String(Files.readAllBytes(this.file.toPath()), StandardCharsets.UTF_8);
+  }
+
+  private ByteArrayInputStream input(final String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,86 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.util.FileUtils;
+import java.io.File;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FlatFileRepositoryTest {
+
+  private final File directory = new File("repository");
+
+  @AfterEach
+  void tearDown() {
+    for (final File file : FileUtils.listFiles(this.directory)) {
+      file.delete();
+    }
+    this.directory.delete();
+  }
+
+  @Test
+  void testEviction() {
+    final FlatFileRepository<Json> repository = new FlatFileRepository<>(
+        this.directory,
+        LightningBuilder::createJson,
+        2,
+        Long.MAX_VALUE);
+
+    final Json first = repository.get("first");
+    first.set("key", "value");
+    Assertions.assertTrue(first.isDirty());
+    Assertions.assertSame(first, repository.get("first"));
+    Assertions.assertFalse(new Json("first", this.directory.getPath()).contains("key"));
+
+    repository.get("second");
+    // Access "first" again so "second" is our least recently used file
+    repository.get("first");
+    repository.preloadAsync("third").join();
+
+    Assertions.assertEquals(2, repository.size());
+    Assertions.assertTrue(repository.isLoaded("first"));
+    Assertions.assertFalse(repository.isLoaded("second"));
+
+    repository.invalidateAll();
+    Assertions.assertFalse(first.isDirty());
+    Assertions.assertEquals("value", new Json("first", this.directory.getPath()).get("key"));
+  }
+
+  @Test
+  void testEvictedInstanceIsReused() {
+    final FlatFileRepository<Json> repository = new FlatFileRepository<>(
+        this.directory,
+        LightningBuilder::createJson,
+        1,
+        Long.MAX_VALUE);
+
+    final Json first = repository.get("first");
+    repository.get("second");
+    Assertions.assertFalse(repository.isLoaded("first"));
+
+    // Our reference keeps the evicted instance alive, so no second instance is created
+    first.set("key", "value");
+    Assertions.assertSame(first, repository.get("first"));
+    Assertions.assertFalse(first.isDirty());
+  }
+
+  @Test
+  void testByteBudgetOfNewFiles() {
+    final FlatFileRepository<Json> repository = new FlatFileRepository<>(
+        this.directory,
+        builder -> {
+          final Json json = builder.createJson();
+          json.getFileData().insert("data", "0123456789");
+          return json;
+        },
+        100,
+        30);
+
+    // Neither file was written yet, their size is estimated from their data
+    repository.get("first");
+    Assertions.assertTrue(repository.getEstimatedBytes() > 0);
+    repository.get("second");
+    Assertions.assertEquals(1, repository.size());
+    Assertions.assertTrue(repository.isLoaded("second"));
+  }
+}
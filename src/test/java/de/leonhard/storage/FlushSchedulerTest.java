@@ -0,0 +1,159 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.FileData;
+import de.leonhard.storage.internal.FlatFile;
+import de.leonhard.storage.internal.flush.FlushMetrics;
+import de.leonhard.storage.internal.flush.FlushScheduler;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.WriteSettings;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FlushSchedulerTest {
+
+  private final List<FlatFile> files = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    LightningProviders.flushScheduler(null);
+    for (final FlatFile flatFile : this.files) {
+      flatFile.getFile().delete();
+    }
+  }
+
+  @Test
+  void testDeduplication() {
+    // Writers are only started once we run them
+    final List<Runnable> writers = new ArrayList<>();
+    final FlushScheduler scheduler = new FlushScheduler(writers::add, 1, 16, Long.MAX_VALUE);
+    LightningProviders.flushScheduler(scheduler);
+
+    final Json first = create("Scheduled-1");
+    final Json second = create("Scheduled-2");
+    for (int i = 0; i < 100; i++) {
+      first.set("value", i);
+      second.set("value", i);
+    }
+
+    Assertions.assertEquals(1, writers.size());
+    Assertions.assertEquals(2, scheduler.getMetrics().getQueuedFiles());
+    Assertions.assertFalse(new Json(first.getFile()).contains("value"));
+
+    writers.get(0).run();
+    final FlushMetrics metrics = scheduler.getMetrics();
+    Assertions.assertEquals(0, metrics.getQueuedFiles());
+    Assertions.assertEquals(0, metrics.getActiveWriters());
+    Assertions.assertEquals(2, metrics.getFlushedFiles());
+    Assertions.assertTrue(metrics.getMaxLatency(TimeUnit.NANOSECONDS) > 0);
+    Assertions.assertEquals(99, new Json(first.getFile()).getInt("value"));
+    Assertions.assertEquals(99, new Json(second.getFile()).getInt("value"));
+  }
+
+  @Test
+  void testBackpressure() {
+    final List<Runnable> writers = new ArrayList<>();
+    final FlushScheduler scheduler = new FlushScheduler(writers::add, 1, 1, Long.MAX_VALUE);
+    LightningProviders.flushScheduler(scheduler);
+
+    final Json queued = create("Scheduled-1");
+    final Json rejected = create("Scheduled-2");
+    queued.set("value", 1);
+    // The queue is full, so our thread has to write the file itself
+    rejected.set("value", 2);
+
+    Assertions.assertEquals(1, scheduler.getMetrics().getRejectedFiles());
+    Assertions.assertEquals(2, new Json(rejected.getFile()).getInt("value"));
+
+    scheduler.flushAll();
+    Assertions.assertEquals(1, new Json(queued.getFile()).getInt("value"));
+  }
+
+  @Test
+  void testFlushAll() {
+    final FlushScheduler scheduler = LightningProviders.flushScheduler();
+    for (int i = 0; i < 10; i++) {
+      final Json json = create("Scheduled-" + i);
+      json.set("value", i);
+    }
+
+    scheduler.flushAll();
+    Assertions.assertEquals(0, scheduler.getMetrics().getQueuedFiles());
+    for (int i = 0; i < 10; i++) {
+      Assertions.assertEquals(i, new Json(this.files.get(i).getFile()).getInt("value"));
+    }
+  }
+
+  @Test
+  void testFailedWrite() {
+    final List<Runnable> writers = new ArrayList<>();
+    final FlushScheduler scheduler = new FlushScheduler(writers::add, 1, 16, Long.MAX_VALUE);
+    LightningProviders.flushScheduler(scheduler);
+
+    final AtomicBoolean failing = new AtomicBoolean(true);
+    final Yaml yaml = new Yaml("Scheduled-failing", "") {
+      @Override
+      protected void write(final FileData data) throws IOException {
+        if (failing.get()) {
+          throw new IOException("Disk full");
+        }
+        super.write(data);
+      }
+    };
+    yaml.setWriteSettings(WriteSettings.SCHEDULED);
+    this.files.add(yaml);
+    yaml.set("value", 1);
+
+    Assertions.assertThrows(RuntimeException.class, () -> writers.get(0).run());
+    FlushMetrics metrics = scheduler.getMetrics();
+    Assertions.assertEquals(1, metrics.getFailedFlushes());
+    Assertions.assertEquals(0, metrics.getFlushedFiles());
+    Assertions.assertEquals(0, metrics.getActiveWriters());
+    Assertions.assertTrue(yaml.isDirty());
+
+    // Failed files are retried by flushAll()
+    failing.set(false);
+    scheduler.flushAll();
+    metrics = scheduler.getMetrics();
+    Assertions.assertEquals(1, metrics.getFlushedFiles());
+    Assertions.assertFalse(yaml.isDirty());
+    Assertions.assertEquals(1, new Yaml(yaml.getFile()).getInt("value"));
+  }
+
+  @Test
+  void testRejectedWriter() {
+    final FlushScheduler scheduler = new FlushScheduler(
+        runnable -> {
+          throw new RejectedExecutionException();
+        },
+        1,
+        16,
+        Long.MAX_VALUE);
+    LightningProviders.flushScheduler(scheduler);
+
+    // The calling thread writes its own file instead
+    final Json json = create("Scheduled-rejected");
+    json.set("value", 1);
+
+    final FlushMetrics metrics = scheduler.getMetrics();
+    Assertions.assertEquals(0, metrics.getActiveWriters());
+    Assertions.assertEquals(1, metrics.getFlushedFiles());
+    Assertions.assertEquals(1, new Json(json.getFile()).getInt("value"));
+  }
+
+  private Json create(final String name) {
+    final Json json = LightningBuilder
+        .fromPath(name, "")
+        .setWriteSettings(WriteSettings.SCHEDULED)
+        .createJson();
+    this.files.add(json);
+    return json;
+  }
+}
@@ -0,0 +1,85 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.editor.json.JsonCodec;
+import de.leonhard.storage.internal.provider.FormatCodec;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FormatCodecTest {
+
+  private final File file = new File("Codec.tmp");
+
+  @AfterEach
+  void tearDown() {
+    this.file.delete();
+    new File("Codec.json").delete();
+    LightningProviders.formatCodec(new JsonCodec());
+  }
+
+  /**
+   * Runs every registered codec on the same data. Strings only, as YAML reads its scalars as
+   * Strings.
+   */
+  @Test
+  void testEveryCodec() throws IOException {
+    final Map<String, Object> data = new LinkedHashMap<>();
+    for (int i = 0; i < 1_000; i++) {
+      final Map<String, Object> section = new LinkedHashMap<>();
+      final List<Object> list = new ArrayList<>();
+      list.add("first " + i);
+      list.add("second " + i);
+      section.put("name", "Section " + i);
+      section.put("list", list);
+      data.put("section" + i, section);
+    }
+
+    for (final FileType fileType : FileType.values()) {
+      final FormatCodec codec = LightningProviders.formatCodec(fileType);
+      Assertions.assertEquals(fileType, codec.getFileType());
+
+      codec.write(data, this.file);
+      Assertions.assertEquals(data, codec.read(this.file, DataType.UNSORTED), fileType.name());
+    }
+  }
+
+  @Test
+  void testRegisteredCodec() {
+    final AtomicInteger writes = new AtomicInteger();
+    LightningProviders.formatCodec(new FormatCodec() {
+      private final FormatCodec builtIn = new JsonCodec();
+
+      @Override
+      public FileType getFileType() {
+        return FileType.JSON;
+      }
+
+      @Override
+      public Map<String, Object> read(final File file, final DataType dataType)
+          throws IOException {
+        return this.builtIn.read(file, dataType);
+      }
+
+      @Override
+      public void write(final Map<String, Object> data, final File file) throws IOException {
+        writes.incrementAndGet();
+        this.builtIn.write(data, file);
+      }
+    });
+
+    final Json json = new Json("Codec", "");
+    json.set("key", "value");
+    Assertions.assertTrue(writes.get() > 0);
+    Assertions.assertEquals("value", new Json("Codec", "").getString("key"));
+  }
+}
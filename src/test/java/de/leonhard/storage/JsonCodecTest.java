@@ -0,0 +1,58 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.editor.json.JsonReader;
+import de.leonhard.storage.internal.editor.json.JsonWriter;
+import de.leonhard.storage.internal.settings.DataType;
+import de.leonhard.storage.util.JsonUtils;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class JsonCodecTest {
+
+  @Test
+  void testSameAsOrgJson() throws IOException {
+    final Map<String, Object> inner = new LinkedHashMap<>();
+    inner.put("escaped", "quote \" slash </ tab \t unicode \u2028 \u00a0");
+    inner.put("numbers", Arrays.asList(1, -2L, 2.50, 1e300, "010"));
+    inner.put("single", Collections.singletonList(true));
+    inner.put("empty", Collections.emptyMap());
+    inner.put("dropped", null);
+
+    final Map<String, Object> data = new LinkedHashMap<>();
+    data.put("inner", inner);
+    data.put("zero", 0);
+
+    final StringWriter written = new StringWriter();
+    try (final JsonWriter writer = new JsonWriter(written, 3)) {
+      writer.writeMap(data);
+    }
+
+    final String json = written.toString();
+    Assertions.assertEquals(
+        JsonUtils.toMap(new JSONObject(JsonUtils.getJsonFromMap(data).toString(3)), DataType.UNSORTED),
+        JsonUtils.toMap(new JSONObject(json), DataType.UNSORTED));
+    Assertions.assertEquals(
+        JsonUtils.toMap(new JSONObject(json), DataType.UNSORTED),
+        new JsonReader(new StringReader(json), DataType.UNSORTED).readToMap());
+  }
+
+  @Test
+  void testLenientSyntax() throws IOException {
+    // Accepted by org.json but left to it by our reader
+    Assertions.assertNull(
+        new JsonReader(new StringReader("{key: 'value'}"), DataType.UNSORTED).readToMap());
+    Assertions.assertEquals(
+        "010",
+        new JsonReader(new StringReader("{\"key\": 010}"), DataType.UNSORTED)
+            .readToMap()
+            .get("key"));
+  }
+}
@@ -0,0 +1,68 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.FlatFile;
+import de.leonhard.storage.util.FlatFileConverter;
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LbinTest {
+
+  Lbin lbin;
+
+  @BeforeEach
+  void setUp() {
+    lbin = LightningBuilder.fromPath("Example", "").createLbin();
+    Assertions.assertEquals("Example.lbin", lbin.getName());
+  }
+
+  @AfterEach
+  void tearDown() {
+    new File("Example.lbin").delete();
+    new File("Example.json").delete();
+  }
+
+  @Test
+  void testSetAndReload() {
+    lbin.set("player.name", "Notch");
+    lbin.set("player.level", 42);
+    lbin.set("player.balance", 1250.5);
+    lbin.set("player.inventory", Arrays.asList("diamond", "stick"));
+
+    final Lbin reloaded = new Lbin("Example", "");
+    Assertions.assertEquals("Notch", reloaded.getString("player.name"));
+    Assertions.assertEquals(42, reloaded.get("player.level"));
+    Assertions.assertEquals(1250.5, reloaded.get("player.balance"));
+    Assertions.assertEquals(Arrays.asList("diamond", "stick"), reloaded.getList("player.inventory"));
+  }
+
+  @Test
+  void testOtherValues() {
+    final UUID uuid = UUID.randomUUID();
+    lbin.set("set", new LinkedHashSet<>(Arrays.asList("a", "b")));
+    lbin.set("array", new int[]{1, 2});
+    lbin.set("enum", FileType.JSON);
+    lbin.set("uuid", uuid);
+
+    final Lbin reloaded = new Lbin("Example", "");
+    Assertions.assertEquals(Arrays.asList("a", "b"), reloaded.getList("set"));
+    Assertions.assertEquals(Arrays.asList(1, 2), reloaded.getList("array"));
+    Assertions.assertEquals("JSON", reloaded.getString("enum"));
+    Assertions.assertEquals(uuid.toString(), reloaded.getString("uuid"));
+  }
+
+  @Test
+  void testConvert() {
+    lbin.set("player.name", "Notch");
+
+    final FlatFile json = FlatFileConverter.convert(lbin, FileType.JSON);
+    Assertions.assertTrue(json instanceof Json);
+    Assertions.assertEquals("Notch", new Json("Example", "").getString("player.name"));
+  }
+}
@@ -0,0 +1,169 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.DirectoryLoadResult;
+import de.leonhard.storage.internal.FileType;
+import de.leonhard.storage.internal.FlatFile;
+import de.leonhard.storage.internal.FlatFileRegistry;
+import de.leonhard.storage.internal.exceptions.LightningValidationException;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.LoadSettings;
+import de.leonhard.storage.internal.settings.WriteSettings;
+import de.leonhard.storage.util.FileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LightningBuilderTest {
+
+  @AfterEach
+  void tearDown() {
+    new File("Shared.yml").delete();
+    new File("Shared-factory.yml").delete();
+    new File("Async.json").delete();
+    new File("Lazy.yml").delete();
+    for (final File file : FileUtils.listFiles(new File("directory"))) {
+      file.delete();
+    }
+    new File("directory").delete();
+  }
+
+  @Test
+  void testShared() {
+    final Yaml first = LightningBuilder.fromPath("Shared", "").shared().createYaml();
+    final Yaml second = LightningBuilder.fromPath("Shared", "./").shared().createYaml();
+    final Yaml notShared = LightningBuilder.fromPath("Shared", "").createYaml();
+
+    Assertions.assertSame(first, second);
+    Assertions.assertNotSame(first, notShared);
+    Assertions.assertEquals(2, FlatFileRegistry.getReferences(first.getFile()));
+    Assertions.assertThrows(
+        LightningValidationException.class,
+        () -> LightningBuilder.fromPath("Shared", "").shared().createConfig());
+
+    first.set("key", "value");
+    Assertions.assertEquals("value", second.get("key"));
+
+    Assertions.assertEquals(1, FlatFileRegistry.release(first));
+    Assertions.assertEquals(0, FlatFileRegistry.release(second));
+    Assertions.assertNotSame(
+        first,
+        LightningBuilder.fromPath("Shared", "").shared().createYaml());
+  }
+
+  @Test
+  void testSharedFactory() {
+    final File file = new File("Shared-factory.yml");
+    // Factories run without the lock of the registry, other threads may use it meanwhile
+    final Yaml yaml = FlatFileRegistry.acquire(Yaml.class, file, () -> {
+      final int references = CompletableFuture
+          .supplyAsync(() -> FlatFileRegistry.getReferences(file))
+          .join();
+      Assertions.assertEquals(0, references);
+      return new Yaml(file);
+    });
+
+    Assertions.assertSame(yaml, FlatFileRegistry.acquire(Yaml.class, file, () -> new Yaml(file)));
+    Assertions.assertEquals(2, FlatFileRegistry.getReferences(file));
+    FlatFileRegistry.release(yaml);
+    FlatFileRegistry.release(yaml);
+  }
+
+  @Test
+  void testAsync() {
+    final Json json = LightningBuilder
+        .fromPath("Async", "")
+        .loadAsync(LightningBuilder::createJson)
+        .join();
+
+    CompletableFuture<Void> lastWrite = null;
+    for (int i = 0; i < 50; i++) {
+      lastWrite = json.setAsync("counter", i);
+      // Our data is updated immediately
+      Assertions.assertEquals(i, json.getInt("counter"));
+    }
+    lastWrite.join();
+
+    Assertions.assertEquals(49, new Json("Async", "").getInt("counter"));
+    json.reloadAsync().join();
+    Assertions.assertEquals(49, json.getInt("counter"));
+  }
+
+  @Test
+  void testAsyncWriteOrdering() {
+    // Asynchronous writes only run once we run them
+    final List<Runnable> pending = new ArrayList<>();
+    LightningProviders.ioExecutor(pending::add);
+    try {
+      final Json json = LightningBuilder
+          .fromPath("Async", "")
+          .setWriteSettings(WriteSettings.MANUALLY)
+          .createJson();
+      json.setAsync("counter", 1);
+      Assertions.assertTrue(json.isDirty());
+
+      json.set("counter", 2);
+      json.write();
+      // The older snapshot mustn't overwrite the newer synchronous write
+      pending.remove(0).run();
+      Assertions.assertFalse(json.isDirty());
+      Assertions.assertEquals(2, new Json("Async", "").getInt("counter"));
+    } finally {
+      LightningProviders.ioExecutor(null);
+    }
+  }
+
+  @Test
+  void testLoadDirectory() throws IOException {
+    final File directory = new File("directory");
+    new Yaml("first", "directory").set("key", "value");
+    new Json("second", "directory").set("key", "value");
+    new Toml("third", "directory").set("key", "value");
+    Files.write(new File(directory, "broken.json").toPath(), Collections.singletonList("{"));
+    Files.write(new File(directory, "ignored.txt").toPath(), Collections.singletonList("text"));
+
+    final DirectoryLoadResult all = LightningBuilder.loadDirectory(directory);
+    Assertions.assertEquals(4, all.getReports().size());
+    Assertions.assertEquals(3, all.getFlatFiles().size());
+    Assertions.assertEquals(1, all.getErrors().size());
+    Assertions.assertEquals("broken.json", all.getErrors().get(0).getFile().getName());
+    for (final FlatFile flatFile : all.getFlatFiles().values()) {
+      Assertions.assertEquals("value", flatFile.get("key"));
+    }
+
+    final DirectoryLoadResult yamlOnly = LightningBuilder.loadDirectory(directory, FileType.YAML);
+    Assertions.assertEquals(1, yamlOnly.getFlatFiles().size());
+    Assertions.assertTrue(yamlOnly.getFlatFiles().values().iterator().next() instanceof Yaml);
+  }
+
+  @Test
+  void testLazy() {
+    new Yaml("Lazy", "").set("key", "value");
+
+    final AtomicInteger reads = new AtomicInteger();
+    final Yaml lazy = LightningBuilder
+        .fromPath("Lazy", "")
+        .setLoadSettings(LoadSettings.LAZY)
+        .setKeyFilter(100, 0.01)
+        .reloadCallback(flatFile -> reads.incrementAndGet())
+        .createYaml();
+    Assertions.assertFalse(lazy.isLoaded());
+    Assertions.assertEquals(0, reads.get());
+
+    // Only one of the threads reads our file
+    IntStream.range(0, 16).parallel().forEach(i -> Assertions.assertEquals(
+        "value",
+        lazy.getString("key")));
+    Assertions.assertTrue(lazy.isLoaded());
+    Assertions.assertTrue(lazy.getFileData().hasKeyFilter());
+    Assertions.assertEquals(1, reads.get());
+  }
+}
@@ -0,0 +1,103 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.FileData;
+import de.leonhard.storage.internal.flush.FlushScheduler;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import de.leonhard.storage.internal.settings.WriteSettings;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LightningFlusherTest {
+
+  private final List<String> written = new ArrayList<>();
+  private final List<Yaml> files = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    LightningProviders.flushScheduler(null);
+    for (final Yaml yaml : this.files) {
+      yaml.getFile().delete();
+    }
+  }
+
+  @Test
+  void testRunFor() {
+    LightningFlusher.enableCooperativeMode();
+    final Yaml old = create("Cooperative-old", 0);
+    final Yaml young = create("Cooperative-young", 0);
+    final Yaml important = create("Cooperative-important", 1);
+    old.set("value", 1);
+    young.set("value", 2);
+    important.set("value", 3);
+    old.set("value", 4);
+
+    // Nothing is written by the thread making the changes
+    Assertions.assertTrue(this.written.isEmpty());
+    Assertions.assertEquals(0, LightningFlusher.runFor(Duration.ZERO));
+    Assertions.assertEquals(3, LightningFlusher.getMetrics().getQueuedFiles());
+
+    Assertions.assertEquals(3, LightningFlusher.runFor(Duration.ofSeconds(10)));
+    Assertions.assertEquals(
+        Arrays.asList("Cooperative-important.yml", "Cooperative-old.yml", "Cooperative-young.yml"),
+        this.written);
+    Assertions.assertEquals(4, new Yaml(old.getFile()).getInt("value"));
+  }
+
+  @Test
+  void testAsyncWrites() {
+    // Every file is written from a snapshot
+    LightningFlusher.enableCooperativeMode(1);
+    final Yaml yaml = create("Cooperative-async", 0);
+    yaml.set("value", 1);
+    yaml.set("value", 2);
+
+    Assertions.assertEquals(1, LightningFlusher.runFor(Duration.ofSeconds(10)));
+    LightningProviders.flushScheduler().flushAll();
+    Assertions.assertEquals(1, LightningFlusher.getMetrics().getFlushedFiles());
+    Assertions.assertEquals(2, new Yaml(yaml.getFile()).getInt("value"));
+  }
+
+  @Test
+  void testPreviousSchedulerIsShutDown() {
+    // Writers are only started once we run them
+    final List<Runnable> writers = new ArrayList<>();
+    final FlushScheduler previous = new FlushScheduler(writers::add, 1, 16, Long.MAX_VALUE);
+    LightningProviders.flushScheduler(previous);
+    final Yaml yaml = create("Cooperative-previous", 0);
+    yaml.set("value", 1);
+
+    LightningFlusher.enableCooperativeMode();
+    Assertions.assertEquals(Collections.singletonList("Cooperative-previous.yml"), this.written);
+    Assertions.assertEquals(1, new Yaml(yaml.getFile()).getInt("value"));
+
+    // Neither the late writer nor later changes use the previous scheduler
+    writers.get(0).run();
+    yaml.set("value", 2);
+    Assertions.assertEquals(1, previous.getMetrics().getFlushedFiles());
+    Assertions.assertEquals(1, LightningFlusher.getMetrics().getQueuedFiles());
+  }
+
+  private Yaml create(final String name, final int priority) {
+    final Yaml yaml = new Yaml(name, "") {
+      @Override
+      protected void write(final FileData data) throws IOException {
+        synchronized (LightningFlusherTest.this.written) {
+          LightningFlusherTest.this.written.add(getName());
+        }
+        super.write(data);
+      }
+    };
+    yaml.setWriteSettings(WriteSettings.SCHEDULED);
+    yaml.setFlushPriority(priority);
+    this.files.add(yaml);
+    return yaml;
+  }
+}
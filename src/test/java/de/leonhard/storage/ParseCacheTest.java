@@ -0,0 +1,90 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.editor.binary.BinaryReader;
+import de.leonhard.storage.internal.editor.binary.BinaryWriter;
+import de.leonhard.storage.internal.editor.binary.ParseCache;
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ParseCacheTest {
+
+  private final File file = new File("Cached.yml");
+
+  @AfterEach
+  void tearDown() {
+    new File(".Cached.yml.cache").delete();
+    this.file.delete();
+  }
+
+  @Test
+  void testBinaryRoundTrip() throws IOException {
+    final Map<String, Object> nested = new LinkedHashMap<>();
+    nested.put("name", "Nötig");
+    nested.put("level", 12);
+    nested.put("empty", null);
+
+    final Map<String, Object> data = new LinkedHashMap<>();
+    data.put("first", nested);
+    data.put("second", new LinkedHashMap<>(nested));
+    data.put("list", Arrays.asList(1L, -2.5, 0.5f, true, "text", Collections.emptyList()));
+    data.put("misc", Arrays.asList((byte) 1, (short) -2, 'c', new BigDecimal("1.25"),
+        LocalDate.of(2020, 1, 1)));
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (final BinaryWriter writer = new BinaryWriter(outputStream)) {
+      writer.writeMap(data);
+    }
+    final Map<String, Object> read = new BinaryReader(
+        ByteBuffer.wrap(outputStream.toByteArray()),
+        DataType.SORTED).readMap();
+
+    Assertions.assertEquals(data, read);
+  }
+
+  @Test
+  void testSidecar() throws IOException {
+    final Yaml yaml = new Yaml("Cached", "");
+    yaml.set("key", "value");
+
+    final Yaml cached = LightningBuilder.fromPath("Cached", "").setParseCache(true).createYaml();
+    Assertions.assertEquals("value", cached.get("key"));
+    final ParseCache parseCache = new ParseCache(this.file);
+    Assertions.assertTrue(parseCache.getCacheFile().exists());
+    Assertions.assertEquals(
+        Collections.singletonMap("key", "value"),
+        parseCache.read(DataType.UNSORTED));
+
+    // A sidecar matching the fingerprint is used instead of parsing the file
+    parseCache.write(Collections.singletonMap("key", "from cache"));
+    Assertions.assertEquals(
+        "from cache",
+        LightningBuilder.fromPath("Cached", "").setParseCache(true).createYaml().get("key"));
+
+    // A fingerprint taken before a write doesn't match the file afterwards
+    Assertions.assertTrue(parseCache.isUpToDate());
+    yaml.set("key", "other");
+    Assertions.assertFalse(parseCache.isUpToDate());
+
+    // Changing the file invalidates our sidecar
+    yaml.set("key", "changed");
+    Assertions.assertEquals(
+        "changed",
+        LightningBuilder.fromPath("Cached", "").setParseCache(true).createYaml().get("key"));
+    // The stale sidecar, read before, was replaced
+    Assertions.assertEquals(
+        Collections.singletonMap("key", "changed"),
+        new ParseCache(this.file).read(DataType.UNSORTED));
+  }
+}
@@ -0,0 +1,92 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.editor.toml.TomlReader;
+import de.leonhard.storage.internal.exceptions.TomlException;
+import de.leonhard.storage.internal.settings.DataType;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TomlReaderTest {
+
+  private static final String TOML = "# comment\n"
+                                     + "a = 1 # trailing\n"
+                                     + "b = \"q\\u00e4\\\"\"\n"
+                                     + "c = '''\nliteral\nlines'''\n"
+                                     + "[table.\"x y\"]\n"
+                                     + "array = [1, 2 ,3]\n"
+                                     + "inline = {x = 1.5, y = '2'}\n"
+                                     + "[[tables]]\n"
+                                     + "flag = true\n"
+                                     + "[[tables]]\n"
+                                     + "flag = false\n";
+
+  @Test
+  void testChunkBoundaries() {
+    final Map<String, Object> expected = new TomlReader(TOML, false, DataType.SORTED).read();
+
+    // Every char is a boundary of our window
+    final Reader singleChars = new StringReader(TOML) {
+      @Override
+      public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        return super.read(cbuf, off, Math.min(len, 1));
+      }
+    };
+    Assertions.assertEquals(
+        expected,
+        new TomlReader(singleChars, false, DataType.SORTED).read());
+    final Map<?, ?> table = (Map<?, ?>) ((Map<?, ?>) expected.get("table")).get("x y");
+    Assertions.assertEquals(2, table.size());
+  }
+
+  @Test
+  void testTokenBiggerThanWindow() {
+    final StringBuilder value = new StringBuilder();
+    while (value.length() < 100_000) {
+      value.append("line ").append(value.length()).append('\n');
+    }
+
+    final Map<String, Object> read = new TomlReader(
+        "big = '''" + value + "'''\nafter = 1",
+        false,
+        DataType.UNSORTED).read();
+    Assertions.assertEquals(value.toString(), read.get("big"));
+    Assertions.assertEquals(1, read.get("after"));
+  }
+
+  @Test
+  void testNumbersAndDates() {
+    final Map<String, Object> read = new TomlReader(
+        "int = -1_000\n"
+            + "long = 9223372036854775807\n"
+            + "double = 2.5e-3\n"
+            + "precise = 1.7976931348623157e308\n"
+            + "date = 1979-05-27\n"
+            + "local = 1979-05-27T07:32:00.5\n"
+            + "zoned = 1979-05-27T00:32:00-07:00\n",
+        false,
+        DataType.UNSORTED).read();
+
+    Assertions.assertEquals(-1000, read.get("int"));
+    Assertions.assertEquals(Long.MAX_VALUE, read.get("long"));
+    Assertions.assertEquals(0.0025, read.get("double"));
+    Assertions.assertEquals(Double.MAX_VALUE, read.get("precise"));
+    Assertions.assertEquals(LocalDate.of(1979, 5, 27), read.get("date"));
+    Assertions.assertEquals(
+        LocalDateTime.of(1979, 5, 27, 7, 32, 0, 500_000_000),
+        read.get("local"));
+    Assertions.assertEquals(
+        ZonedDateTime.of(1979, 5, 27, 0, 32, 0, 0, ZoneOffset.ofHours(-7)),
+        read.get("zoned"));
+    Assertions.assertThrows(
+        TomlException.class,
+        () -> new TomlReader("overflow = 9223372036854775808", false).read());
+  }
+}
@@ -0,0 +1,35 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.editor.toml.TomlManager;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TomlWriterTest {
+
+  @Test
+  void testRoundTrip() throws IOException {
+    final StringBuilder longValue = new StringBuilder();
+    while (longValue.length() < 20_000) {
+      longValue.append("plain text \"quoted\"\t");
+    }
+
+    final Map<String, Object> inner = new LinkedHashMap<>();
+    inner.put("key with.dot", "escaped \\ \n value");
+    inner.put("tables", Arrays.asList(
+        Collections.singletonMap("id", 1),
+        Collections.singletonMap("id", 2)));
+
+    final Map<String, Object> data = new LinkedHashMap<>();
+    data.put("long", longValue.toString());
+    data.put("table", inner);
+
+    final String toml = TomlManager.writeToString(data);
+    Assertions.assertTrue(toml.contains("[[table.tables]]"));
+    Assertions.assertEquals(data, TomlManager.read(toml));
+  }
+}
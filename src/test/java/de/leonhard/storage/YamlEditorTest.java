@@ -0,0 +1,69 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.editor.yaml.YamlEditor;
+import de.leonhard.storage.util.FileUtils;
+import de.leonhard.storage.util.YamlUtils;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class YamlEditorTest {
+
+  private final File file = new File("Editor.yml");
+
+  @AfterEach
+  void tearDown() {
+    this.file.delete();
+  }
+
+  @Test
+  void testParts() {
+    FileUtils.write(this.file, Arrays.asList("#head", "key: value", "#pure", "other: 1", "#foot"));
+    final YamlEditor editor = new YamlEditor(this.file);
+
+    Assertions.assertEquals(Collections.singletonList("#head"), editor.readHeader());
+    Assertions.assertEquals(Collections.singletonList("#foot"), editor.readFooter());
+    Assertions.assertEquals(Collections.singletonList("#pure"), editor.readPureComments());
+    Assertions.assertEquals(Arrays.asList("key: value", "other: 1"), editor.readKeys());
+    Assertions.assertEquals(
+        Arrays.asList("key: value", "#pure", "other: 1"),
+        editor.readWithoutHeaderAndFooter());
+  }
+
+  @Test
+  void testSetHeader() {
+    // A comment equal to a line of the old header must survive
+    FileUtils.write(this.file, Arrays.asList("#old", "key: value", "#old"));
+    final YamlEditor editor = new YamlEditor(this.file);
+
+    editor.setHeader(Arrays.asList("new", "#second"));
+    editor.addHeader(Collections.singletonList("first"));
+    Assertions.assertEquals(Arrays.asList("#first", "#new", "#second"), editor.readHeader());
+    // Nothing is written before the flush
+    Assertions.assertEquals(
+        Arrays.asList("#old", "key: value", "#old"),
+        FileUtils.readAllLines(this.file));
+
+    editor.flush();
+    Assertions.assertEquals(
+        Arrays.asList("#first", "#new", "#second", "key: value", "#old"),
+        FileUtils.readAllLines(this.file));
+  }
+
+  @Test
+  void testCallerListsUnchanged() {
+    final List<String> lines = new ArrayList<>(Arrays.asList("#head", "key: value", "#foot"));
+    final List<String> copy = new ArrayList<>(lines);
+
+    Assertions.assertEquals(Collections.singletonList("#foot"), YamlUtils.getFooterFromLines(lines));
+    Assertions.assertEquals(
+        Collections.singletonList("key: value"),
+        YamlUtils.getLinesWithoutFooterAndHeaderFromLines(lines));
+    Assertions.assertEquals(copy, lines);
+  }
+}
@@ -0,0 +1,88 @@
+package de.leonhard.storage;
+
+import de.leonhard.storage.internal.editor.yaml.SimpleYamlWriter;
+import de.leonhard.storage.internal.editor.yaml.YamlEmitter;
+import de.leonhard.storage.internal.provider.LightningProviders;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conformance of our {@link YamlEmitter} with yamlbeans.
+ */
+class YamlEmitterTest {
+
+  private static final Object[] SUPPORTED = {
+      "plain", "", " lead", "trail ", "a: b", "a:b", "#x", "x #y", "x#y", "- x", "-x", "'q'",
+      "\"d\"", "it's", "[x", "x, y", "&a", "---", "?", ":x", "x:", "\ttab", "\u00e4 unicode",
+      "multi\nline", "multi\nline\n", "trailing\n\n", "multi\n  indented\n",
+      "word word word word word word word word word word word word word word word word word word "
+          + "word word word word word word",
+      "#word word word word word word word word word word word word word word word word word "
+          + "word word word word word word",
+      1, -2L, 1.5, 1e20, 1.5f, (short) 3, (byte) 4, true, null, 'c', TimeUnit.SECONDS,
+      Collections.emptyMap(), Collections.emptyList(), new int[]{1, 2}, new String[]{"a"},
+      Arrays.asList("x", Collections.singletonMap("c", "d"), Arrays.asList("e", "f"), null),
+      Collections.singletonMap("deep", Collections.singletonMap("er", Arrays.asList(1, 2))),
+      Collections.singletonMap(1, "int key"),
+      Collections.singletonMap("", "empty key"),
+  };
+
+  private static final Object[] UNSUPPORTED = {
+      "\nleading", "\r", "\u0001", "\u0085", new BigDecimal("1.5"), new Object[]{"a"},
+      Collections.singletonMap("multi\nline", "key"),
+      Collections.singletonMap(null, "key"),
+  };
+
+  @Test
+  void testSameAsYamlbeans() throws Exception {
+    for (final Object value : SUPPORTED) {
+      final Map<String, Object> data = new LinkedHashMap<>();
+      data.put("key", value);
+      data.put("nested", Collections.singletonMap("key", value));
+      data.put("list", Arrays.asList(value, value));
+
+      final StringWriter expected = new StringWriter();
+      final SimpleYamlWriter writer = new SimpleYamlWriter(expected);
+      writer.write(data);
+      writer.close();
+
+      try (final YamlEmitter emitter = new YamlEmitter()) {
+        Assertions.assertTrue(emitter.emit(data), String.valueOf(value));
+        Assertions.assertEquals(expected.toString(), emitter.toString());
+      }
+    }
+  }
+
+  @Test
+  void testUnsupported() {
+    try (final YamlEmitter emitter = new YamlEmitter()) {
+      for (final Object value : UNSUPPORTED) {
+        Assertions.assertFalse(
+            emitter.emit(Collections.singletonMap("key", value)),
+            String.valueOf(value));
+        Assertions.assertEquals("", emitter.toString());
+      }
+      Assertions.assertTrue(emitter.emit(Collections.emptyMap()));
+    }
+  }
+
+  @Test
+  void testModifiedDefaultYamlConfig() {
+    Assertions.assertTrue(LightningProviders.hasDefaultYamlConfig());
+    // Settings our emitter doesn't know, yamlbeans has to write our YAML
+    LightningProviders.yamlConfig().writeConfig.setIndentSize(2);
+    try {
+      Assertions.assertFalse(LightningProviders.hasDefaultYamlConfig());
+    } finally {
+      LightningProviders.yamlConfig().writeConfig.setIndentSize(3);
+    }
+    Assertions.assertTrue(LightningProviders.hasDefaultYamlConfig());
+  }
+}